@@ -0,0 +1,121 @@
+package com.stfalcon.chatkit.messages;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Circular array list. Adding to the start and removing from the end don't shift the elements.<br/>
+ * Fits the chat where new messages go to the start and old ones are trimmed from the end.
+ */
+class RingList<E> extends AbstractList<E> implements RandomAccess {
+    private static final int DEFAULT_CAPACITY = 32;
+    private Object[] elements = new Object[DEFAULT_CAPACITY];
+    private int head;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) {
+        checkIndex(index, size);
+        return (E) elements[toArrayIndex(index)];
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E old = get(index);
+        elements[toArrayIndex(index)] = element;
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+
+        if (index == 0) {
+            head = (head - 1 + elements.length) % elements.length;
+        } else {
+            for (int i = size; i > index; i--) {
+                elements[toArrayIndex(i)] = elements[toArrayIndex(i - 1)];
+            }
+        }
+
+        elements[toArrayIndex(index)] = element;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        E old = get(index);
+
+        if (index == 0) {
+            elements[head] = null;
+            head = (head + 1) % elements.length;
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                elements[toArrayIndex(i)] = elements[toArrayIndex(i + 1)];
+            }
+            elements[toArrayIndex(size - 1)] = null;
+        }
+
+        size--;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, null);
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (toIndex != size) {
+            super.removeRange(fromIndex, toIndex);
+            return;
+        }
+
+        // Trim the tail without shifting
+        for (int i = fromIndex; i < toIndex; i++) {
+            elements[toArrayIndex(i)] = null;
+        }
+
+        size = fromIndex;
+        modCount++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= elements.length) {
+            return;
+        }
+
+        Object[] newElements = new Object[Math.max(capacity, elements.length * 2)];
+
+        for (int i = 0; i < size; i++) {
+            newElements[i] = elements[toArrayIndex(i)];
+        }
+
+        elements = newElements;
+        head = 0;
+    }
+
+    private int toArrayIndex(int index) {
+        return (head + index) % elements.length;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -689,6 +689,44 @@ public final class Video {
         percentWatched = video.percentWatched;
     }
 
+    /**
+     * Take the data of the refreshed copy of the same card (e.g. after the row refresh).<br/>
+     * The card looks the same, so only the fields that aren't shown are updated.
+     */
+    public void syncRefreshed(Video video) {
+        if (video == null) {
+            return;
+        }
+
+        id = video.id;
+        category = video.category;
+        itemType = video.itemType;
+        channelId = video.channelId;
+        videoUrl = video.videoUrl;
+        bgImageUrl = video.bgImageUrl;
+        author = video.author;
+        startTimeSeconds = video.startTimeSeconds;
+        previewUrl = video.previewUrl;
+        playlistId = video.playlistId;
+        playlistIndex = video.playlistIndex;
+        playlistParams = video.playlistParams;
+        reloadPageKey = video.reloadPageKey;
+        isShorts = video.isShorts;
+        isMovie = video.isMovie;
+        clickTrackingParams = video.clickTrackingParams;
+        durationMs = video.durationMs;
+        mediaItem = video.mediaItem;
+        nextMediaItem = video.nextMediaItem;
+        group = video.group;
+        description = video.description;
+        isSubscribed = video.isSubscribed;
+        sectionId = video.sectionId;
+        channelGroupId = video.channelGroupId;
+        remotePlaylistId = video.remotePlaylistId;
+        liveDurationMs = video.liveDurationMs;
+        startSegmentNum = video.startSegmentNum;
+    }
+
     public void sync(MediaItemMetadata metadata) {
         if (metadata == null) {
             return;
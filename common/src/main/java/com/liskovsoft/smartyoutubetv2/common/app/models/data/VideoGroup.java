@@ -9,9 +9,14 @@ import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.VideoSt
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.VideoStateService.State;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 public class VideoGroup {
     /**
@@ -33,6 +38,7 @@ public class VideoGroup {
     private int mId;
     private String mTitle;
     private List<Video> mVideos;
+    private final VideoIndex mIndex = VideoIndex.byId();
     private MediaGroup mMediaGroup;
     private BrowseSection mSection;
     private int mPosition = -1;
@@ -77,6 +83,7 @@ public class VideoGroup {
             videoGroup.mTitle = topItem.getGroup().getTitle();
         }
         videoGroup.mVideos = items;
+        videoGroup.mIndex.rebuild(items);
         videoGroup.mPosition = groupPosition;
 
         for (Video item : items) {
@@ -286,13 +293,14 @@ public class VideoGroup {
             return;
         }
 
-        int index = mVideos.indexOf(video);
+        int index = indexOf(video);
 
         if (index == -1) {
             return;
         }
 
         mVideos = mVideos.subList(index + 1, mVideos.size());
+        mIndex.rebuild(mVideos);
     }
 
     /**
@@ -314,16 +322,7 @@ public class VideoGroup {
             return null;
         }
 
-        Video result = null;
-
-        for (Video video : mVideos) {
-            if (Helpers.equals(videoId, video.videoId)) {
-                result = video;
-                break;
-            }
-        }
-
-        return result;
+        return mIndex.findById(mVideos, videoId);
     }
 
     public void clear() {
@@ -332,6 +331,7 @@ public class VideoGroup {
         }
 
         mVideos.clear();
+        mIndex.rebuild(mVideos);
     }
 
     public boolean contains(Video video) {
@@ -339,7 +339,7 @@ public class VideoGroup {
             return false;
         }
 
-        return mVideos.contains(video);
+        return mIndex.indexOf(mVideos, video) != -1;
     }
 
     public int getSize() {
@@ -355,7 +355,7 @@ public class VideoGroup {
             return -1;
         }
 
-        return mVideos.indexOf(video);
+        return mIndex.indexOf(mVideos, video);
     }
 
     public Video get(int idx) {
@@ -371,12 +371,63 @@ public class VideoGroup {
             return;
         }
 
+        int index = mIndex.indexOf(mVideos, video);
+
+        if (index == -1) {
+            return;
+        }
+
         try {
             // ConcurrentModificationException fix?
-            mVideos.remove(video);
+            Video removed = mVideos.remove(index);
+            mIndex.onRemove(removed, index);
+        } catch (UnsupportedOperationException | ConcurrentModificationException | IndexOutOfBoundsException e) { // read only collection
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Single pass removal of the exact items (compare by reference).
+     */
+    public void removeAll(Collection<Video> videos) {
+        if (mVideos == null || videos == null || videos.isEmpty()) {
+            return;
+        }
+
+        Set<Video> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+        toRemove.addAll(videos);
+
+        // Positions from the index. No need to scan the whole group.
+        TreeMap<Integer, Video> removed = new TreeMap<>();
+
+        for (Video video : toRemove) {
+            for (int position : mIndex.indexesOf(mVideos, video)) {
+                if (mVideos.get(position) == video) {
+                    removed.put(position, video);
+                }
+            }
+        }
+
+        if (removed.isEmpty()) {
+            return;
+        }
+
+        int size = mVideos.size();
+
+        try {
+            Helpers.removeIf(mVideos, toRemove::contains);
         } catch (UnsupportedOperationException | ConcurrentModificationException e) { // read only collection
             e.printStackTrace();
         }
+
+        if (size - mVideos.size() != removed.size()) {
+            mIndex.rebuild(mVideos);
+            return;
+        }
+
+        for (Map.Entry<Integer, Video> entry : removed.descendingMap().entrySet()) {
+            mIndex.onRemove(entry.getValue(), entry.getKey());
+        }
     }
 
     public boolean isEmpty() {
@@ -413,6 +464,16 @@ public class VideoGroup {
             video.sync(state);
         }
 
+        int size = mVideos.size();
+
         mVideos.add(idx, video);
+
+        if (idx == size) {
+            mIndex.onAppend(mVideos, size);
+        } else if (idx == 0) {
+            mIndex.onPrepend(mVideos, 1);
+        } else {
+            mIndex.rebuild(mVideos);
+        }
     }
 }
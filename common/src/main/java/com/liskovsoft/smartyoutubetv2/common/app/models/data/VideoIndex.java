@@ -0,0 +1,294 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Secondary index (key -> positions) over the list of videos.<br/>
+ * The owner updates the index on every mutation of the list. Lookups never modify the index.<br/>
+ * Removals don't touch other positions. Removed slots are subtracted on lookup.<br/>
+ * Every hit is verified against the list. Outdated or not built index falls back to the linear search.
+ */
+public class VideoIndex {
+    private final boolean mByReference;
+    // Stored position + mOffset - removed slots below == actual position
+    private final Map<Object, List<Integer>> mPositions = new HashMap<>();
+    // Stored positions of the removed items. Sorted ascending.
+    private final List<Integer> mRemoved = new ArrayList<>();
+    private int mOffset;
+    private int mSize = -1;
+
+    private VideoIndex(boolean byReference) {
+        mByReference = byReference;
+    }
+
+    /**
+     * Compare by reference. Because there may be multiple same videos.
+     */
+    public static VideoIndex byReference() {
+        return new VideoIndex(true);
+    }
+
+    /**
+     * Regular compare (see {@link Video#equals(Object)}).
+     */
+    public static VideoIndex byId() {
+        return new VideoIndex(false);
+    }
+
+    /**
+     * Items in range [start, videos.size()) were added at the end
+     */
+    public void onAppend(List<Video> videos, int start) {
+        if (isDirty() || mSize != start) {
+            rebuild(videos);
+            return;
+        }
+
+        for (int i = start; i < videos.size(); i++) {
+            put(getKey(videos.get(i)), i - mOffset + mRemoved.size());
+        }
+
+        mSize = videos.size();
+    }
+
+    /**
+     * Items in range [0, count) were added at the begin
+     */
+    public void onPrepend(List<Video> videos, int count) {
+        if (isDirty() || mSize + count != videos.size()) {
+            rebuild(videos);
+            return;
+        }
+
+        mOffset += count;
+
+        for (int i = 0; i < count; i++) {
+            put(getKey(videos.get(i)), i - mOffset);
+        }
+
+        mSize = videos.size();
+    }
+
+    /**
+     * Item at the position was removed from the list.<br/>
+     * Multiple removals should be reported from the end so the positions stay valid.
+     */
+    public void onRemove(Video item, int position) {
+        if (isDirty() || item == null) {
+            return;
+        }
+
+        Object key = getKey(item);
+        List<Integer> stored = mPositions.get(key);
+
+        if (stored != null) {
+            for (int i = 0; i < stored.size(); i++) {
+                int storedPosition = stored.get(i);
+
+                if (toActual(storedPosition) == position) {
+                    stored.remove(i);
+
+                    if (stored.isEmpty()) {
+                        mPositions.remove(key);
+                    }
+
+                    mRemoved.add(countRemovedBelow(storedPosition), storedPosition);
+                    mSize--;
+                    return;
+                }
+            }
+        }
+
+        // Item isn't indexed at this position
+        invalidate();
+    }
+
+    /**
+     * Call on any other change that shifts or replaces the items
+     */
+    public void rebuild(List<Video> videos) {
+        invalidate();
+
+        if (videos == null) {
+            return;
+        }
+
+        for (int i = 0; i < videos.size(); i++) {
+            put(getKey(videos.get(i)), i);
+        }
+
+        mSize = videos.size();
+    }
+
+    /**
+     * Lookups use the linear search until the next {@link #rebuild(List)}
+     */
+    public void invalidate() {
+        mPositions.clear();
+        mRemoved.clear();
+        mOffset = 0;
+        mSize = -1;
+    }
+
+    public int indexOf(List<Video> videos, Video item) {
+        if (videos == null || item == null) {
+            return -1;
+        }
+
+        List<Integer> positions = lookup(videos, item);
+
+        int result = -1;
+
+        for (int position : positions) {
+            if (matches(videos.get(position), item) && (result == -1 || position < result)) {
+                result = position;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * All occurrences of the same item (e.g. History section). Sorted ascending.
+     */
+    public List<Integer> indexesOf(List<Video> videos, Video item) {
+        if (videos == null || item == null) {
+            return Collections.emptyList();
+        }
+
+        List<Integer> result = null;
+
+        for (int position : lookup(videos, item)) {
+            if (matches(videos.get(position), item)) {
+                if (result == null) {
+                    result = new ArrayList<>();
+                }
+                result.add(position);
+            }
+        }
+
+        if (result == null) {
+            return Collections.emptyList();
+        }
+
+        Collections.sort(result);
+
+        return result;
+    }
+
+    /**
+     * Works with {@link #byId()} index only
+     */
+    public Video findById(List<Video> videos, String videoId) {
+        if (videos == null || videoId == null || mByReference) {
+            return null;
+        }
+
+        Video result = null;
+        int resultPosition = -1;
+
+        for (int position : lookup(videos, videoId)) {
+            Video video = videos.get(position);
+            if (videoId.equals(video.videoId) && (resultPosition == -1 || position < resultPosition)) {
+                result = video;
+                resultPosition = position;
+            }
+        }
+
+        return result;
+    }
+
+    private List<Integer> lookup(List<Video> videos, Video item) {
+        return lookup(videos, getKey(item));
+    }
+
+    private List<Integer> lookup(List<Video> videos, Object key) {
+        List<Integer> positions = isDirty() || mSize != videos.size() ? null : resolve(videos, key);
+
+        return positions != null ? positions : scan(videos, key);
+    }
+
+    private List<Integer> scan(List<Video> videos, Object key) {
+        List<Integer> result = new ArrayList<>(1);
+
+        for (int i = 0; i < videos.size(); i++) {
+            if (key.equals(getKey(videos.get(i)))) {
+                result.add(i);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns null if the index is outdated
+     */
+    private List<Integer> resolve(List<Video> videos, Object key) {
+        List<Integer> stored = mPositions.get(key);
+
+        if (stored == null) {
+            return Collections.emptyList();
+        }
+
+        List<Integer> result = new ArrayList<>(stored.size());
+
+        for (int storedPosition : stored) {
+            int position = toActual(storedPosition);
+
+            if (position < 0 || position >= videos.size() || !key.equals(getKey(videos.get(position)))) {
+                return null;
+            }
+
+            result.add(position);
+        }
+
+        return result;
+    }
+
+    private void put(Object key, int storedPosition) {
+        List<Integer> positions = mPositions.get(key);
+
+        if (positions == null) {
+            // Usually there's only one occurrence
+            positions = new ArrayList<>(1);
+            mPositions.put(key, positions);
+        }
+
+        positions.add(storedPosition);
+    }
+
+    private int toActual(int storedPosition) {
+        return storedPosition + mOffset - countRemovedBelow(storedPosition);
+    }
+
+    private int countRemovedBelow(int storedPosition) {
+        if (mRemoved.isEmpty()) {
+            return 0;
+        }
+
+        // Live position is never in the removed list
+        int index = Collections.binarySearch(mRemoved, storedPosition);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private boolean isDirty() {
+        return mSize == -1;
+    }
+
+    private boolean matches(Video video, Video item) {
+        return mByReference ? video == item : video.equals(item);
+    }
+
+    private Object getKey(Video video) {
+        if (mByReference) {
+            return System.identityHashCode(video);
+        }
+
+        // Equal videos always have the same id. Fallback to hash for channels, playlists etc.
+        return video.videoId != null ? video.videoId : video.hashCode();
+    }
+}
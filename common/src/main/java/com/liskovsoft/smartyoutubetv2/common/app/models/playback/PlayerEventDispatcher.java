@@ -0,0 +1,123 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.playback;
+
+import com.liskovsoft.sharedutils.mylogger.Log;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.listener.PlayerEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Precomputed listener tables for the frequent player events.<br/>
+ * Controller handles the event if it overrides the callback of {@link BasePlayerController}.<br/>
+ * Dispatch doesn't allocate. Time spent by each controller is collected to find the slow ones.
+ */
+public class PlayerEventDispatcher {
+    private static final String TAG = PlayerEventDispatcher.class.getSimpleName();
+    public static final int EVENT_TICKLE = 0;
+    public static final int EVENT_SEEK_POSITION_CHANGED = 1;
+    public static final int EVENT_BUFFERING = 2;
+    public static final int EVENT_PLAY = 3;
+    public static final int EVENT_PAUSE = 4;
+    public static final int EVENT_SEEK_END = 5;
+    public static final int EVENT_SPEED_CHANGED = 6;
+    public static final int EVENT_CONTROLS_SHOWN = 7;
+    private static final String[] EVENT_NAMES = {
+            "onTickle", "onSeekPositionChanged", "onBuffering", "onPlay", "onPause", "onSeekEnd", "onSpeedChanged", "onControlsShown"
+    };
+    private static final Class<?>[][] EVENT_PARAMS = {
+            {}, {long.class}, {}, {}, {}, {}, {float.class}, {boolean.class}
+    };
+    private static final long SLOW_CALL_NS = 8_000_000;
+    private final PlayerEventListener[][] mTables = new PlayerEventListener[EVENT_NAMES.length][];
+    private long[][] mTotalTimeNs;
+    private long[][] mMaxTimeNs;
+    private int[][] mCallCount;
+
+    public void setListeners(List<PlayerEventListener> listeners) {
+        for (int event = 0; event < EVENT_NAMES.length; event++) {
+            List<PlayerEventListener> table = new ArrayList<>();
+
+            for (PlayerEventListener listener : listeners) {
+                if (handlesEvent(listener, event)) {
+                    table.add(listener);
+                }
+            }
+
+            mTables[event] = table.toArray(new PlayerEventListener[0]);
+        }
+
+        resetStats();
+    }
+
+    /**
+     * Controllers that handle the event. Keeps the original order.
+     */
+    public PlayerEventListener[] getListeners(int event) {
+        return mTables[event];
+    }
+
+    public void onDispatched(int event, int index, long startTimeNs) {
+        long timeNs = System.nanoTime() - startTimeNs;
+
+        mTotalTimeNs[event][index] += timeNs;
+        mCallCount[event][index]++;
+
+        if (timeNs > mMaxTimeNs[event][index]) {
+            mMaxTimeNs[event][index] = timeNs;
+        }
+
+        if (timeNs > SLOW_CALL_NS) {
+            Log.d(TAG, "Slow %s in %s: %s ms", EVENT_NAMES[event], getName(mTables[event][index]), timeNs / 1_000_000);
+        }
+    }
+
+    /**
+     * Average and max time per controller and event.
+     */
+    public String getStats() {
+        StringBuilder result = new StringBuilder();
+
+        for (int event = 0; event < EVENT_NAMES.length; event++) {
+            for (int index = 0; index < mTables[event].length; index++) {
+                int count = mCallCount[event][index];
+
+                if (count == 0) {
+                    continue;
+                }
+
+                result.append(String.format(Locale.US, "%s %s: avg %.2f ms, max %.2f ms, calls %s%n",
+                        getName(mTables[event][index]), EVENT_NAMES[event],
+                        mTotalTimeNs[event][index] / 1_000_000f / count, mMaxTimeNs[event][index] / 1_000_000f, count));
+            }
+        }
+
+        return result.toString();
+    }
+
+    public void resetStats() {
+        mTotalTimeNs = new long[EVENT_NAMES.length][];
+        mMaxTimeNs = new long[EVENT_NAMES.length][];
+        mCallCount = new int[EVENT_NAMES.length][];
+
+        for (int event = 0; event < EVENT_NAMES.length; event++) {
+            int size = mTables[event] != null ? mTables[event].length : 0;
+            mTotalTimeNs[event] = new long[size];
+            mMaxTimeNs[event] = new long[size];
+            mCallCount[event] = new int[size];
+        }
+    }
+
+    private static boolean handlesEvent(PlayerEventListener listener, int event) {
+        try {
+            return listener.getClass().getMethod(EVENT_NAMES[event], EVENT_PARAMS[event]).getDeclaringClass() != BasePlayerController.class;
+        } catch (NoSuchMethodException e) {
+            // Renamed method? Better to dispatch than to lose the event.
+            return true;
+        }
+    }
+
+    private static String getName(PlayerEventListener listener) {
+        return listener.getClass().getSimpleName();
+    }
+}
@@ -38,8 +38,10 @@ public class AutoFrameRateController extends BasePlayerController implements Aut
     private final Runnable mApplyAfr = this::applyAfr;
     private final Runnable mApplyAfrStop = this::applyAfrStop;
     private boolean mIsPlay;
+    private boolean mIsAfrDelayNeeded;
     private VideoStateController mStateController;
     private HQDialogController mHQDialogController;
+    private PlaybackStatsController mStatsController;
     private final Runnable mPlaybackResumeHandler = () -> {
         if (getPlayer() != null) {
             restorePlayback();
@@ -58,6 +60,7 @@ public class AutoFrameRateController extends BasePlayerController implements Aut
         mAutoFrameRateHelper.saveOriginalState(getActivity());
         mStateController = getController(VideoStateController.class);
         mHQDialogController = getController(HQDialogController.class);
+        mStatsController = getController(PlaybackStatsController.class);
     }
 
     @Override
@@ -66,6 +69,7 @@ public class AutoFrameRateController extends BasePlayerController implements Aut
         mAutoFrameRateHelper.setResolutionSwitchEnabled(getPlayerData().isAfrResSwitchEnabled(), false);
         mAutoFrameRateHelper.setDoubleRefreshRateEnabled(getPlayerData().isDoubleRefreshRateEnabled());
         mAutoFrameRateHelper.setSkip24RateEnabled(getPlayerData().isSkip24RateEnabled());
+        mIsAfrDelayNeeded = true;
 
         addUiOptions();
     }
@@ -74,9 +78,14 @@ public class AutoFrameRateController extends BasePlayerController implements Aut
     public void onVideoLoaded(Video item) {
         savePlayback();
 
-        // Sometimes AFR is not working on activity startup. Trying to fix with delay.
-        applyAfrDelayed();
-        //applyAfr();
+        if (mIsAfrDelayNeeded) {
+            // Sometimes AFR is not working on activity startup. Trying to fix with delay.
+            mIsAfrDelayNeeded = false;
+            applyAfrDelayed();
+        } else {
+            // Tracks are known. Switch the mode while the player is buffering.
+            applyAfr();
+        }
     }
 
     @Override
@@ -205,13 +214,16 @@ public class AutoFrameRateController extends BasePlayerController implements Aut
         if (getPlayerData().getAfrPauseMs() > 0) {
             getPlayer().setPlayWhenReady(false);
             delayMs = getPlayerData().getAfrPauseMs();
+            mStatsController.onAfrPauseStart();
         }
 
         Utils.postDelayed(mPlaybackResumeHandler, delayMs);
     }
 
     private void savePlayback() {
-        if (!skipAfr() && mAutoFrameRateHelper.isSupported() && getPlayerData().isAfrEnabled() && getPlayerData().getAfrPauseMs() > 0) {
+        // Don't hold the playback when the current mode already fits the video
+        if (!skipAfr() && mAutoFrameRateHelper.isSupported() && getPlayerData().isAfrEnabled() && getPlayerData().getAfrPauseMs() > 0 &&
+                mAutoFrameRateHelper.isModeSwitchNeeded(getPlayer().getVideoFormat())) {
             mStateController.blockPlay(true);
         }
 
@@ -223,6 +235,7 @@ public class AutoFrameRateController extends BasePlayerController implements Aut
         if (!skipAfr() && mAutoFrameRateHelper.isSupported() && getPlayerData().getAfrPauseMs() > 0) {
             mStateController.blockPlay(false);
             getPlayer().setPlayWhenReady(mIsPlay);
+            mStatsController.onAfrPauseEnd();
         }
     }
 
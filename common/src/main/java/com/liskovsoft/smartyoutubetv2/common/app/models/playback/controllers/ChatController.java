@@ -17,9 +17,11 @@ import com.liskovsoft.smartyoutubetv2.common.prefs.PlayerData;
 import com.liskovsoft.smartyoutubetv2.common.prefs.PlayerTweaksData;
 import com.liskovsoft.youtubeapi.service.YouTubeServiceManager;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
 
 public class ChatController extends BasePlayerController {
     private static final String TAG = ChatController.class.getSimpleName();
@@ -27,6 +29,7 @@ public class ChatController extends BasePlayerController {
      * NOTE: Don't remove duplicates! They contain different chars.
      */
     private static final String[] BLACK_LIST = {". XYZ", ". ХYZ", "⠄XYZ", "⠄ХYZ", "Ricardo Merlino", "⠄СОM", ".COM", ".СОM", ". COM"};
+    private static final Pattern BLACK_LIST_PATTERN = compileBlackList();
     private LiveChatService mChatService;
     private Disposable mChatAction;
     private String mLiveChatKey;
@@ -59,14 +62,12 @@ public class ChatController extends BasePlayerController {
         ChatReceiver chatReceiver = new ChatReceiverImpl();
         getPlayer().setChatReceiver(chatReceiver);
 
+        // Filter and convert off the main thread. The receiver posts the result to the ui.
         mChatAction = mChatService.openLiveChatObserve(mLiveChatKey)
+                .observeOn(Schedulers.computation())
+                .filter(this::checkItem)
                 .subscribe(
-                        chatItem -> {
-                            Log.d(TAG, chatItem.getMessage());
-                            if (checkItem(chatItem)) {
-                                chatReceiver.addChatItem(chatItem);
-                            }
-                        },
+                        chatReceiver::addChatItem,
                         error -> {
                             Log.e(TAG, error.getMessage());
                             error.printStackTrace();
@@ -144,15 +145,21 @@ public class ChatController extends BasePlayerController {
             return false;
         }
 
-        String authorName = chatItem.getAuthorName();
+        return !BLACK_LIST_PATTERN.matcher(chatItem.getAuthorName()).find();
+    }
+
+    private static Pattern compileBlackList() {
+        StringBuilder regex = new StringBuilder();
 
         for (String spammer : BLACK_LIST) {
-            if (authorName.toLowerCase().contains(spammer.toLowerCase())) {
-                return false;
+            if (regex.length() != 0) {
+                regex.append('|');
             }
+
+            regex.append(Pattern.quote(spammer));
         }
 
-        return true;
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
     }
 
     private void enableLiveChat(boolean enabled) {
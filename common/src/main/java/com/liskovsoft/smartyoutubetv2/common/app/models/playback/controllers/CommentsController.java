@@ -17,11 +17,27 @@ import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.CommentsRece
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.AbstractCommentsReceiver;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.UiOptionItem;
 import com.liskovsoft.smartyoutubetv2.common.app.presenters.AppDialogPresenter;
+import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
+import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class CommentsController extends BasePlayerController {
     private static final String TAG = CommentsController.class.getSimpleName();
+    private static final int MAX_CACHED_PAGES = 50;
     private Disposable mCommentsAction;
+    private Disposable mPrefetchAction;
+    // Pages of the current video: comments key -> page. Entering and leaving the reply threads doesn't refetch them.
+    private final Map<String, CommentGroup> mCommentGroups = new LinkedHashMap<String, CommentGroup>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CommentGroup> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Map<String, Observable<CommentGroup>> mPendingGroups = new HashMap<>();
     private String mLiveChatKey;
     private String mCommentsKey;
     private String mTitle;
@@ -38,12 +54,16 @@ public class CommentsController extends BasePlayerController {
 
     @Override
     public void onMetadata(MediaItemMetadata metadata) {
+        String prevCommentsKey = mCommentsKey;
         mLiveChatKey = metadata != null && metadata.getLiveChatKey() != null ? metadata.getLiveChatKey() : null;
         mCommentsKey = metadata != null && metadata.getCommentsKey() != null ? metadata.getCommentsKey() : null;
         mTitle = metadata != null ? metadata.getTitle() : null;
         if (mBackup != null && !Helpers.equals(mBackup.first, mCommentsKey)) {
             mBackup = null;
         }
+        if (!Helpers.equals(prevCommentsKey, mCommentsKey)) {
+            clearCache();
+        }
     }
 
     private void openCommentsDialog() {
@@ -136,6 +156,7 @@ public class CommentsController extends BasePlayerController {
     public void onEngineReleased() {
         disposeActions();
         mBackup = null;
+        clearCache();
     }
 
     @Override
@@ -150,9 +171,23 @@ public class CommentsController extends BasePlayerController {
     private void loadComments(CommentsReceiver receiver, String commentsKey) {
         disposeActions();
 
-        mCommentsAction = getCommentsService().getCommentsObserve(commentsKey)
+        CommentGroup cachedGroup = mCommentGroups.get(commentsKey);
+
+        if (cachedGroup != null) {
+            // Don't update the list while it's being scrolled
+            Utils.post(() -> {
+                receiver.addCommentGroup(cachedGroup);
+                prefetchNext(cachedGroup);
+            });
+            return;
+        }
+
+        mCommentsAction = getCommentGroupObserve(commentsKey)
                 .subscribe(
-                        receiver::addCommentGroup,
+                        commentGroup -> {
+                            receiver.addCommentGroup(commentGroup);
+                            prefetchNext(commentGroup);
+                        },
                         error -> {
                             Log.e(TAG, error.getMessage());
                             receiver.addCommentGroup(null); // remove loading message
@@ -160,6 +195,52 @@ public class CommentsController extends BasePlayerController {
                 );
     }
 
+    /**
+     * One page ahead. So the next page is ready when the user scrolls to the end.
+     */
+    private void prefetchNext(CommentGroup commentGroup) {
+        String nextKey = commentGroup != null ? commentGroup.getNextCommentsKey() : null;
+
+        if (nextKey == null || mCommentGroups.containsKey(nextKey) || mPendingGroups.containsKey(nextKey)) {
+            return;
+        }
+
+        RxHelper.disposeActions(mPrefetchAction);
+
+        mPrefetchAction = getCommentGroupObserve(nextKey)
+                .subscribe(
+                        group -> Log.d(TAG, "Comments page prefetched"),
+                        error -> Log.e(TAG, "Comments prefetch error: %s", error.getMessage())
+                );
+    }
+
+    /**
+     * Shared between the prefetch and the load of the same page.
+     */
+    private Observable<CommentGroup> getCommentGroupObserve(String commentsKey) {
+        Observable<CommentGroup> pending = mPendingGroups.get(commentsKey);
+
+        if (pending != null) {
+            return pending;
+        }
+
+        pending = getCommentsService().getCommentsObserve(commentsKey)
+                .doOnNext(commentGroup -> mCommentGroups.put(commentsKey, commentGroup))
+                .doFinally(() -> mPendingGroups.remove(commentsKey))
+                .replay(1)
+                .refCount();
+
+        mPendingGroups.put(commentsKey, pending);
+
+        return pending;
+    }
+
+    private void clearCache() {
+        RxHelper.disposeActions(mPrefetchAction);
+        mCommentGroups.clear();
+        mPendingGroups.clear();
+    }
+
     private void showDialog(CommentsReceiver receiver, String title) {
         AppDialogPresenter appDialogPresenter = getAppDialogPresenter();
 
@@ -2,8 +2,6 @@ package com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers;
 
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
-import com.liskovsoft.mediaserviceinterfaces.MediaItemService;
-import com.liskovsoft.mediaserviceinterfaces.ServiceManager;
 import com.liskovsoft.mediaserviceinterfaces.data.MediaItemMetadata;
 import com.liskovsoft.mediaserviceinterfaces.data.SponsorSegment;
 import com.liskovsoft.sharedutils.helpers.Helpers;
@@ -13,6 +11,7 @@ import com.liskovsoft.smartyoutubetv2.common.R;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.BasePlayerController;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.manager.PlayerUI;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.SponsorSegmentCache;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.OptionItem;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.SeekBarSegment;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.UiOptionItem;
@@ -22,21 +21,24 @@ import com.liskovsoft.smartyoutubetv2.common.prefs.ContentBlockData;
 import com.liskovsoft.sharedutils.rx.RxHelper;
 import com.liskovsoft.smartyoutubetv2.common.prefs.PlayerTweaksData;
 import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
-import com.liskovsoft.youtubeapi.service.YouTubeServiceManager;
 import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 public class ContentBlockController extends BasePlayerController {
     private static final String TAG = ContentBlockController.class.getSimpleName();
-    private static final long POLL_INTERVAL_MS = 1_000;
     private static final int CONTENT_BLOCK_ID = 144;
-    private MediaItemService mMediaItemService;
+    private static final long SEGMENT_WINDOW_MS = 2_000;
     private List<SponsorSegment> mOriginalSegments;
     private List<SponsorSegment> mActiveSegments;
+    // Resolved once per video instead of the lookup on every check
+    private final Map<String, Integer> mSegmentActions = new HashMap<>();
+    private final Runnable mCheckSegments = this::checkSegments;
     private long mLastSkipPosMs;
     private boolean mSkipExclude;
     private Disposable mSegmentsAction;
@@ -79,12 +81,6 @@ public class ContentBlockController extends BasePlayerController {
         }
     }
 
-    @Override
-    public void onInit() {
-        ServiceManager service = YouTubeServiceManager.instance();
-        mMediaItemService = service.getMediaItemService();
-    }
-
     @Override
     public void onNewVideo(Video item) {
         mSkipExclude = false;
@@ -126,10 +122,30 @@ public class ContentBlockController extends BasePlayerController {
         disposeActions();
     }
 
+    @Override
+    public void onPlay() {
+        replanChecks();
+    }
+
+    @Override
+    public void onPause() {
+        Utils.removeCallbacks(mCheckSegments);
+    }
+
+    @Override
+    public void onSeekEnd() {
+        replanChecks();
+    }
+
+    @Override
+    public void onSpeedChanged(float speed) {
+        replanChecks();
+    }
+
     @Override
     public void onButtonClicked(int buttonId, int buttonState) {
         if (buttonId == R.id.action_content_block) {
-            List<SponsorSegment> foundSegments = findMatchedSegments(getPlayer().getPositionMs(), mOriginalSegments, true);
+            List<SponsorSegment> foundSegments = findMatchedSegments(getPlayer().getPositionMs(), mOriginalSegments, mSegmentActions, getWindowSizeMs(), true);
 
             if (foundSegments != null) {
                 SponsorSegment lastSegment = foundSegments.get(foundSegments.size() - 1);
@@ -165,43 +181,55 @@ public class ContentBlockController extends BasePlayerController {
         if (!Helpers.equals(mVideoId, item.videoId) || mCachedSegmentsAction == null) {
             // NOTE: SponsorBlock (when happened java.net.SocketTimeoutException) could block whole application with Schedulers.io()
             // Because Schedulers.io() reuses blocked threads in RxJava 2: https://github.com/ReactiveX/RxJava/issues/6542
-            mCachedSegmentsAction = mMediaItemService.getSponsorSegmentsObserve(item.videoId, getContentBlockData().getEnabledCategories())
-                    .cache();
+            // The cache uses own bounded scheduler and keeps segments on disk.
+            mCachedSegmentsAction = SponsorSegmentCache.instance(getContext())
+                    .getSegmentsObserve(item.videoId, getContentBlockData().getEnabledCategories());
             mVideoId = item.videoId;
         }
 
         mSegmentsAction = mCachedSegmentsAction
-                .flatMap(this::startSponsorWatcher)
                 .subscribe(
-                        this::skipSegment,
+                        this::startSponsorWatcher,
                         error -> Log.d(TAG, "It's ok. Nothing to block in this video. Error msg: %s", error.getMessage())
                 );
     }
 
-    private Observable<Long> startSponsorWatcher(List<SponsorSegment> segments) {
+    private void startSponsorWatcher(List<SponsorSegment> segments) {
         if (segments == null || segments.isEmpty()) {
             mActiveSegments = mOriginalSegments = null;
-            return Observable.empty();
+            return;
+        }
+
+        // Sorted by start. So the next segment is the first one after the position.
+        List<SponsorSegment> sorted = new ArrayList<>(segments);
+        Collections.sort(sorted, (o1, o2) -> Long.compare(o1.getStartMs(), o2.getStartMs()));
+
+        mSegmentActions.clear();
+
+        for (SponsorSegment segment : sorted) {
+            if (!mSegmentActions.containsKey(segment.getCategory())) {
+                mSegmentActions.put(segment.getCategory(), getContentBlockData().getAction(segment.getCategory()));
+            }
         }
 
-        mOriginalSegments = segments;
+        mOriginalSegments = sorted;
 
-        mActiveSegments = new ArrayList<>(segments);
+        mActiveSegments = new ArrayList<>(sorted);
 
         if (getContentBlockData().isColorMarkersEnabled()) {
-            getPlayer().setSeekBarSegments(toSeekBarSegments(segments));
+            getPlayer().setSeekBarSegments(toSeekBarSegments(sorted));
         }
         if (getContentBlockData().isActionsEnabled()) {
-            // Warn. Try to not access player object here.
-            // Or you'll get "Player is accessed on the wrong thread" error.
-            return RxHelper.interval(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            checkSegments();
         } else {
-            return Observable.empty();
+            mActiveSegments = null;
         }
     }
 
     private void disposeActions() {
         RxHelper.disposeActions(mSegmentsAction);
+        Utils.removeCallbacks(mCheckSegments);
+        mActiveSegments = null;
 
         // Note, removes all segments at once
         //getPlayer().setSeekBarSegments(null); // reset colors
@@ -210,7 +238,62 @@ public class ContentBlockController extends BasePlayerController {
         mLastSkipPosMs = 0;
     }
 
-    private void skipSegment(long interval) {
+    private void replanChecks() {
+        if (mActiveSegments != null && !mActiveSegments.isEmpty()) {
+            checkSegments();
+        }
+    }
+
+    private void checkSegments() {
+        Utils.removeCallbacks(mCheckSegments);
+
+        skipSegment();
+
+        if (mActiveSegments != null && getPlayer() != null && getPlayer().isPlaying()) {
+            scheduleNextCheck(getPlayer().getPositionMs());
+        }
+    }
+
+    /**
+     * One wake-up at the next segment start (or at the end of the current segment window).
+     */
+    private void scheduleNextCheck(long positionMs) {
+        long nextCheckMs = -1;
+
+        for (SponsorSegment segment : mActiveSegments) {
+            if (segment.getStartMs() > positionMs) {
+                nextCheckMs = segment.getStartMs();
+                break;
+            }
+
+            long windowEndMs = getWindowEndMs(segment, getWindowSizeMs());
+
+            // Leave the window to reset the last skip position
+            if (windowEndMs >= positionMs) {
+                nextCheckMs = windowEndMs + 1;
+                break;
+            }
+        }
+
+        if (nextCheckMs == -1) {
+            return;
+        }
+
+        float speed = getPlayer().getSpeed();
+        long delayMs = (long) ((nextCheckMs - positionMs) / (speed > 0 ? speed : 1));
+
+        Utils.postDelayed(mCheckSegments, delayMs);
+    }
+
+    private long getWindowSizeMs() {
+        return (long) (SEGMENT_WINDOW_MS * getPlayer().getSpeed());
+    }
+
+    private static long getWindowEndMs(SponsorSegment segment, long windowSizeMs) {
+        return Math.min(segment.getStartMs() + windowSizeMs, segment.getEndMs());
+    }
+
+    private void skipSegment() {
         if (mActiveSegments == null || mActiveSegments.isEmpty() || getVideo() == null || !Helpers.equals(mVideoId, getVideo().videoId)) {
             disposeActions();
             return;
@@ -223,7 +306,7 @@ public class ContentBlockController extends BasePlayerController {
 
         long positionMs = getPlayer().getPositionMs();
 
-        List<SponsorSegment> foundSegments = findMatchedSegments(positionMs, mActiveSegments, false);
+        List<SponsorSegment> foundSegments = findMatchedSegments(positionMs, mActiveSegments, mSegmentActions, getWindowSizeMs(), false);
 
         applyActions(foundSegments);
 
@@ -233,7 +316,7 @@ public class ContentBlockController extends BasePlayerController {
         }
     }
 
-    private boolean isPositionInsideSegment(long positionMs, SponsorSegment segment, boolean fullMatch) {
+    private static boolean isPositionInsideSegment(long positionMs, SponsorSegment segment, long windowSizeMs, boolean fullMatch) {
         // NOTE: in case of using Player.setSeekParameters (inaccurate seeking) increase sponsor segment window
         // int seekShift = 1_000;
         // return positionMs >= (segment.getStartMs() - seekShift) && positionMs <= (segment.getEndMs() + seekShift);
@@ -241,8 +324,7 @@ public class ContentBlockController extends BasePlayerController {
         if (fullMatch) {
             return positionMs >= segment.getStartMs() && positionMs <= segment.getEndMs();
         } else {
-            long windowSizeMs = (long) (2_000 * getPlayer().getSpeed());
-            return positionMs >= segment.getStartMs() && positionMs <= Math.min(segment.getStartMs() + windowSizeMs, segment.getEndMs());
+            return positionMs >= segment.getStartMs() && positionMs <= getWindowEndMs(segment, windowSizeMs);
         }
     }
 
@@ -334,9 +416,13 @@ public class ContentBlockController extends BasePlayerController {
     }
 
     /**
+     * Pure function. Package-private for tests.
+     * @param actions segment category -> action
+     * @param windowSizeMs segment beginning that is matched when fullMatch is false
      * @param fullMatch Match only the beginning or the full segment length
      */
-    private List<SponsorSegment> findMatchedSegments(long positionMs, List<SponsorSegment> segments, boolean fullMatch) {
+    static List<SponsorSegment> findMatchedSegments(long positionMs, List<SponsorSegment> segments, Map<String, Integer> actions,
+                                                    long windowSizeMs, boolean fullMatch) {
         if (segments == null) {
             return null;
         }
@@ -344,11 +430,11 @@ public class ContentBlockController extends BasePlayerController {
         List<SponsorSegment> foundSegment = null;
 
         for (SponsorSegment segment : segments) {
-            int action = getContentBlockData().getAction(segment.getCategory());
-            boolean isSkipAction = action == ContentBlockData.ACTION_SKIP_ONLY ||
-                    action == ContentBlockData.ACTION_SKIP_WITH_TOAST;
+            Integer action = actions.get(segment.getCategory());
+            boolean isSkipAction = action != null && (action == ContentBlockData.ACTION_SKIP_ONLY ||
+                    action == ContentBlockData.ACTION_SKIP_WITH_TOAST);
             if (foundSegment == null) {
-                if (isPositionInsideSegment(positionMs, segment, fullMatch)) {
+                if (isPositionInsideSegment(positionMs, segment, windowSizeMs, fullMatch)) {
                     foundSegment = new ArrayList<>();
                     foundSegment.add(segment);
 
@@ -359,7 +445,7 @@ public class ContentBlockController extends BasePlayerController {
                 }
             } else {
                 SponsorSegment lastSegment = foundSegment.get(foundSegment.size() - 1);
-                if (isSkipAction && isPositionInsideSegment(lastSegment.getEndMs() + 3_000, segment, fullMatch)) {
+                if (isSkipAction && isPositionInsideSegment(lastSegment.getEndMs() + 3_000, segment, windowSizeMs, fullMatch)) {
                     foundSegment.add(segment);
                 }
             }
@@ -379,7 +465,7 @@ public class ContentBlockController extends BasePlayerController {
         Integer resId = getContentBlockData().getLocalizedRes(lastSegment.getCategory());
         String skipMessage = resId != null ? getContext().getString(resId) : lastSegment.getCategory();
 
-        int type = getContentBlockData().getAction(lastSegment.getCategory());
+        int type = getAction(lastSegment.getCategory());
 
         long skipPosMs = lastSegment.getEndMs();
         // Fix infinite skip loop by ignoring short segments. TextureView has a seek bug.
@@ -399,6 +485,11 @@ public class ContentBlockController extends BasePlayerController {
         mLastSkipPosMs = skipPosMs;
     }
 
+    private int getAction(String category) {
+        Integer action = mSegmentActions.get(category);
+        return action != null ? action : getContentBlockData().getAction(category);
+    }
+
     private void closeTransparentDialog() {
         AppDialogPresenter dialogPresenter = AppDialogPresenter.instance(getContext());
 
@@ -0,0 +1,141 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers;
+
+import android.os.SystemClock;
+
+import com.liskovsoft.sharedutils.helpers.Helpers;
+import com.liskovsoft.sharedutils.mylogger.Log;
+import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.BasePlayerController;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.PlaybackSessionStats;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.PlaybackStatsStorage;
+import com.liskovsoft.smartyoutubetv2.common.exoplayer.selector.FormatItem;
+
+/**
+ * Collects the metrics of the current playback session. Reports are kept in {@link PlaybackStatsStorage}.
+ */
+public class PlaybackStatsController extends BasePlayerController {
+    private static final String TAG = PlaybackStatsController.class.getSimpleName();
+    private PlaybackSessionStats mStats;
+
+    @Override
+    public void onNewVideo(Video item) {
+        startSessionIfNeeded(item);
+    }
+
+    @Override
+    public void onSourceChanged(Video item) {
+        // Next video in the playlist doesn't come through onNewVideo
+        startSessionIfNeeded(item);
+    }
+
+    @Override
+    public void onPlay() {
+        if (mStats != null) {
+            mStats.onPlay(now());
+        }
+    }
+
+    @Override
+    public void onPause() {
+        if (mStats != null) {
+            mStats.onPause(now());
+        }
+    }
+
+    @Override
+    public void onBuffering() {
+        if (mStats != null) {
+            mStats.onBuffering(now());
+        }
+    }
+
+    @Override
+    public void onSeekEnd() {
+        if (mStats != null) {
+            mStats.onSeekEnd();
+        }
+    }
+
+    @Override
+    public void onTrackChanged(FormatItem track) {
+        if (mStats != null && track != null && track.getType() == FormatItem.TYPE_VIDEO) {
+            mStats.onVideoFormat(track.getWidth(), track.getHeight(), track.getFrameRate());
+        }
+    }
+
+    @Override
+    public void onTickle() {
+        updateDroppedFrames();
+    }
+
+    @Override
+    public void onEngineReleased() {
+        // The counter is gone with the engine
+        updateDroppedFrames();
+    }
+
+    @Override
+    public void onPlayEnd() {
+        finishSession();
+    }
+
+    @Override
+    public void onFinish() {
+        finishSession();
+    }
+
+    public void onEngineRestart() {
+        if (mStats != null) {
+            mStats.onEngineRestart();
+        }
+    }
+
+    public void onAfrPauseStart() {
+        if (mStats != null) {
+            mStats.onAfrPauseStart(now());
+        }
+    }
+
+    public void onAfrPauseEnd() {
+        if (mStats != null) {
+            mStats.onAfrPauseEnd(now());
+        }
+    }
+
+    private void startSessionIfNeeded(Video item) {
+        if (item == null || item.videoId == null || (mStats != null && Helpers.equals(mStats.getVideoId(), item.videoId))) {
+            return;
+        }
+
+        finishSession();
+
+        mStats = new PlaybackSessionStats(item.videoId, now(), System.currentTimeMillis());
+        getStorage().setCurrent(mStats);
+    }
+
+    private void finishSession() {
+        if (mStats == null) {
+            return;
+        }
+
+        updateDroppedFrames();
+        mStats.finish(now());
+        getStorage().add(mStats);
+        Log.d(TAG, mStats.toReport());
+        mStats = null;
+    }
+
+    private void updateDroppedFrames() {
+        if (mStats != null && getPlayer() != null) {
+            mStats.onDroppedFrames(getPlayer().getDroppedFrames());
+        }
+    }
+
+    private PlaybackStatsStorage getStorage() {
+        return PlaybackStatsStorage.instance(getContext());
+    }
+
+    private static long now() {
+        return SystemClock.elapsedRealtime();
+    }
+}
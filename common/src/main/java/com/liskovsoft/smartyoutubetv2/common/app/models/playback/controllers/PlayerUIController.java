@@ -561,6 +561,8 @@ public class PlayerUIController extends BasePlayerController {
             AutoFrameRateSettingsPresenter.instance(getContext()).show(() -> applyAfr(getPlayerData().isAfrEnabled() ? PlayerUI.BUTTON_OFF : PlayerUI.BUTTON_ON));
         } else if (buttonId == R.id.action_repeat) {
             showPlaybackModeDialog(buttonState);
+        } else if (buttonId == R.id.action_video_stats) {
+            Utils.exportPlaybackReports(getContext());
         }
     }
 
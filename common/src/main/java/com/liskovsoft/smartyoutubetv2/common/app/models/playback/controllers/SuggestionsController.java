@@ -20,17 +20,20 @@ import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.VideoGroup;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.BasePlayerController;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.manager.PlayerConstants;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.SponsorSegmentCache;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.OptionItem;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.SeekBarSegment;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.UiOptionItem;
 import com.liskovsoft.smartyoutubetv2.common.app.presenters.AppDialogPresenter;
 import com.liskovsoft.smartyoutubetv2.common.app.presenters.PlaybackPresenter;
 import com.liskovsoft.smartyoutubetv2.common.misc.BrowseProcessorManager;
+import com.liskovsoft.smartyoutubetv2.common.misc.ContinuationManager;
 import com.liskovsoft.smartyoutubetv2.common.misc.MediaServiceManager;
 import com.liskovsoft.smartyoutubetv2.common.prefs.GeneralData;
 import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
 import com.liskovsoft.youtubeapi.service.YouTubeServiceManager;
 import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
 import io.reactivex.disposables.Disposable;
 
 import java.util.ArrayList;
@@ -39,6 +42,7 @@ import java.util.List;
 public class SuggestionsController extends BasePlayerController {
     private static final String TAG = SuggestionsController.class.getSimpleName();
     private final List<Disposable> mActions = new ArrayList<>();
+    private final ContinuationManager mContinuationManager = new ContinuationManager();
     private MediaItemService mMediaItemService;
     private ContentService mContentService;
     private BrowseProcessorManager mBrowseProcessor;
@@ -107,6 +111,7 @@ public class SuggestionsController extends BasePlayerController {
 
         VideoGroup group = item.getGroup();
 
+        mContinuationManager.onFocused(group);
         continueGroup(group);
     }
 
@@ -164,19 +169,32 @@ public class SuggestionsController extends BasePlayerController {
     }
 
     private void continueGroup(VideoGroup group) {
-        continueGroup(group, null, true);
+        continueGroup(group, true);
     }
 
+    /**
+     * Actual loading starts only when the row is close to the focus
+     */
     private void continueGroup(VideoGroup group, boolean showLoading) {
-        continueGroup(group, null, showLoading);
-    }
-
-    private void continueGroup(VideoGroup group, OnVideoGroup callback, boolean showLoading) {
         if (group == null) {
             Log.e(TAG, "Can't continue group. The group is null.");
             return;
         }
 
+        mContinuationManager.request(group, finisher -> continueGroup(group, null, showLoading, finisher));
+    }
+
+    private void continueGroup(VideoGroup group, OnVideoGroup callback, boolean showLoading) {
+        continueGroup(group, callback, showLoading, null);
+    }
+
+    private Disposable continueGroup(VideoGroup group, OnVideoGroup callback, boolean showLoading,
+                                     ObservableTransformer<MediaGroup, MediaGroup> finisher) {
+        if (group == null || getPlayer() == null) {
+            Log.e(TAG, "Can't continue group. The group or player is null.");
+            return null;
+        }
+
         Log.d(TAG, "continueGroup: start continue group: " + group.getTitle());
 
         if (showLoading) {
@@ -185,7 +203,13 @@ public class SuggestionsController extends BasePlayerController {
 
         MediaGroup mediaGroup = group.getMediaGroup();
 
-        Disposable continueAction = mContentService.continueGroupObserve(mediaGroup)
+        Observable<MediaGroup> continuation = mContentService.continueGroupObserve(mediaGroup);
+
+        if (finisher != null) {
+            continuation = continuation.compose(finisher);
+        }
+
+        Disposable continueAction = continuation
                 .subscribe(
                         continueMediaGroup -> {
                             getPlayer().showProgressBar(false);
@@ -211,6 +235,8 @@ public class SuggestionsController extends BasePlayerController {
                 );
 
         mActions.add(continueAction);
+
+        return continueAction;
     }
 
     private void syncCurrentVideo(MediaItemMetadata mediaItemMetadata, Video video) {
@@ -227,7 +253,9 @@ public class SuggestionsController extends BasePlayerController {
         video.sync(mediaItemMetadata);
         getPlayer().setVideo(video);
 
-        getPlayer().setNextTitle(getNext());
+        Video next = getNext();
+        getPlayer().setNextTitle(next);
+        SponsorSegmentCache.instance(getContext()).prefetch(next);
 
         appendDislikes(video);
     }
@@ -253,7 +281,7 @@ public class SuggestionsController extends BasePlayerController {
 
         // NOTE: Load suggestions from mediaItem isn't robust. Because playlistId may be initialized from RemoteControlManager.
         // Video might be loaded from Channels section (has playlistParams)
-        observable = mMediaItemService.getMetadataObserve(video.videoId, video.getPlaylistId(), video.playlistIndex, video.playlistParams);
+        observable = MediaServiceManager.instance().getMetadataObserve(video.videoId, video.getPlaylistId(), video.playlistIndex, video.playlistParams);
 
         Disposable metadataAction = observable
                 .subscribe(
@@ -398,6 +426,7 @@ public class SuggestionsController extends BasePlayerController {
 
                 getPlayer().updateSuggestions(videoGroup);
                 mBrowseProcessor.process(videoGroup);
+                mContinuationManager.register(videoGroup);
 
                 if (groupIndex == 0) {
                     focusAndContinueIfNeeded(videoGroup);
@@ -790,6 +819,7 @@ public class SuggestionsController extends BasePlayerController {
     }
 
     private void disposeActions() {
+        mContinuationManager.clear();
         RxHelper.disposeActions(mActions);
         mChapters = null;
         mNextSectionVideo = null;
@@ -3,8 +3,6 @@ package com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers;
 import android.annotation.SuppressLint;
 import android.util.Pair;
 
-import com.liskovsoft.mediaserviceinterfaces.MediaItemService;
-import com.liskovsoft.mediaserviceinterfaces.ServiceManager;
 import com.liskovsoft.mediaserviceinterfaces.data.MediaFormat;
 import com.liskovsoft.mediaserviceinterfaces.data.MediaItemFormatInfo;
 import com.liskovsoft.mediaserviceinterfaces.data.MediaItemMetadata;
@@ -45,6 +43,7 @@ public class VideoLoaderController extends BasePlayerController {
     private Video mPendingVideo;
     private int mLastErrorType = -1;
     private SuggestionsController mSuggestionsController;
+    private PlaybackStatsController mStatsController;
     private long mSleepTimerStartMs;
     private Disposable mFormatInfoAction;
     private Disposable mMpdStreamAction;
@@ -60,6 +59,7 @@ public class VideoLoaderController extends BasePlayerController {
     };
     private final Runnable mRestartEngine = () -> {
         if (getPlayer() != null) {
+            mStatsController.onEngineRestart();
             getPlayer().restartEngine(); // properly save position of the current track
         }
     };
@@ -85,6 +85,7 @@ public class VideoLoaderController extends BasePlayerController {
     @Override
     public void onInit() {
         mSuggestionsController = getController(SuggestionsController.class);
+        mStatsController = getController(PlaybackStatsController.class);
         mSleepTimerStartMs = System.currentTimeMillis();
     }
 
@@ -157,6 +158,10 @@ public class VideoLoaderController extends BasePlayerController {
         Log.e(TAG, "Player error occurred: %s. Trying to fix…", type);
 
         mLastErrorType = type;
+        // Stream urls may be expired. Don't reuse them on restart.
+        if (getVideo() != null) {
+            MediaServiceManager.instance().invalidateFormatInfo(getVideo().videoId);
+        }
         runEngineErrorAction(type, rendererIndex, error);
     }
 
@@ -314,9 +319,8 @@ public class VideoLoaderController extends BasePlayerController {
         getPlayer().showProgressBar(true);
         disposeActions();
 
-        ServiceManager service = YouTubeServiceManager.instance();
-        MediaItemService mediaItemManager = service.getMediaItemService();
-        mFormatInfoAction = mediaItemManager.getFormatInfoObserve(video.videoId)
+        // Shares the request with the preload of the next video
+        mFormatInfoAction = MediaServiceManager.instance().getFormatInfoObserve(video.videoId)
                 .subscribe(this::processFormatInfo,
                            error -> {
                                getPlayer().showProgressBar(false);
@@ -981,7 +985,7 @@ public class VideoLoaderController extends BasePlayerController {
         }
 
         if (getPlayer().getDurationMs() - getPlayer().getPositionMs() < 50_000) {
-            MediaServiceManager.instance().loadFormatInfo(mSuggestionsController.getNext(), formatInfo -> {});
+            MediaServiceManager.instance().preloadFormatInfo(mSuggestionsController.getNext());
         }
     }
 }
@@ -7,6 +7,7 @@ import com.liskovsoft.smartyoutubetv2.common.R;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.Playlist;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.BasePlayerController;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.HistorySyncQueue;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.VideoStateService.State;
 import com.liskovsoft.smartyoutubetv2.common.app.presenters.AppDialogPresenter;
 import com.liskovsoft.smartyoutubetv2.common.exoplayer.selector.FormatItem;
@@ -133,6 +134,8 @@ public class VideoStateController extends BasePlayerController {
             saveState();
             persistState();
         }
+
+        HistorySyncQueue.instance(getContext()).flush();
     }
 
     @Override
@@ -513,7 +516,7 @@ public class VideoStateController extends BasePlayerController {
 
         long positionMs = video.isLive ? 0 : getPlayer().getPositionMs();
 
-        MediaServiceManager.instance().updateHistory(video, positionMs);
+        HistorySyncQueue.instance(getContext()).add(video, positionMs);
     }
 
     /**
@@ -24,6 +24,10 @@ public interface PlayerEngine extends PlayerConstants {
     void setFormat(FormatItem option);
     FormatItem getVideoFormat();
     FormatItem getAudioFormat();
+    /**
+     * Value of the video decoder counter or -1. Resets on every new source.
+     */
+    int getDroppedFrames();
     boolean isEngineInitialized();
     void restartEngine();
     void reloadPlayback();
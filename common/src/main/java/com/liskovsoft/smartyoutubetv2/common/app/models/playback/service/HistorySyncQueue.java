@@ -0,0 +1,366 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.playback.service;
+
+import android.annotation.SuppressLint;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+
+import com.liskovsoft.mediaserviceinterfaces.MediaItemService;
+import com.liskovsoft.sharedutils.helpers.Helpers;
+import com.liskovsoft.sharedutils.mylogger.Log;
+import com.liskovsoft.sharedutils.rx.RxHelper;
+import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs.ProfileChangeListener;
+import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
+import com.liskovsoft.youtubeapi.service.YouTubeServiceManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Persistent queue of the history positions not yet sent to the server.<br/>
+ * Keeps only the latest position per video. Sent in batches: on timer, on player exit and when the network is back.<br/>
+ * Failed entries go to the back of the queue. Entry that fails while the others are sent is dropped after a few tries.
+ */
+public class HistorySyncQueue implements ProfileChangeListener {
+    private static final String TAG = HistorySyncQueue.class.getSimpleName();
+    @SuppressLint("StaticFieldLeak")
+    private static HistorySyncQueue sInstance;
+    static final String HISTORY_SYNC_DATA = "history_sync_data";
+    private static final String DELIM = "&hq;";
+    private static final String FIELD_DELIM = "&hf;";
+    private static final int MAX_ENTRIES = 100;
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_BACKOFF_SHIFT = 5;
+    static final int MAX_ENTRY_FAILURES = 5;
+    private static final long FLUSH_DELAY_MS = 60_000;
+    private static final long MAX_RETRY_DELAY_MS = 30 * 60_000;
+    private static final long PERSIST_DELAY_MS = 10_000;
+    private final Context mContext;
+    private final AppPrefs mPrefs;
+    private final PositionSender mSender;
+    // video id -> entry. Ordered by the update time.
+    private final Map<String, Entry> mEntries = new LinkedHashMap<>();
+    private final Runnable mFlush = this::flush;
+    private final Runnable mPersistDataInt = this::persistDataInt;
+    private MediaItemService mMediaItemService;
+    // Key of the profile the entries belong to
+    private String mDataKey;
+    private Disposable mFlushAction;
+    private BroadcastReceiver mNetworkReceiver;
+    private boolean mIsFlushScheduled;
+    private int mFailures;
+
+    /**
+     * Sends the position to the server. Package-private for tests.
+     */
+    interface PositionSender {
+        Observable<Void> send(String videoId, Video video, long positionMs);
+    }
+
+    private static class Entry {
+        final String videoId;
+        final long positionMs;
+        // Not persisted. Holds additional data like playlist id.
+        final Video video;
+        int failures;
+
+        Entry(String videoId, long positionMs, Video video) {
+            this.videoId = videoId;
+            this.positionMs = positionMs;
+            this.video = video;
+        }
+    }
+
+    private HistorySyncQueue(Context context) {
+        this(context, null);
+    }
+
+    /**
+     * Package-private for tests
+     */
+    HistorySyncQueue(Context context, PositionSender sender) {
+        mContext = context;
+        mSender = sender != null ? sender : this::sendToServer;
+        mPrefs = AppPrefs.instance(context);
+        mPrefs.addListener(this);
+        restoreData();
+    }
+
+    public static HistorySyncQueue instance(Context context) {
+        if (sInstance == null && context != null) {
+            sInstance = new HistorySyncQueue(context.getApplicationContext());
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Replaces the queued position of the same video.
+     */
+    public void add(Video video, long positionMs) {
+        if (video == null || video.videoId == null) {
+            return;
+        }
+
+        synchronized (mEntries) {
+            // Move to the end
+            mEntries.remove(video.videoId);
+            mEntries.put(video.videoId, new Entry(video.videoId, positionMs, video));
+
+            while (mEntries.size() > MAX_ENTRIES) {
+                mEntries.remove(mEntries.keySet().iterator().next());
+            }
+        }
+
+        persistData();
+        scheduleFlush(FLUSH_DELAY_MS);
+    }
+
+    /**
+     * Send the queued positions now. E.g. when the player is closed.
+     */
+    public void flush() {
+        Utils.removeCallbacks(mFlush);
+        mIsFlushScheduled = false;
+
+        if (RxHelper.isAnyActionRunning(mFlushAction)) {
+            return;
+        }
+
+        List<Observable<Void>> batch = new ArrayList<>();
+        // Filled one by one. The batch is sequential.
+        List<Entry> failed = new ArrayList<>();
+        AtomicInteger synced = new AtomicInteger();
+
+        synchronized (mEntries) {
+            for (Entry entry : mEntries.values()) {
+                if (batch.size() >= BATCH_SIZE) {
+                    break;
+                }
+
+                batch.add(mSender.send(entry.videoId, entry.video, entry.positionMs)
+                        .doOnComplete(() -> {
+                            synced.incrementAndGet();
+                            onSynced(entry);
+                        })
+                        .doOnError(error -> failed.add(entry)));
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // One by one. Failed entry doesn't stop the batch.
+        mFlushAction = RxHelper.execute(Observable.concatDelayError(batch),
+                error -> onFlushError(error, failed, synced.get() > 0), this::onFlushComplete);
+    }
+
+    private Observable<Void> sendToServer(String videoId, Video video, long positionMs) {
+        float positionSec = positionMs / 1_000f;
+
+        if (video != null && video.mediaItem != null) {
+            return getMediaItemService().updateHistoryPositionObserve(video.mediaItem, positionSec);
+        }
+
+        return getMediaItemService().updateHistoryPositionObserve(videoId, positionSec);
+    }
+
+    private void onSynced(Entry entry) {
+        synchronized (mEntries) {
+            // Not updated while was sending
+            if (mEntries.get(entry.videoId) == entry) {
+                mEntries.remove(entry.videoId);
+            }
+        }
+
+        persistData();
+    }
+
+    private void onFlushComplete() {
+        mFailures = 0;
+        unregisterNetworkReceiver();
+
+        if (!isEmpty()) {
+            scheduleFlush(0);
+        }
+    }
+
+    /**
+     * @param isServerReachable some entries of the batch are sent. So the failed ones are likely broken.
+     */
+    private void onFailed(List<Entry> failed, boolean isServerReachable) {
+        synchronized (mEntries) {
+            for (Entry entry : failed) {
+                // Updated while was sending
+                if (mEntries.get(entry.videoId) != entry) {
+                    continue;
+                }
+
+                mEntries.remove(entry.videoId);
+
+                if (isServerReachable && ++entry.failures >= MAX_ENTRY_FAILURES) {
+                    Log.e(TAG, "Dropping history position of %s after %s failures", entry.videoId, entry.failures);
+                    continue;
+                }
+
+                // Move to the end. So the failed entries don't hold the others.
+                mEntries.put(entry.videoId, entry);
+            }
+        }
+
+        persistData();
+    }
+
+    private void onFlushError(Throwable error, List<Entry> failed, boolean isServerReachable) {
+        onFailed(failed, isServerReachable);
+
+        if (isServerReachable) {
+            Log.e(TAG, "History sync error: %s. Failed entries are retried later", error.getMessage());
+            mFailures = 0;
+            unregisterNetworkReceiver();
+            scheduleFlush(FLUSH_DELAY_MS);
+            return;
+        }
+
+        long delayMs = Math.min(FLUSH_DELAY_MS << Math.min(mFailures, MAX_BACKOFF_SHIFT), MAX_RETRY_DELAY_MS);
+        mFailures++;
+
+        Log.e(TAG, "History sync error: %s. Retry in %s sec", error.getMessage(), delayMs / 1_000);
+
+        registerNetworkReceiver();
+        Utils.postDelayed(mFlush, delayMs);
+        mIsFlushScheduled = true;
+    }
+
+    private void scheduleFlush(long delayMs) {
+        // Don't postpone the flush on every update
+        if (mIsFlushScheduled && delayMs != 0) {
+            return;
+        }
+
+        Utils.postDelayed(mFlush, delayMs);
+        mIsFlushScheduled = true;
+    }
+
+    private boolean isEmpty() {
+        synchronized (mEntries) {
+            return mEntries.isEmpty();
+        }
+    }
+
+    private void registerNetworkReceiver() {
+        if (mNetworkReceiver != null) {
+            return;
+        }
+
+        mNetworkReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                ConnectivityManager manager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+                NetworkInfo info = manager != null ? manager.getActiveNetworkInfo() : null;
+
+                // Skip the sticky broadcast. The network state didn't change since the error.
+                if (info != null && info.isConnected() && !isInitialStickyBroadcast()) {
+                    Log.d(TAG, "Network is back. Sending the history...");
+                    flush();
+                }
+            }
+        };
+
+        mContext.registerReceiver(mNetworkReceiver, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+    }
+
+    private void unregisterNetworkReceiver() {
+        if (mNetworkReceiver == null) {
+            return;
+        }
+
+        try {
+            mContext.unregisterReceiver(mNetworkReceiver);
+        } catch (IllegalArgumentException e) {
+            // not registered
+        }
+
+        mNetworkReceiver = null;
+    }
+
+    private MediaItemService getMediaItemService() {
+        if (mMediaItemService == null) {
+            mMediaItemService = YouTubeServiceManager.instance().getMediaItemService();
+        }
+
+        return mMediaItemService;
+    }
+
+    private void restoreData() {
+        synchronized (mEntries) {
+            mEntries.clear();
+
+            // Positions are bound to the account, like the local history
+            mDataKey = mPrefs.getAccountDataKey(HISTORY_SYNC_DATA);
+            String data = mPrefs.getData(mDataKey);
+
+            if (data == null) {
+                return;
+            }
+
+            for (String spec : Helpers.split(DELIM, data)) {
+                String[] split = Helpers.split(FIELD_DELIM, spec);
+                String videoId = Helpers.parseStr(split, 0);
+
+                if (videoId != null) {
+                    mEntries.put(videoId, new Entry(videoId, Helpers.parseLong(split, 1), null));
+                }
+            }
+        }
+
+        if (!isEmpty()) {
+            scheduleFlush(FLUSH_DELAY_MS);
+        }
+    }
+
+    private void persistData() {
+        Utils.postDelayed(mPersistDataInt, PERSIST_DELAY_MS);
+    }
+
+    private void persistDataInt() {
+        StringBuilder sb = new StringBuilder();
+
+        synchronized (mEntries) {
+            for (Entry entry : mEntries.values()) {
+                if (sb.length() != 0) {
+                    sb.append(DELIM);
+                }
+
+                sb.append(Helpers.merge(FIELD_DELIM, entry.videoId, entry.positionMs));
+            }
+        }
+
+        mPrefs.setData(mDataKey, sb.toString());
+    }
+
+    @Override
+    public void onProfileChanged() {
+        // Positions of the previous profile are sent when it's active again
+        RxHelper.disposeActions(mFlushAction);
+        Utils.removeCallbacks(mPersistDataInt, mFlush);
+        // Save the pending changes under the previous profile key
+        persistDataInt();
+        mIsFlushScheduled = false;
+        mFailures = 0;
+        unregisterNetworkReceiver();
+        restoreData();
+    }
+}
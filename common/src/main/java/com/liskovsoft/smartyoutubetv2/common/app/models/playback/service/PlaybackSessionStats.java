@@ -0,0 +1,259 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.playback.service;
+
+import androidx.annotation.NonNull;
+
+import com.liskovsoft.sharedutils.helpers.Helpers;
+
+import java.util.Locale;
+
+/**
+ * Metrics of the single playback session built from the player events.<br/>
+ * Doesn't read the clock. Every event gets its time from the caller. So the logic could be checked with the synthetic events.
+ */
+public class PlaybackSessionStats {
+    private static final String FIELD_DELIM = "&pf;";
+    private final String mVideoId;
+    private final long mDateMs;
+    private final long mStartTimeMs;
+    private long mDurationMs = -1;
+    private long mFirstFrameMs = -1;
+    private int mRebufferCount;
+    private long mRebufferTimeMs;
+    private int mFormatSwitches;
+    private int mDroppedFrames;
+    private long mAfrPauseMs;
+    private int mEngineRestarts;
+    private long mBufferingStartMs = -1;
+    private long mAfrPauseStartMs = -1;
+    private boolean mIsSeeking;
+    private String mFormatKey;
+    // Player counter value. Resets on every new source or engine restart.
+    private int mDroppedFramesCounter;
+
+    /**
+     * @param startTimeMs monotonic time. Same clock as the event times.
+     * @param dateMs wall clock time. Only for the report.
+     */
+    public PlaybackSessionStats(String videoId, long startTimeMs, long dateMs) {
+        mVideoId = videoId;
+        mStartTimeMs = startTimeMs;
+        mDateMs = dateMs;
+    }
+
+    public void onPlay(long timeMs) {
+        if (isFinished()) {
+            return;
+        }
+
+        if (mFirstFrameMs == -1) {
+            mFirstFrameMs = timeMs - mStartTimeMs;
+        }
+
+        endBuffering(timeMs);
+        mIsSeeking = false;
+    }
+
+    public void onPause(long timeMs) {
+        if (isFinished()) {
+            return;
+        }
+
+        endBuffering(timeMs);
+    }
+
+    /**
+     * Startup buffering and buffering after seek aren't rebuffers.
+     */
+    public void onBuffering(long timeMs) {
+        if (isFinished() || mFirstFrameMs == -1 || mIsSeeking || mBufferingStartMs != -1) {
+            return;
+        }
+
+        mBufferingStartMs = timeMs;
+    }
+
+    /**
+     * Player reports the seek buffering before the seek is processed. So the running interval belongs to the seek.
+     */
+    public void onSeekEnd() {
+        if (isFinished()) {
+            return;
+        }
+
+        mBufferingStartMs = -1;
+        mIsSeeking = true;
+    }
+
+    public void onVideoFormat(int width, int height, float frameRate) {
+        if (isFinished()) {
+            return;
+        }
+
+        String formatKey = String.format(Locale.US, "%sx%s@%.2f", width, height, frameRate);
+
+        if (mFormatKey != null && !mFormatKey.equals(formatKey)) {
+            mFormatSwitches++;
+        }
+
+        mFormatKey = formatKey;
+    }
+
+    /**
+     * @param counter current value of the player dropped frames counter
+     */
+    public void onDroppedFrames(int counter) {
+        if (isFinished() || counter < 0) {
+            return;
+        }
+
+        // Counter is reset. Frames of the previous counter are already added.
+        if (counter < mDroppedFramesCounter) {
+            mDroppedFramesCounter = 0;
+        }
+
+        mDroppedFrames += counter - mDroppedFramesCounter;
+        mDroppedFramesCounter = counter;
+    }
+
+    public void onAfrPauseStart(long timeMs) {
+        if (isFinished() || mAfrPauseStartMs != -1) {
+            return;
+        }
+
+        mAfrPauseStartMs = timeMs;
+    }
+
+    public void onAfrPauseEnd(long timeMs) {
+        if (isFinished() || mAfrPauseStartMs == -1) {
+            return;
+        }
+
+        mAfrPauseMs += timeMs - mAfrPauseStartMs;
+        mAfrPauseStartMs = -1;
+    }
+
+    public void onEngineRestart() {
+        if (isFinished()) {
+            return;
+        }
+
+        mEngineRestarts++;
+        // New engine starts with empty buffer
+        mIsSeeking = true;
+    }
+
+    /**
+     * Closes the running rebuffer and AFR pause. Next events are ignored.
+     */
+    public void finish(long timeMs) {
+        if (isFinished()) {
+            return;
+        }
+
+        endBuffering(timeMs);
+        onAfrPauseEnd(timeMs);
+        mDurationMs = timeMs - mStartTimeMs;
+    }
+
+    public boolean isFinished() {
+        return mDurationMs != -1;
+    }
+
+    public String getVideoId() {
+        return mVideoId;
+    }
+
+    public long getDateMs() {
+        return mDateMs;
+    }
+
+    /**
+     * -1 if the session isn't finished
+     */
+    public long getDurationMs() {
+        return mDurationMs;
+    }
+
+    /**
+     * -1 if the first frame isn't shown
+     */
+    public long getFirstFrameMs() {
+        return mFirstFrameMs;
+    }
+
+    public int getRebufferCount() {
+        return mRebufferCount;
+    }
+
+    public long getRebufferTimeMs() {
+        return mRebufferTimeMs;
+    }
+
+    public int getFormatSwitches() {
+        return mFormatSwitches;
+    }
+
+    public int getDroppedFrames() {
+        return mDroppedFrames;
+    }
+
+    public long getAfrPauseMs() {
+        return mAfrPauseMs;
+    }
+
+    public int getEngineRestarts() {
+        return mEngineRestarts;
+    }
+
+    public static PlaybackSessionStats fromString(String spec) {
+        if (spec == null) {
+            return null;
+        }
+
+        String[] split = Helpers.split(FIELD_DELIM, spec);
+        String videoId = Helpers.parseStr(split, 0);
+
+        if (videoId == null) {
+            return null;
+        }
+
+        PlaybackSessionStats stats = new PlaybackSessionStats(videoId, 0, Helpers.parseLong(split, 1));
+        stats.mDurationMs = Helpers.parseLong(split, 2);
+        stats.mFirstFrameMs = Helpers.parseLong(split, 3);
+        stats.mRebufferCount = Helpers.parseInt(split, 4, 0);
+        stats.mRebufferTimeMs = Helpers.parseLong(split, 5);
+        stats.mFormatSwitches = Helpers.parseInt(split, 6, 0);
+        stats.mDroppedFrames = Helpers.parseInt(split, 7, 0);
+        stats.mAfrPauseMs = Helpers.parseLong(split, 8);
+        stats.mEngineRestarts = Helpers.parseInt(split, 9, 0);
+
+        return stats;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return Helpers.merge(FIELD_DELIM, mVideoId, mDateMs, mDurationMs, mFirstFrameMs, mRebufferCount, mRebufferTimeMs,
+                mFormatSwitches, mDroppedFrames, mAfrPauseMs, mEngineRestarts);
+    }
+
+    /**
+     * Human readable report line
+     */
+    public String toReport() {
+        return String.format(Locale.US,
+                "%s: duration %s s, first frame %s ms, rebuffers %s (%s ms), format switches %s, dropped frames %s, afr pause %s ms, engine restarts %s",
+                mVideoId, mDurationMs / 1_000, mFirstFrameMs, mRebufferCount, mRebufferTimeMs,
+                mFormatSwitches, mDroppedFrames, mAfrPauseMs, mEngineRestarts);
+    }
+
+    private void endBuffering(long timeMs) {
+        if (mBufferingStartMs == -1) {
+            return;
+        }
+
+        mRebufferCount++;
+        mRebufferTimeMs += timeMs - mBufferingStartMs;
+        mBufferingStartMs = -1;
+    }
+}
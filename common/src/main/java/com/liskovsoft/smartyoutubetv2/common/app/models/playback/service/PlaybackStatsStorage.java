@@ -0,0 +1,155 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.playback.service;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+
+import com.liskovsoft.sharedutils.helpers.FileHelpers;
+import com.liskovsoft.sharedutils.helpers.Helpers;
+import com.liskovsoft.sharedutils.mylogger.Log;
+import com.liskovsoft.sharedutils.rx.RxHelper;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs;
+import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reports of the last playback sessions. Stored locally and never sent anywhere.
+ */
+public class PlaybackStatsStorage {
+    private static final String TAG = PlaybackStatsStorage.class.getSimpleName();
+    @SuppressLint("StaticFieldLeak")
+    private static PlaybackStatsStorage sInstance;
+    private static final String PLAYBACK_STATS_DATA = "playback_stats_data";
+    private static final String DELIM = "&ps;";
+    private static final String EXPORT_FILE_NAME = "playback_reports.txt";
+    private static final int MAX_REPORTS = 30;
+    private static final long PERSIST_DELAY_MS = 10_000;
+    private final Context mContext;
+    private final AppPrefs mPrefs;
+    // Oldest first
+    private final List<PlaybackSessionStats> mReports = new ArrayList<>();
+    private final Runnable mPersistDataInt = this::persistDataInt;
+    private PlaybackSessionStats mCurrent;
+
+    public interface ExportCallback {
+        /**
+         * Called on the main thread
+         * @param file exported file or null on error
+         */
+        void onExport(File file);
+    }
+
+    private PlaybackStatsStorage(Context context) {
+        mContext = context;
+        mPrefs = AppPrefs.instance(context);
+        restoreData();
+    }
+
+    public static PlaybackStatsStorage instance(Context context) {
+        if (sInstance == null && context != null) {
+            sInstance = new PlaybackStatsStorage(context.getApplicationContext());
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Running session. Shown in the stats overlay.
+     */
+    public void setCurrent(PlaybackSessionStats stats) {
+        mCurrent = stats;
+    }
+
+    public PlaybackSessionStats getCurrent() {
+        return mCurrent;
+    }
+
+    public void add(PlaybackSessionStats stats) {
+        if (stats == null || !stats.isFinished()) {
+            return;
+        }
+
+        if (mCurrent == stats) {
+            mCurrent = null;
+        }
+
+        mReports.add(stats);
+
+        while (mReports.size() > MAX_REPORTS) {
+            mReports.remove(0);
+        }
+
+        persistData();
+    }
+
+    public List<PlaybackSessionStats> getReports() {
+        return mReports;
+    }
+
+    /**
+     * Writes the reports to the text file in the app external dir. File is written in the background.
+     */
+    public void export(ExportCallback callback) {
+        // Copy. Reports are changed on the main thread.
+        List<PlaybackSessionStats> reports = new ArrayList<>(mReports);
+
+        RxHelper.runAsync(() -> {
+            File file = export(reports);
+            Utils.post(() -> callback.onExport(file));
+        });
+    }
+
+    private File export(List<PlaybackSessionStats> reports) {
+        File dir = FileHelpers.getExternalFilesDir(mContext);
+
+        if (dir == null) {
+            return null;
+        }
+
+        File file = new File(dir, EXPORT_FILE_NAME);
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+
+        try (Writer writer = new FileWriter(file)) {
+            for (PlaybackSessionStats stats : reports) {
+                writer.write(String.format("%s %s%n", dateFormat.format(new Date(stats.getDateMs())), stats.toReport()));
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Can't export playback reports: %s", e.getMessage());
+            return null;
+        }
+
+        return file;
+    }
+
+    private void restoreData() {
+        String data = mPrefs.getData(PLAYBACK_STATS_DATA);
+
+        if (data == null) {
+            return;
+        }
+
+        for (String spec : Helpers.split(DELIM, data)) {
+            PlaybackSessionStats stats = PlaybackSessionStats.fromString(spec);
+
+            if (stats != null) {
+                mReports.add(stats);
+            }
+        }
+    }
+
+    private void persistData() {
+        Utils.postDelayed(mPersistDataInt, PERSIST_DELAY_MS);
+    }
+
+    private void persistDataInt() {
+        mPrefs.setData(PLAYBACK_STATS_DATA, Helpers.merge(DELIM, mReports.toArray()));
+    }
+}
@@ -0,0 +1,261 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.playback.service;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.util.Pair;
+
+import com.liskovsoft.mediaserviceinterfaces.MediaItemService;
+import com.liskovsoft.mediaserviceinterfaces.data.SponsorSegment;
+import com.liskovsoft.sharedutils.helpers.Helpers;
+import com.liskovsoft.sharedutils.mylogger.Log;
+import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs;
+import com.liskovsoft.smartyoutubetv2.common.prefs.ContentBlockData;
+import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
+import com.liskovsoft.youtubeapi.service.YouTubeServiceManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * SponsorBlock segments persisted on disk. Keyed by video id and the set of the enabled categories.<br/>
+ * Requests run on own bounded scheduler. So the slow SponsorBlock API can't starve the shared io threads.<br/>
+ * Videos without segments are cached too, but for a shorter time.
+ */
+public class SponsorSegmentCache {
+    private static final String TAG = SponsorSegmentCache.class.getSimpleName();
+    @SuppressLint("StaticFieldLeak")
+    private static SponsorSegmentCache sInstance;
+    private static final String SPONSOR_SEGMENTS_DATA = "sponsor_segments_data";
+    private static final String DELIM = "&sc;";
+    private static final String FIELD_DELIM = "&sd;";
+    private static final String SEGMENT_DELIM = "&sg;";
+    private static final String VALUE_DELIM = "&sv;";
+    private static final int MAX_ENTRIES = 200;
+    private static final int MAX_THREADS = 2;
+    // Segments are mostly added at the first days after the upload
+    private static final long EXPIRE_TIME_MS = 2L * 24 * 60 * 60 * 1_000;
+    // Empty result might be caused by the unavailable SponsorBlock
+    private static final long EMPTY_EXPIRE_TIME_MS = 60 * 60 * 1_000;
+    private static final long PERSIST_DELAY_MS = 10_000;
+    // Daemon threads. Prefetch shouldn't keep the process alive.
+    private static final Scheduler sScheduler = Schedulers.from(Executors.newFixedThreadPool(MAX_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "sponsor-segments");
+        thread.setDaemon(true);
+        return thread;
+    }));
+    private final Context mContext;
+    private final AppPrefs mPrefs;
+    // key -> (update time, segments)
+    private final Map<String, Pair<Long, List<SponsorSegment>>> mEntries = new LinkedHashMap<String, Pair<Long, List<SponsorSegment>>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pair<Long, List<SponsorSegment>>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final Map<String, Observable<List<SponsorSegment>>> mPending = new HashMap<>();
+    private final Runnable mPersistDataInt = this::persistDataInt;
+    private MediaItemService mMediaItemService;
+
+    private static class CachedSegment implements SponsorSegment {
+        private final long mStartMs;
+        private final long mEndMs;
+        private final String mCategory;
+
+        CachedSegment(long startMs, long endMs, String category) {
+            mStartMs = startMs;
+            mEndMs = endMs;
+            mCategory = category;
+        }
+
+        @Override
+        public long getStartMs() {
+            return mStartMs;
+        }
+
+        @Override
+        public long getEndMs() {
+            return mEndMs;
+        }
+
+        @Override
+        public String getCategory() {
+            return mCategory;
+        }
+    }
+
+    private SponsorSegmentCache(Context context) {
+        mContext = context;
+        mPrefs = AppPrefs.instance(context);
+        restoreData();
+    }
+
+    public static SponsorSegmentCache instance(Context context) {
+        if (sInstance == null && context != null) {
+            sInstance = new SponsorSegmentCache(context.getApplicationContext());
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Emits on the main thread. Same video requested by the prefetch and the player shares the request.
+     */
+    public Observable<List<SponsorSegment>> getSegmentsObserve(String videoId, Set<String> categories) {
+        String key = createKey(videoId, categories);
+        Pair<Long, List<SponsorSegment>> entry = mEntries.get(key);
+
+        if (entry != null && !isExpired(entry.first, entry.second, System.currentTimeMillis())) {
+            return Observable.just(entry.second);
+        }
+
+        Observable<List<SponsorSegment>> pending = mPending.get(key);
+
+        if (pending != null) {
+            return pending;
+        }
+
+        MediaItemService service = getMediaItemService();
+
+        // Blocking call. The observable version is bound to the shared io scheduler.
+        pending = Observable.fromCallable(() -> {
+                    List<SponsorSegment> segments = service.getSponsorSegments(videoId, categories);
+                    // No segments for the video
+                    return segments != null ? segments : Collections.<SponsorSegment>emptyList();
+                })
+                .subscribeOn(sScheduler)
+                .observeOn(AndroidSchedulers.mainThread())
+                .doOnNext(segments -> putEntry(key, segments))
+                .doFinally(() -> mPending.remove(key))
+                .cache();
+
+        mPending.put(key, pending);
+
+        return pending;
+    }
+
+    /**
+     * Load segments in background. So skipping works from the first second.
+     */
+    public void prefetch(Video video) {
+        ContentBlockData data = ContentBlockData.instance(mContext);
+
+        if (video == null || video.videoId == null || video.isLive || !data.isSponsorBlockEnabled() ||
+                data.getEnabledCategories().isEmpty() || data.isChannelExcluded(video.channelId)) {
+            return;
+        }
+
+        Set<String> categories = data.getEnabledCategories();
+        String key = createKey(video.videoId, categories);
+
+        // Don't occupy all threads with the prefetch
+        if (mEntries.containsKey(key) || mPending.containsKey(key) || mPending.size() >= MAX_THREADS) {
+            return;
+        }
+
+        getSegmentsObserve(video.videoId, categories)
+                .subscribe(
+                        segments -> Log.d(TAG, "Prefetched %s segments for %s", segments.size(), video.videoId),
+                        error -> Log.d(TAG, "Prefetch error: %s", error.getMessage())
+                );
+    }
+
+    private MediaItemService getMediaItemService() {
+        if (mMediaItemService == null) {
+            mMediaItemService = YouTubeServiceManager.instance().getMediaItemService();
+        }
+
+        return mMediaItemService;
+    }
+
+    private void putEntry(String key, List<SponsorSegment> segments) {
+        mEntries.put(key, new Pair<>(System.currentTimeMillis(), segments));
+        persistData();
+    }
+
+    private static boolean isExpired(long updateTimeMs, List<SponsorSegment> segments, long now) {
+        return now - updateTimeMs >= (segments.isEmpty() ? EMPTY_EXPIRE_TIME_MS : EXPIRE_TIME_MS);
+    }
+
+    private static String createKey(String videoId, Set<String> categories) {
+        List<String> sorted = new ArrayList<>(categories);
+        Collections.sort(sorted);
+
+        return videoId + ":" + Helpers.merge(",", sorted.toArray());
+    }
+
+    private void restoreData() {
+        String data = mPrefs.getData(SPONSOR_SEGMENTS_DATA);
+
+        if (data == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+
+        for (String spec : Helpers.split(DELIM, data)) {
+            String[] split = Helpers.split(FIELD_DELIM, spec);
+            String key = Helpers.parseStr(split, 0);
+            long updateTimeMs = Helpers.parseLong(split, 1);
+            String segmentsData = Helpers.parseStr(split, 2);
+
+            if (key == null) {
+                continue;
+            }
+
+            List<SponsorSegment> segments = new ArrayList<>();
+
+            if (segmentsData != null) {
+                for (String segmentSpec : Helpers.split(SEGMENT_DELIM, segmentsData)) {
+                    String[] values = Helpers.split(VALUE_DELIM, segmentSpec);
+                    segments.add(new CachedSegment(Helpers.parseLong(values, 0), Helpers.parseLong(values, 1), Helpers.parseStr(values, 2)));
+                }
+            }
+
+            if (isExpired(updateTimeMs, segments, now)) {
+                continue;
+            }
+
+            mEntries.put(key, new Pair<>(updateTimeMs, segments));
+        }
+    }
+
+    private void persistData() {
+        Utils.postDelayed(mPersistDataInt, PERSIST_DELAY_MS);
+    }
+
+    private void persistDataInt() {
+        StringBuilder sb = new StringBuilder();
+
+        for (Map.Entry<String, Pair<Long, List<SponsorSegment>>> entry : mEntries.entrySet()) {
+            StringBuilder segments = new StringBuilder();
+
+            for (SponsorSegment segment : entry.getValue().second) {
+                if (segments.length() != 0) {
+                    segments.append(SEGMENT_DELIM);
+                }
+
+                segments.append(Helpers.merge(VALUE_DELIM, segment.getStartMs(), segment.getEndMs(), segment.getCategory()));
+            }
+
+            if (sb.length() != 0) {
+                sb.append(DELIM);
+            }
+
+            sb.append(Helpers.merge(FIELD_DELIM, entry.getKey(), entry.getValue().first, segments.length() != 0 ? segments : null));
+        }
+
+        mPrefs.setData(SPONSOR_SEGMENTS_DATA, sb.toString());
+    }
+}
@@ -3,12 +3,14 @@ package com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui;
 import com.liskovsoft.mediaserviceinterfaces.data.ChatItem;
 
 public class ChatReceiverImpl implements ChatReceiver {
-    private Callback mCallback;
+    private volatile Callback mCallback;
 
     @Override
     public void addChatItem(ChatItem chatItem) {
-        if (mCallback != null) {
-            mCallback.onChatItem(chatItem);
+        Callback callback = mCallback;
+
+        if (callback != null) {
+            callback.onChatItem(chatItem);
         }
     }
 
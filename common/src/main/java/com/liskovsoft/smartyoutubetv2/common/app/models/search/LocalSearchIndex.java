@@ -0,0 +1,262 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.search;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.text.TextUtils;
+
+import com.liskovsoft.mediaserviceinterfaces.data.ItemGroup;
+import com.liskovsoft.sharedutils.helpers.Helpers;
+import com.liskovsoft.sharedutils.mylogger.Log;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.VideoStateService;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.VideoStateService.State;
+import com.liskovsoft.smartyoutubetv2.common.app.presenters.dialogs.menu.providers.channelgroup.ChannelGroupServiceWrapper;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs.ProfileChangeListener;
+import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Local search suggestions: own queries, watched titles and channel names.<br/>
+ * Sorted-array prefix index. Lookup is a binary search followed by a short scan.
+ */
+public class LocalSearchIndex implements ProfileChangeListener {
+    private static final String TAG = LocalSearchIndex.class.getSimpleName();
+    @SuppressLint("StaticFieldLeak")
+    private static LocalSearchIndex sInstance;
+    private static final String LOCAL_SEARCH_HISTORY_DATA = "local_search_history_data";
+    private static final String DELIM = "&sh;";
+    private static final int MAX_QUERIES = 200;
+    private static final int MAX_WORDS_PER_ENTRY = 4;
+    private static final int RANK_QUERY = 0;
+    private static final int RANK_CHANNEL = 1;
+    private static final int RANK_TITLE = 2;
+    private static final long PERSIST_DELAY_MS = 10_000;
+    private final Context mContext;
+    private final AppPrefs mPrefs;
+    private final List<String> mQueries = new ArrayList<>();
+    private final Runnable mPersistDataInt = this::persistDataInt;
+    private Entry[] mEntries;
+    private State mLastState;
+    private int mStatesSize = -1;
+
+    private static class Entry {
+        final String key;
+        final String value;
+        final int rank;
+
+        Entry(String key, String value, int rank) {
+            this.key = key;
+            this.value = value;
+            this.rank = rank;
+        }
+    }
+
+    private LocalSearchIndex(Context context) {
+        mContext = context;
+        mPrefs = AppPrefs.instance(context);
+        mPrefs.addListener(this);
+        restoreData();
+    }
+
+    public static LocalSearchIndex instance(Context context) {
+        if (sInstance == null && context != null) {
+            sInstance = new LocalSearchIndex(context.getApplicationContext());
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Values that contain a word starting with the prefix. Own queries go first.
+     */
+    public List<String> search(String prefix, int limit) {
+        if (TextUtils.isEmpty(prefix)) {
+            return Collections.emptyList();
+        }
+
+        Entry[] entries = getEntries();
+        String key = normalize(prefix);
+
+        List<Entry> found = new ArrayList<>();
+        Set<String> values = new LinkedHashSet<>();
+
+        for (int i = lowerBound(entries, key); i < entries.length && entries[i].key.startsWith(key); i++) {
+            if (values.add(entries[i].value)) {
+                found.add(entries[i]);
+            }
+        }
+
+        // Stable sort. Keeps alphabetical order inside the same rank.
+        Collections.sort(found, (o1, o2) -> Integer.compare(o1.rank, o2.rank));
+
+        List<String> result = new ArrayList<>(Math.min(limit, found.size()));
+
+        for (Entry entry : found) {
+            if (result.size() >= limit) {
+                break;
+            }
+
+            result.add(entry.value);
+        }
+
+        return result;
+    }
+
+    public void addQuery(String query) {
+        if (TextUtils.isEmpty(query) || TextUtils.isEmpty(query.trim())) {
+            return;
+        }
+
+        query = query.trim();
+
+        mQueries.remove(query);
+        mQueries.add(0, query);
+
+        while (mQueries.size() > MAX_QUERIES) {
+            mQueries.remove(mQueries.size() - 1);
+        }
+
+        mEntries = null;
+        persistData();
+    }
+
+    public void clearQueries() {
+        mQueries.clear();
+        mEntries = null;
+        persistData();
+    }
+
+    private Entry[] getEntries() {
+        VideoStateService stateService = VideoStateService.instance(mContext);
+        int statesSize = stateService.getStates().size();
+        State lastState = stateService.getLastState();
+
+        // History has been changed
+        if (mEntries == null || mStatesSize != statesSize || mLastState != lastState) {
+            mStatesSize = statesSize;
+            mLastState = lastState;
+            mEntries = buildEntries(stateService.getStates());
+        }
+
+        return mEntries;
+    }
+
+    private Entry[] buildEntries(List<State> states) {
+        List<Entry> result = new ArrayList<>();
+
+        for (String query : mQueries) {
+            addEntries(result, query, RANK_QUERY);
+        }
+
+        for (State state : states.toArray(new State[0])) {
+            if (state != null && state.video != null) {
+                addEntries(result, state.video.getTitle(), RANK_TITLE);
+                addEntries(result, state.video.getAuthor(), RANK_CHANNEL);
+            }
+        }
+
+        try {
+            List<ItemGroup> groups = ChannelGroupServiceWrapper.instance(mContext).getChannelGroups();
+
+            if (groups != null) {
+                for (ItemGroup group : groups) {
+                    for (ItemGroup.Item item : group.getItems()) {
+                        addEntries(result, item.getTitle(), RANK_CHANNEL);
+                    }
+                }
+            }
+        } catch (Exception e) { // channel groups aren't ready
+            Log.e(TAG, "Can't index channel groups: %s", e.getMessage());
+        }
+
+        Entry[] entries = result.toArray(new Entry[0]);
+        Arrays.sort(entries, (o1, o2) -> o1.key.compareTo(o2.key));
+
+        return entries;
+    }
+
+    /**
+     * One key per word. So the value could be found by the word in the middle.
+     */
+    private static void addEntries(List<Entry> entries, String value, int rank) {
+        if (TextUtils.isEmpty(value)) {
+            return;
+        }
+
+        String key = normalize(value);
+        int words = 0;
+        int start = 0;
+
+        while (start < key.length() && words < MAX_WORDS_PER_ENTRY) {
+            entries.add(new Entry(key.substring(start), value, rank));
+            words++;
+
+            int space = key.indexOf(' ', start);
+
+            if (space == -1) {
+                break;
+            }
+
+            start = space + 1;
+        }
+    }
+
+    private static int lowerBound(Entry[] entries, String key) {
+        int low = 0;
+        int high = entries.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            if (entries[mid].key.compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void restoreData() {
+        mQueries.clear();
+        mEntries = null;
+
+        String data = mPrefs.getProfileData(LOCAL_SEARCH_HISTORY_DATA);
+
+        if (data == null) {
+            return;
+        }
+
+        for (String query : Helpers.split(DELIM, data)) {
+            if (!TextUtils.isEmpty(query)) {
+                mQueries.add(query);
+            }
+        }
+    }
+
+    private void persistData() {
+        Utils.postDelayed(mPersistDataInt, PERSIST_DELAY_MS);
+    }
+
+    private void persistDataInt() {
+        mPrefs.setProfileData(LOCAL_SEARCH_HISTORY_DATA, Helpers.merge(DELIM, mQueries.toArray()));
+    }
+
+    @Override
+    public void onProfileChanged() {
+        Utils.removeCallbacks(mPersistDataInt);
+        restoreData();
+    }
+}
@@ -1,5 +1,6 @@
 package com.liskovsoft.smartyoutubetv2.common.app.models.search;
 
+import android.content.Context;
 import android.text.TextUtils;
 
 import com.liskovsoft.mediaserviceinterfaces.ContentService;
@@ -8,33 +9,139 @@ import com.liskovsoft.sharedutils.mylogger.Log;
 import com.liskovsoft.smartyoutubetv2.common.app.models.search.vineyard.Tag;
 import com.liskovsoft.sharedutils.rx.RxHelper;
 import com.liskovsoft.youtubeapi.service.YouTubeServiceManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.Disposable;
 
+/**
+ * Local suggestions are shown immediately. Remote ones are appended after the typing pause.
+ */
 public class MediaServiceSearchTagProvider implements SearchTagsProvider {
     private static final String TAG = MediaServiceSearchTagProvider.class.getSimpleName();
+    private static final long MIN_DEBOUNCE_MS = 100;
+    private static final long MAX_DEBOUNCE_MS = 500;
+    private static final long TYPING_PAUSE_MS = 2_000;
+    private static final int MAX_CACHE_SIZE = 100;
+    // Remote results per query. Lives till the app is closed or the account/history is changed.
+    private static final Map<String, List<String>> sRemoteCache = Collections.synchronizedMap(new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    });
     private final ContentService mContentService;
-    private final boolean mIgnoreEmptyQuery;
+    private final PrefsSearchTagsProvider mLocalProvider;
+    private final boolean mIsHistoryDisabled;
     private Disposable mTagsAction;
+    private long mLastQueryTimeMs;
+    private long mTypingIntervalMs = MIN_DEBOUNCE_MS;
 
-    public MediaServiceSearchTagProvider(boolean ignoreEmptyQuery) {
-        mIgnoreEmptyQuery = ignoreEmptyQuery;
+    /**
+     * @param isHistoryDisabled don't show the history suggestions for the empty query
+     */
+    public MediaServiceSearchTagProvider(Context context, boolean isHistoryDisabled) {
+        mIsHistoryDisabled = isHistoryDisabled;
         ServiceManager service = YouTubeServiceManager.instance();
         mContentService = service.getContentService();
+        mLocalProvider = new PrefsSearchTagsProvider(context);
     }
 
     @Override
     public void search(String query, ResultsCallback callback) {
         RxHelper.disposeActions(mTagsAction);
 
-        if (mIgnoreEmptyQuery && TextUtils.isEmpty(query)) {
+        if (mIsHistoryDisabled && TextUtils.isEmpty(query)) {
             callback.onResults(null);
             return;
         }
 
+        String key = query != null ? query : "";
+
+        List<Tag> localTags = new ArrayList<>();
+        mLocalProvider.search(key, results -> {
+            if (results != null) {
+                localTags.addAll(results);
+            }
+        });
+
+        if (!localTags.isEmpty()) {
+            callback.onResults(localTags);
+        }
+
+        // Empty query returns the search history. It's changed by every search, so never cached.
+        boolean isCacheable = !key.isEmpty();
+        List<String> cached = isCacheable ? sRemoteCache.get(key) : null;
+
+        if (cached != null) {
+            callback.onResults(excludeLocal(cached, localTags));
+            return;
+        }
+
         mTagsAction = mContentService.getSearchTagsObserve(query)
+                .delaySubscription(getDebounceMs(), TimeUnit.MILLISECONDS)
+                .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
-                        tags -> callback.onResults(Tag.from(tags)),
+                        tags -> {
+                            if (isCacheable) {
+                                sRemoteCache.put(key, tags);
+                            }
+
+                            callback.onResults(excludeLocal(tags, localTags));
+                        },
                         error -> Log.e(TAG, "Result is empty. Just ignore it. Error msg: %s", error.getMessage())
                 );
     }
+
+    /**
+     * Remote suggestions depend on the account and its search history
+     */
+    public static void clearCache() {
+        sRemoteCache.clear();
+    }
+
+    /**
+     * Wait a bit longer than the usual pause between the key presses
+     */
+    private long getDebounceMs() {
+        long now = System.currentTimeMillis();
+        long intervalMs = now - mLastQueryTimeMs;
+        mLastQueryTimeMs = now;
+
+        if (intervalMs < TYPING_PAUSE_MS) {
+            mTypingIntervalMs = (mTypingIntervalMs * 2 + intervalMs) / 3;
+        }
+
+        return Math.max(MIN_DEBOUNCE_MS, Math.min(MAX_DEBOUNCE_MS, mTypingIntervalMs * 6 / 5));
+    }
+
+    private static List<Tag> excludeLocal(List<String> remoteTags, List<Tag> localTags) {
+        if (remoteTags == null || localTags.isEmpty()) {
+            return Tag.from(remoteTags);
+        }
+
+        Set<String> local = new HashSet<>();
+
+        for (Tag tag : localTags) {
+            local.add(tag.tag);
+        }
+
+        List<String> result = new ArrayList<>();
+
+        for (String tag : remoteTags) {
+            if (!local.contains(tag)) {
+                result.add(tag);
+            }
+        }
+
+        return Tag.from(result);
+    }
 }
@@ -1,20 +1,22 @@
 package com.liskovsoft.smartyoutubetv2.common.app.models.search;
 
-import com.liskovsoft.smartyoutubetv2.common.app.models.search.vineyard.Tag;
+import android.content.Context;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.liskovsoft.smartyoutubetv2.common.app.models.search.vineyard.Tag;
 
+/**
+ * Suggestions from the local data only. Answers synchronously.
+ */
 public class PrefsSearchTagsProvider implements SearchTagsProvider {
+    private static final int MAX_RESULTS = 10;
+    private final LocalSearchIndex mIndex;
+
+    public PrefsSearchTagsProvider(Context context) {
+        mIndex = LocalSearchIndex.instance(context);
+    }
+
     @Override
     public void search(String query, ResultsCallback callback) {
-        List<Tag> tags = new ArrayList<>();
-        tags.add(new Tag("One"));
-        tags.add(new Tag("Two"));
-        tags.add(new Tag("Three"));
-        tags.add(new Tag("Four"));
-        tags.add(new Tag("Five"));
-
-        callback.onResults(tags);
+        callback.onResults(Tag.from(mIndex.search(query, MAX_RESULTS)));
     }
 }
@@ -20,6 +20,7 @@ import com.liskovsoft.smartyoutubetv2.common.app.models.errors.CategoryEmptyErro
 import com.liskovsoft.smartyoutubetv2.common.app.models.errors.ErrorFragmentData;
 import com.liskovsoft.smartyoutubetv2.common.app.models.errors.PasswordError;
 import com.liskovsoft.smartyoutubetv2.common.app.models.errors.SignInError;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.SponsorSegmentCache;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.VideoStateService;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.VideoStateService.State;
 import com.liskovsoft.smartyoutubetv2.common.app.presenters.base.BasePresenter;
@@ -34,6 +35,7 @@ import com.liskovsoft.smartyoutubetv2.common.app.presenters.interfaces.VideoGrou
 import com.liskovsoft.smartyoutubetv2.common.app.views.BrowseView;
 import com.liskovsoft.smartyoutubetv2.common.misc.AppDataSourceManager;
 import com.liskovsoft.smartyoutubetv2.common.misc.BrowseProcessorManager;
+import com.liskovsoft.smartyoutubetv2.common.misc.ContinuationManager;
 import com.liskovsoft.smartyoutubetv2.common.misc.MediaServiceManager;
 import com.liskovsoft.smartyoutubetv2.common.misc.MediaServiceManager.AccountChangeListener;
 import com.liskovsoft.smartyoutubetv2.common.prefs.AccountsData;
@@ -49,6 +51,7 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 
 import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
 import io.reactivex.disposables.Disposable;
 
 public class BrowsePresenter extends BasePresenter<BrowseView> implements SectionPresenter, VideoGroupPresenter, AccountChangeListener {
@@ -63,6 +66,7 @@ public class BrowsePresenter extends BasePresenter<BrowseView> implements Sectio
     private final Map<Integer, BrowseSection> mSectionsMapping;
     private final AppDataSourceManager mDataSourcePresenter;
     private final BrowseProcessorManager mBrowseProcessor;
+    private final ContinuationManager mContinuationManager;
     private final List<Disposable> mActions;
     private final Runnable mRefreshSection = this::refresh;
     private BrowseSection mCurrentSection;
@@ -84,6 +88,7 @@ public class BrowsePresenter extends BasePresenter<BrowseView> implements Sectio
         ScreenHelper.updateScreenInfo(context);
         
         mBrowseProcessor = new BrowseProcessorManager(getContext(), this::syncItem);
+        mContinuationManager = new ContinuationManager();
         mActions = new ArrayList<>();
 
         initSections();
@@ -387,6 +392,11 @@ public class BrowsePresenter extends BasePresenter<BrowseView> implements Sectio
         }
 
         mCurrentVideo = item;
+
+        SponsorSegmentCache.instance(getContext()).prefetch(item);
+
+        // Cancel continuations of the rows that went off-screen
+        mContinuationManager.onFocused(item.getGroup());
     }
 
     @Override
@@ -711,6 +721,7 @@ public class BrowsePresenter extends BasePresenter<BrowseView> implements Sectio
 
                                 getView().updateSection(videoGroup);
                                 mBrowseProcessor.process(videoGroup);
+                                mContinuationManager.register(videoGroup);
 
                                 continueGroupIfNeeded(videoGroup, false);
                             }
@@ -761,6 +772,7 @@ public class BrowsePresenter extends BasePresenter<BrowseView> implements Sectio
                             appendLocalHistory(videoGroup);
                             getView().updateSection(videoGroup);
                             mBrowseProcessor.process(videoGroup);
+                            mContinuationManager.register(videoGroup);
 
                             continueGroupIfNeeded(videoGroup);
                         },
@@ -787,6 +799,16 @@ public class BrowsePresenter extends BasePresenter<BrowseView> implements Sectio
             return;
         }
 
+        // Actual loading starts only when the row is close to the focus
+        mContinuationManager.request(group, finisher -> continueGroupInt(group, showLoading, finisher));
+    }
+
+    private Disposable continueGroupInt(VideoGroup group, boolean showLoading, ObservableTransformer<MediaGroup, MediaGroup> finisher) {
+        if (getView() == null) {
+            Log.e(TAG, "Can't continue group. The view is null.");
+            return null;
+        }
+
         Log.d(TAG, "continueGroup: start continue group: " + group.getTitle());
 
         // Small amount of items == small load time. Loading bar are useless?
@@ -804,7 +826,7 @@ public class BrowsePresenter extends BasePresenter<BrowseView> implements Sectio
         //    continuation = getContentService().continueGroupObserve(mediaGroup);
         //}
 
-        continuation = getContentService().continueGroupObserve(mediaGroup);
+        continuation = getContentService().continueGroupObserve(mediaGroup).compose(finisher);
 
         Disposable continueAction = continuation
                 .subscribe(
@@ -826,6 +848,8 @@ public class BrowsePresenter extends BasePresenter<BrowseView> implements Sectio
                 );
 
         mActions.add(continueAction);
+
+        return continueAction;
     }
 
     private void authCheck(boolean check, Runnable callback) {
@@ -869,6 +893,7 @@ public class BrowsePresenter extends BasePresenter<BrowseView> implements Sectio
     }
 
     private void disposeActions() {
+        mContinuationManager.clear();
         RxHelper.disposeActions(mActions);
         Utils.removeCallbacks(mRefreshSection);
         mLastUpdateTimeMs = -1;
@@ -5,14 +5,17 @@ import android.app.Activity;
 import android.content.Context;
 
 import com.liskovsoft.mediaserviceinterfaces.data.MediaItemMetadata;
+import com.liskovsoft.sharedutils.mylogger.Log;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.Playlist;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.BasePlayerController;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.PlayerEventDispatcher;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers.AutoFrameRateController;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers.ChatController;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers.CommentsController;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers.ContentBlockController;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers.HQDialogController;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers.PlaybackStatsController;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers.PlayerUIController;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers.RemoteController;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers.SuggestionsController;
@@ -46,6 +49,10 @@ public class PlaybackPresenter extends BasePresenter<PlaybackView> implements Pl
             return super.add(listener);
         }
     };
+    private final PlayerEventDispatcher mDispatcher = new PlayerEventDispatcher();
+    private final Runnable mFlushSeekPosition = this::flushSeekPosition;
+    // Latest seek position that isn't dispatched yet. Consecutive positions are coalesced.
+    private long mPendingSeekPositionMs = -1;
     private WeakReference<Video> mVideo;
     // Fix for using destroyed view
     private WeakReference<PlaybackView> mPlayer = new WeakReference<>(null);
@@ -65,6 +72,9 @@ public class PlaybackPresenter extends BasePresenter<PlaybackView> implements Pl
         mEventListeners.add(new HQDialogController());
         mEventListeners.add(new ChatController());
         mEventListeners.add(new CommentsController());
+        mEventListeners.add(new PlaybackStatsController());
+
+        mDispatcher.setListeners(mEventListeners);
     }
 
     public static PlaybackPresenter instance(Context context) {
@@ -259,6 +269,61 @@ public class PlaybackPresenter extends BasePresenter<PlaybackView> implements Pl
         Utils.process(mEventListeners, processor);
     }
 
+    private void dispatch(int event) {
+        dispatch(event, 0, 0, false);
+    }
+
+    /**
+     * Primitive event arguments. So the dispatch doesn't allocate.
+     */
+    private void dispatch(int event, long positionMs, float speed, boolean shown) {
+        PlayerEventListener[] listeners = mDispatcher.getListeners(event);
+
+        for (int i = 0; i < listeners.length; i++) {
+            long startTimeNs = System.nanoTime();
+
+            switch (event) {
+                case PlayerEventDispatcher.EVENT_TICKLE:
+                    listeners[i].onTickle();
+                    break;
+                case PlayerEventDispatcher.EVENT_SEEK_POSITION_CHANGED:
+                    listeners[i].onSeekPositionChanged(positionMs);
+                    break;
+                case PlayerEventDispatcher.EVENT_BUFFERING:
+                    listeners[i].onBuffering();
+                    break;
+                case PlayerEventDispatcher.EVENT_PLAY:
+                    listeners[i].onPlay();
+                    break;
+                case PlayerEventDispatcher.EVENT_PAUSE:
+                    listeners[i].onPause();
+                    break;
+                case PlayerEventDispatcher.EVENT_SEEK_END:
+                    listeners[i].onSeekEnd();
+                    break;
+                case PlayerEventDispatcher.EVENT_SPEED_CHANGED:
+                    listeners[i].onSpeedChanged(speed);
+                    break;
+                case PlayerEventDispatcher.EVENT_CONTROLS_SHOWN:
+                    listeners[i].onControlsShown(shown);
+                    break;
+            }
+
+            mDispatcher.onDispatched(event, i, startTimeNs);
+        }
+    }
+
+    private void flushSeekPosition() {
+        long positionMs = mPendingSeekPositionMs;
+
+        if (positionMs == -1) {
+            return;
+        }
+
+        mPendingSeekPositionMs = -1;
+        dispatch(PlayerEventDispatcher.EVENT_SEEK_POSITION_CHANGED, positionMs, 0, false);
+    }
+
     // End Helpers
 
     // Common events
@@ -270,6 +335,8 @@ public class PlaybackPresenter extends BasePresenter<PlaybackView> implements Pl
 
     @Override
     public void onViewDestroyed() {
+        Utils.removeCallbacks(mFlushSeekPosition);
+        mPendingSeekPositionMs = -1;
         process(ViewEventListener::onViewDestroyed);
     }
 
@@ -304,6 +371,10 @@ public class PlaybackPresenter extends BasePresenter<PlaybackView> implements Pl
         getTickleManager().removeListener(this);
 
         process(PlayerEventListener::onEngineReleased);
+
+        // Stats of the single engine session
+        Log.d(TAG, "Dispatch stats:%n%s", mDispatcher.getStats());
+        mDispatcher.resetStats();
     }
 
     @Override
@@ -313,12 +384,12 @@ public class PlaybackPresenter extends BasePresenter<PlaybackView> implements Pl
 
     @Override
     public void onPlay() {
-        process(PlayerEventListener::onPlay);
+        dispatch(PlayerEventDispatcher.EVENT_PLAY);
     }
 
     @Override
     public void onPause() {
-        process(PlayerEventListener::onPause);
+        dispatch(PlayerEventDispatcher.EVENT_PAUSE);
     }
 
     @Override
@@ -333,17 +404,25 @@ public class PlaybackPresenter extends BasePresenter<PlaybackView> implements Pl
 
     @Override
     public void onSeekEnd() {
-        process(PlayerEventListener::onSeekEnd);
+        // Controllers should see the last position before the seek end
+        Utils.removeCallbacks(mFlushSeekPosition);
+        flushSeekPosition();
+        dispatch(PlayerEventDispatcher.EVENT_SEEK_END);
     }
 
     @Override
     public void onSeekPositionChanged(long positionMs) {
-        process(listener -> listener.onSeekPositionChanged(positionMs));
+        boolean isPosted = mPendingSeekPositionMs != -1;
+        mPendingSeekPositionMs = positionMs;
+
+        if (!isPosted) {
+            Utils.post(mFlushSeekPosition);
+        }
     }
 
     @Override
     public void onSpeedChanged(float speed) {
-        process(listener -> listener.onSpeedChanged(speed));
+        dispatch(PlayerEventDispatcher.EVENT_SPEED_CHANGED, 0, speed, false);
     }
 
     @Override
@@ -353,7 +432,7 @@ public class PlaybackPresenter extends BasePresenter<PlaybackView> implements Pl
 
     @Override
     public void onBuffering() {
-        process(PlayerEventListener::onBuffering);
+        dispatch(PlayerEventDispatcher.EVENT_BUFFERING);
     }
 
     @Override
@@ -368,7 +447,7 @@ public class PlaybackPresenter extends BasePresenter<PlaybackView> implements Pl
 
     @Override
     public void onTickle() {
-        process(PlayerEventListener::onTickle);
+        dispatch(PlayerEventDispatcher.EVENT_TICKLE);
     }
 
     // End engine events
@@ -432,7 +511,7 @@ public class PlaybackPresenter extends BasePresenter<PlaybackView> implements Pl
 
     @Override
     public void onControlsShown(boolean shown) {
-        process(listener -> listener.onControlsShown(shown));
+        dispatch(PlayerEventDispatcher.EVENT_CONTROLS_SHOWN, 0, 0, shown);
     }
 
     @Override
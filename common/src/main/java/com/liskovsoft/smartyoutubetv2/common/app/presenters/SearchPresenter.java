@@ -12,6 +12,7 @@ import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.VideoGroup;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.OptionItem;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.UiOptionItem;
+import com.liskovsoft.smartyoutubetv2.common.app.models.search.LocalSearchIndex;
 import com.liskovsoft.smartyoutubetv2.common.app.models.search.MediaServiceSearchTagProvider;
 import com.liskovsoft.smartyoutubetv2.common.app.models.search.vineyard.Tag;
 import com.liskovsoft.smartyoutubetv2.common.app.presenters.base.BasePresenter;
@@ -66,7 +67,7 @@ public class SearchPresenter extends BasePresenter<SearchView> implements VideoG
             return;
         }
 
-        getView().setTagsProvider(new MediaServiceSearchTagProvider(getSearchData().isSearchHistoryDisabled()));
+        getView().setTagsProvider(new MediaServiceSearchTagProvider(getContext(), getSearchData().isSearchHistoryDisabled()));
 
         startSearchInt();
     }
@@ -123,6 +124,7 @@ public class SearchPresenter extends BasePresenter<SearchView> implements VideoG
                 getContext().getString(R.string.clear_search_history),
                 () -> {
                     MediaServiceManager.instance().clearSearchHistory();
+                    LocalSearchIndex.instance(getContext()).clearQueries();
                     getView().clearSearchTags();
                 });
     }
@@ -136,6 +138,10 @@ public class SearchPresenter extends BasePresenter<SearchView> implements VideoG
         // Restore the search in case the view unloaded from the memory
         mSearchText = searchText;
 
+        if (!getSearchData().isSearchHistoryDisabled()) {
+            LocalSearchIndex.instance(getContext()).addQuery(searchText);
+        }
+
         if (getView() == null) {
             Log.e(TAG, "Search view has been unloaded from the memory. Low RAM?");
             startSearch(searchText);
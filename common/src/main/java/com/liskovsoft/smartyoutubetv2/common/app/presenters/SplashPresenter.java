@@ -29,6 +29,7 @@ import com.liskovsoft.smartyoutubetv2.common.prefs.PlayerTweaksData;
 import com.liskovsoft.smartyoutubetv2.common.proxy.ProxyManager;
 import com.liskovsoft.smartyoutubetv2.common.utils.IntentExtractor;
 import com.liskovsoft.smartyoutubetv2.common.utils.SimpleEditDialog;
+import com.liskovsoft.smartyoutubetv2.common.utils.StartupTaskGraph;
 import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
 import com.liskovsoft.youtubeapi.service.YouTubeServiceManager;
 
@@ -78,10 +79,14 @@ public class SplashPresenter extends BasePresenter<SplashView> {
             return;
         }
 
-        applyRunOnceTasks();
+        StartupTaskGraph startupTasks = new StartupTaskGraph();
+        applyRunOnceTasks(startupTasks);
+        startupTasks.add("remoteControlService", false, () -> Utils.updateRemoteControlService(getContext()));
+        // Only the critical tasks run here. The rest wait until the first screen is shown.
+        startupTasks.start();
+
         applyRunPerInstanceTasks();
         Utils.postDelayed(mCheckForUpdates, APP_INIT_DELAY_MS);
-        Utils.updateRemoteControlService(getContext());
 
         //runRefreshCachePeriodicTask();
 
@@ -91,14 +96,16 @@ public class SplashPresenter extends BasePresenter<SplashView> {
         checkAccountPassword();
     }
 
-    private void applyRunOnceTasks() {
+    private void applyRunOnceTasks(StartupTaskGraph startupTasks) {
         if (!sRunOnce) {
             sRunOnce = true;
-            RxHelper.setupGlobalErrorHandler();
-            initGlobalPrefs();
-            initProxy();
-            initVideoStateService();
-            initStreamReminderService();
+            startupTasks
+                    .add("errorHandler", true, RxHelper::setupGlobalErrorHandler)
+                    .add("globalPrefs", true, this::initGlobalPrefs)
+                    .add("proxy", true, this::initProxy, "globalPrefs")
+                    // Lazy anyway. Loaded ahead to not slow down the first playback.
+                    .add("videoStateService", false, this::initVideoStateService, "globalPrefs")
+                    .add("streamReminderService", false, this::initStreamReminderService, "globalPrefs");
             //Utils.initVolume(getContext());
         }
     }
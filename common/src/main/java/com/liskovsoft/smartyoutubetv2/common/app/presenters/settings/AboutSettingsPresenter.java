@@ -56,6 +56,8 @@ public class AboutSettingsPresenter extends BasePresenter<Void> {
 
         appendOldUpdateNotificationSwitch(settingsPresenter);
 
+        appendExportPlaybackReportsButton(settingsPresenter);
+
         if (!Helpers.equalsAny(country, "RU", "UA")) {
             appendDonation(settingsPresenter);
             appendFeedback(settingsPresenter);
@@ -88,6 +90,14 @@ public class AboutSettingsPresenter extends BasePresenter<Void> {
         settingsPresenter.appendSingleButton(updateCheckOption);
     }
 
+    private void appendExportPlaybackReportsButton(AppDialogPresenter settingsPresenter) {
+        OptionItem exportOption = UiOptionItem.from(
+                getContext().getString(R.string.export_playback_reports),
+                option -> Utils.exportPlaybackReports(getContext()));
+
+        settingsPresenter.appendSingleButton(exportOption);
+    }
+
     private void appendUpdateChangelogButton(AppDialogPresenter settingsPresenter) {
         List<String> changes = GeneralData.instance(getContext()).getChangelog();
 
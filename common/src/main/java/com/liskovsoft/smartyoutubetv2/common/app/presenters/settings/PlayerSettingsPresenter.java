@@ -501,6 +501,10 @@ public class PlayerSettingsPresenter extends BasePresenter<Void> {
                 option -> mPlayerTweaksData.enableAudioFocus(option.isSelected()),
                 mPlayerTweaksData.isAudioFocusEnabled()));
 
+        options.add(UiOptionItem.from(getContext().getString(R.string.player_parallel_chunk_loading),
+                option -> mPlayerTweaksData.enableParallelChunkLoading(option.isSelected()),
+                mPlayerTweaksData.isParallelChunkLoadingEnabled()));
+
         options.add(UiOptionItem.from(getContext().getString(R.string.player_auto_volume),
                 option -> mPlayerTweaksData.enablePlayerAutoVolume(option.isSelected()),
                 mPlayerTweaksData.isPlayerAutoVolumeEnabled()));
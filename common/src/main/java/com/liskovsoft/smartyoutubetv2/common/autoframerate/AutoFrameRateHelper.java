@@ -7,6 +7,7 @@ import com.liskovsoft.sharedutils.mylogger.Log;
 import com.liskovsoft.smartyoutubetv2.common.autoframerate.internal.DisplayHolder.Mode;
 import com.liskovsoft.smartyoutubetv2.common.autoframerate.internal.DisplaySyncHelper;
 import com.liskovsoft.smartyoutubetv2.common.autoframerate.internal.DisplaySyncHelper.AutoFrameRateListener;
+import com.liskovsoft.smartyoutubetv2.common.autoframerate.internal.UhdHelper;
 import com.liskovsoft.smartyoutubetv2.common.exoplayer.selector.FormatItem;
 
 import java.util.HashMap;
@@ -79,6 +80,9 @@ public class AutoFrameRateHelper {
             return;
         }
 
+        // New player session. Display could be changed meanwhile.
+        UhdHelper.resetSupportedModes();
+
         if (!isSupported()) {
             return;
         }
@@ -86,6 +90,22 @@ public class AutoFrameRateHelper {
         mSyncHelper.saveOriginalState();
     }
 
+    /**
+     * Whether the format needs another display mode. Cheap enough to call before the playback starts.<br/>
+     * Always true on the single mode devices. Other software may switch the mode there.
+     */
+    public boolean isModeSwitchNeeded(FormatItem format) {
+        if (format == null || !isSupported()) {
+            return false;
+        }
+
+        if (mSyncHelper.isSingleModeDevice()) {
+            return true;
+        }
+
+        return mSyncHelper.findNewMode(format.getWidth(), correctFrameRate(format.getFrameRate())) != null;
+    }
+
     private void initFrameRateMapping() {
         mFrameRateMapping = new HashMap<>();
         mFrameRateMapping.put(24f, 23.97f);
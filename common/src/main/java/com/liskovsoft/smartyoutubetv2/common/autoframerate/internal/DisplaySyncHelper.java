@@ -22,6 +22,8 @@ public class DisplaySyncHelper implements UhdHelperListener {
     private static final int STATE_ORIGINAL = 1;
     private static final int HD = 1200;
     private static final int FHD = 1900;
+    private static final HashMap<Integer, int[]> SINGLE_RATE_MAPPING = createSingleRateMapping();
+    private static final HashMap<Integer, int[]> DOUBLE_RATE_MAPPING = createDoubleRateMapping();
     protected Context mContext;
     private boolean mDisplaySyncInProgress = false;
     private UhdHelper mUhdHelper;
@@ -54,7 +56,7 @@ public class DisplaySyncHelper implements UhdHelperListener {
         return mNewMode;
     }
 
-    private List<Mode> filterSameResolutionModes(Mode[] oldModes, Mode currentMode) {
+    private static List<Mode> filterSameResolutionModes(Mode[] oldModes, Mode currentMode) {
         if (currentMode == null) {
             return Collections.emptyList();
         }
@@ -79,7 +81,7 @@ public class DisplaySyncHelper implements UhdHelperListener {
     /**
      * Filter all modes except one that match by width.
      */
-    private ArrayList<Mode> filterModesByWidthOrigin(Mode[] allModes, int videoWidth) {
+    private static ArrayList<Mode> filterModesByWidthOrigin(Mode[] allModes, int videoWidth) {
         ArrayList<Mode> newModes = new ArrayList<>();
 
         if (videoWidth == -1) {
@@ -106,7 +108,7 @@ public class DisplaySyncHelper implements UhdHelperListener {
      * Filter out modes that has same width.<br/>
      * Reverse order is important because of later mapping by fps in other method.
      */
-    private ArrayList<Mode> filterModesByWidth(Mode[] allModes, int videoWidth) {
+    private static ArrayList<Mode> filterModesByWidth(Mode[] allModes, int videoWidth) {
         ArrayList<Mode> newModes = new ArrayList<>();
 
         if (videoWidth == -1) {
@@ -114,6 +116,8 @@ public class DisplaySyncHelper implements UhdHelperListener {
         }
 
         // Reverse order. It's important because of later mapping by fps.
+        // Sort the copy. Modes of the device shouldn't change.
+        allModes = Arrays.copyOf(allModes, allModes.length);
         Arrays.sort(allModes, (mode1, mode2) -> {
             int width1 = mode1.getPhysicalWidth();
             int width2 = mode2.getPhysicalWidth();
@@ -135,16 +139,10 @@ public class DisplaySyncHelper implements UhdHelperListener {
             //}
         }
 
-        if (newModes.isEmpty()) {
-            Log.i(TAG, "MODE CANDIDATES NOT FOUND!! Old modes: " + Arrays.asList(allModes));
-        } else {
-            Log.i(TAG, "FOUND MODE CANDIDATES! New modes: " + newModes);
-        }
-
         return newModes;
     }
 
-    private ArrayList<Mode> filterModes(Mode[] oldModes, int minHeight, int maxHeight) {
+    private static ArrayList<Mode> filterModes(Mode[] oldModes, int minHeight, int maxHeight) {
         ArrayList<Mode> newModes = new ArrayList<>();
 
         if (minHeight == -1 || maxHeight == -1) {
@@ -175,13 +173,13 @@ public class DisplaySyncHelper implements UhdHelperListener {
             return null;
         }
 
-        return findCloserMode(Arrays.asList(modes), videoFramerate);
+        return findCloserMode(Arrays.asList(modes), videoFramerate, mIsDoubleRefreshRateEnabled);
     }
 
-    private Mode findCloserMode(List<Mode> modes, float videoFramerate) {
+    private static Mode findCloserMode(List<Mode> modes, float videoFramerate, boolean isDoubleRefreshRateEnabled) {
         HashMap<Integer, int[]> relatedRates;
 
-        relatedRates = getRateMapping();
+        relatedRates = getRateMapping(isDoubleRefreshRateEnabled);
 
         int myRate = (int) (videoFramerate * 100.0F);
 
@@ -212,13 +210,13 @@ public class DisplaySyncHelper implements UhdHelperListener {
         return null;
     }
 
-    private HashMap<Integer, int[]> getRateMapping() {
-        HashMap<Integer, int[]> rateMapping = mIsDoubleRefreshRateEnabled ? getDoubleRateMapping() : getSingleRateMapping();
+    private static HashMap<Integer, int[]> getRateMapping(boolean isDoubleRefreshRateEnabled) {
+        HashMap<Integer, int[]> rateMapping = isDoubleRefreshRateEnabled ? DOUBLE_RATE_MAPPING : SINGLE_RATE_MAPPING;
         //return apply24RateSkip(rateMapping);
         return rateMapping;
     }
 
-    private HashMap<Integer, int[]> getSingleRateMapping() {
+    private static HashMap<Integer, int[]> createSingleRateMapping() {
         HashMap<Integer, int[]> relatedRates = new HashMap<>();
         relatedRates.put(1500, new int[]{3000, 6000});
         relatedRates.put(2397, new int[]{2397, 2400, 3000, 6000});
@@ -236,7 +234,7 @@ public class DisplaySyncHelper implements UhdHelperListener {
      * ExoPlayer reports wrong for 60 and 30 fps formats.<br/>
      * Do workarounds: 60 => 59.94, 30 => 59.94
      */
-    private HashMap<Integer, int[]> getDoubleRateMapping() {
+    private static HashMap<Integer, int[]> createDoubleRateMapping() {
         HashMap<Integer, int[]> relatedRates = new HashMap<>();
         relatedRates.put(1500, new int[]{6000, 3000});
         relatedRates.put(2397, new int[]{4794, 4800, 2397, 2400});
@@ -253,6 +251,7 @@ public class DisplaySyncHelper implements UhdHelperListener {
 
     private HashMap<Integer, int[]> apply24RateSkip(HashMap<Integer, int[]> rateMapping) {
         if (mIsSkip24RateEnabled) {
+            rateMapping = new HashMap<>(rateMapping); // shared table
             rateMapping.remove(2397);
             rateMapping.remove(2400);
             rateMapping.remove(2497);
@@ -290,6 +289,13 @@ public class DisplaySyncHelper implements UhdHelperListener {
         return mModeLength >= 1 && supportsDisplayModeChange();
     }
 
+    /**
+     * Device reports only the current mode. The mode is switched by other software (e.g. tvQuickActions) on the mode error.
+     */
+    public boolean isSingleModeDevice() {
+        return supportsDisplayModeChangeComplex() && mModeLength == 1;
+    }
+
     /**
      * Check whether device supports mode change. Also shows toast if no
      * @return mode change supported
@@ -378,29 +384,13 @@ public class DisplaySyncHelper implements UhdHelperListener {
             Log.d(TAG, "Modes supported by device:");
             Log.d(TAG, Arrays.asList(modes));
 
-            boolean needResolutionSwitch = false;
-
-            List<Mode> resultModes = new ArrayList<>();
-
-            if (mIsResolutionSwitchEnabled) {
-                resultModes = filterModesByWidth(modes, Math.max(videoWidth, HD));
-            }
-
-            if (!resultModes.isEmpty()) {
-                needResolutionSwitch = true;
-            }
-
-            Log.i(TAG, "Need resolution switch: " + needResolutionSwitch);
-
             Mode currentMode = mUhdHelper.getCurrentMode();
 
-            if (!needResolutionSwitch) {
-                resultModes = filterSameResolutionModes(modes, currentMode);
-            }
+            Mode closerMode = findBestMode(modes, currentMode, videoWidth, videoFramerate,
+                    mIsResolutionSwitchEnabled, mIsDoubleRefreshRateEnabled, mIsSkip24RateEnabled);
 
-            // Rate boundaries slightly increased to perfect compare between two floats
-            boolean skipFps = mIsSkip24RateEnabled && videoFramerate >= 23.96 && videoFramerate <= 24.98 && currentMode != null;
-            Mode closerMode = findCloserMode(resultModes, skipFps ? currentMode.getRefreshRate() : videoFramerate);
+            Log.i(TAG, "Need resolution switch: " + (closerMode != null && currentMode != null &&
+                    closerMode.getPhysicalWidth() != currentMode.getPhysicalWidth()));
 
             if (closerMode == null) {
                 String msg = "Could not find closer refresh rate for " + videoFramerate + "fps";
@@ -436,6 +426,48 @@ public class DisplaySyncHelper implements UhdHelperListener {
         return false;
     }
 
+    /**
+     * Mode that will be set for the video or null if no switch is needed.<br/>
+     * Doesn't touch the display. So could be called before the playback starts.
+     */
+    public Mode findNewMode(int videoWidth, float videoFramerate) {
+        if (!supportsDisplayModeChange() || videoWidth < 10) {
+            return null;
+        }
+
+        Mode currentMode = getUhdHelper().getCurrentMode();
+        Mode closerMode = findBestMode(getUhdHelper().getSupportedModes(), currentMode, videoWidth, videoFramerate,
+                mIsResolutionSwitchEnabled, mIsDoubleRefreshRateEnabled, mIsSkip24RateEnabled);
+
+        return closerMode != null && !closerMode.equals(currentMode) ? closerMode : null;
+    }
+
+    /**
+     * Pure mode selection. No display calls, no logging. Input modes aren't modified.
+     */
+    public static Mode findBestMode(Mode[] modes, Mode currentMode, int videoWidth, float videoFramerate,
+                                    boolean isResolutionSwitchEnabled, boolean isDoubleRefreshRateEnabled, boolean isSkip24RateEnabled) {
+        boolean needResolutionSwitch = false;
+
+        List<Mode> resultModes = new ArrayList<>();
+
+        if (isResolutionSwitchEnabled) {
+            resultModes = filterModesByWidth(modes, Math.max(videoWidth, HD));
+        }
+
+        if (!resultModes.isEmpty()) {
+            needResolutionSwitch = true;
+        }
+
+        if (!needResolutionSwitch) {
+            resultModes = filterSameResolutionModes(modes, currentMode);
+        }
+
+        // Rate boundaries slightly increased to perfect compare between two floats
+        boolean skipFps = isSkip24RateEnabled && videoFramerate >= 23.96 && videoFramerate <= 24.98 && currentMode != null;
+        return findCloserMode(resultModes, skipFps ? currentMode.getRefreshRate() : videoFramerate, isDoubleRefreshRateEnabled);
+    }
+
     public void resetMode(Window window) {
         getUhdHelper().setPreferredDisplayModeId(window, 0, true);
     }
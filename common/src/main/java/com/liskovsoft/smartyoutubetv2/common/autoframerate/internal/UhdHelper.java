@@ -20,6 +20,8 @@ import com.liskovsoft.smartyoutubetv2.common.autoframerate.internal.DisplayHolde
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 // Source: https://developer.amazon.com/docs/fire-tv/4k-apis-for-hdmi-mode-switch.html#amazonextension
@@ -72,6 +74,8 @@ public class UhdHelper {
     public static final int SHOW_INTERSTITIAL_TIMEOUT_DELAY_MS = 2 * 1000;
 
     private static final String TAG = UhdHelper.class.getSimpleName();
+    // display id -> supported modes. Reflection calls are slow and the list doesn't change while the display is connected.
+    private static final Map<Integer, Mode[]> sSupportedModes = new HashMap<>();
 
     /**
      * Construct a UhdHelper object.
@@ -283,11 +287,23 @@ public class UhdHelper {
      * or NULL if an error occurred.
      */
     public Mode[] getSupportedModes() {
+        Display display = getCurrentDisplay();
+        int displayId = display != null ? display.getDisplayId() : -1;
+
+        synchronized (sSupportedModes) {
+            Mode[] cachedModes = sSupportedModes.get(displayId);
+
+            if (cachedModes != null) {
+                // Callers may sort the array
+                return cachedModes.clone();
+            }
+        }
+
         Mode[] returnedSupportedModes = {};
         try {
             Class<?> classToInvestigate = Class.forName(sDisplayClassName);
             Method getSupportedMethod = classToInvestigate.getDeclaredMethod(sSupportedModesMethodName);
-            Object[] SupportedModes = (Object[]) getSupportedMethod.invoke(getCurrentDisplay());
+            Object[] SupportedModes = (Object[]) getSupportedMethod.invoke(display);
             returnedSupportedModes = new Mode[SupportedModes.length];
             int i = 0;
             for (Object mode : SupportedModes) {
@@ -296,9 +312,25 @@ public class UhdHelper {
         } catch (Exception e) {
             Log.e(TAG, "error getting modes", e);
         }
+
+        if (returnedSupportedModes.length > 0) {
+            synchronized (sSupportedModes) {
+                sSupportedModes.put(displayId, returnedSupportedModes.clone());
+            }
+        }
+
         return returnedSupportedModes;
     }
 
+    /**
+     * Query the modes again. E.g. the TV might be replaced while the app was in background.
+     */
+    public static void resetSupportedModes() {
+        synchronized (sSupportedModes) {
+            sSupportedModes.clear();
+        }
+    }
+
     /**
      * Returns current {@link Display Display} object.
      * Assumes that the 1st display is the actual display.
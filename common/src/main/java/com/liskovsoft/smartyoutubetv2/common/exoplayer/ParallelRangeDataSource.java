@@ -0,0 +1,363 @@
+package com.liskovsoft.smartyoutubetv2.common.exoplayer;
+
+import android.net.Uri;
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.upstream.BaseDataSource;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.liskovsoft.sharedutils.mylogger.Log;
+import com.liskovsoft.smartyoutubetv2.common.utils.NetworkExecutors;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Splits big chunk requests into several parallel byte-range requests.<br/>
+ * Helps on high-latency links where a single connection can't reach the line rate.<br/>
+ * Parts are written into a pooled buffer and read in order. Bytes of a part are available as soon as they've arrived.<br/>
+ * Buffers are shared by all sources and their count is limited. Request isn't split when there's no free buffer.<br/>
+ * The whole request is reported to the transfer listeners once, no matter how many parts it has.
+ */
+public class ParallelRangeDataSource extends BaseDataSource {
+    private static final String TAG = ParallelRangeDataSource.class.getSimpleName();
+    private static final long MIN_SPLIT_LENGTH = 1_000_000;
+    private static final long MIN_PART_LENGTH = 500_000;
+    private static final int MAX_BUFFER_LENGTH = 8_000_000;
+    // Max memory of all sources is MAX_BUFFERS * MAX_BUFFER_LENGTH
+    private static final int MAX_BUFFERS = 2;
+    private static final int MIN_PARTS = 2;
+    private static final int MAX_PARTS = 4;
+    // Adapts to the latency/throughput ratio of the recent loads
+    private static volatile int sPartCount = MIN_PARTS;
+    private static final Deque<byte[]> sFreeBuffers = new ArrayDeque<>();
+    private static int sBufferCount;
+    private final DataSource.Factory mUpstreamFactory;
+    private final DataSource mUpstream;
+    private final List<Part> mParts = new ArrayList<>();
+    private byte[] mBuffer;
+    private Uri mUri;
+    private Map<String, List<String>> mResponseHeaders;
+    private boolean mIsOpened;
+    private boolean mIsSplit;
+    private int mLength;
+    private int mPartLength;
+    private int mReadPosition;
+
+    public static class Factory implements DataSource.Factory {
+        private final DataSource.Factory mUpstreamFactory;
+
+        public Factory(DataSource.Factory upstreamFactory) {
+            mUpstreamFactory = upstreamFactory;
+        }
+
+        @Override
+        public DataSource createDataSource() {
+            return new ParallelRangeDataSource(mUpstreamFactory);
+        }
+    }
+
+    /**
+     * Byte range of the request that is loaded by the separate connection. Guarded by itself.
+     */
+    private static final class Part {
+        private final int mEnd;
+        // Bytes before this position are in the buffer
+        private int mPosition;
+        private boolean mIsOpened;
+        private Map<String, List<String>> mResponseHeaders;
+        private IOException mError;
+        private Future<?> mFuture;
+
+        private Part(int start, int end) {
+            mPosition = start;
+            mEnd = end;
+        }
+    }
+
+    public ParallelRangeDataSource(DataSource.Factory upstreamFactory) {
+        super(true);
+        mUpstreamFactory = upstreamFactory;
+        mUpstream = upstreamFactory.createDataSource();
+    }
+
+    @Override
+    public long open(DataSpec dataSpec) throws IOException {
+        mUri = dataSpec.uri;
+        int partCount = getPartCount(dataSpec.length);
+
+        transferInitializing(dataSpec);
+
+        if (partCount >= MIN_PARTS) {
+            mBuffer = acquireBuffer((int) dataSpec.length);
+        }
+
+        if (partCount < MIN_PARTS || mBuffer == null) {
+            mIsSplit = false;
+            long length = mUpstream.open(dataSpec);
+            mIsOpened = true;
+            transferStarted(dataSpec);
+            return length;
+        }
+
+        mIsSplit = true;
+        mLength = (int) dataSpec.length;
+        mPartLength = (mLength + partCount - 1) / partCount;
+        mReadPosition = 0;
+
+        for (int offset = 0; offset < mLength; offset += mPartLength) {
+            DataSpec partSpec = dataSpec.subrange(offset, Math.min(mPartLength, mLength - offset));
+            Part part = new Part(offset, offset + (int) partSpec.length);
+            byte[] buffer = mBuffer;
+            part.mFuture = NetworkExecutors.submit(NetworkExecutors.PRIORITY_PLAYBACK, () -> {
+                fetchPart(part, partSpec, buffer);
+                return null;
+            });
+            mParts.add(part);
+        }
+
+        // Fail fast if the first part can't be opened
+        mResponseHeaders = waitForOpen(mParts.get(0));
+        mIsOpened = true;
+        transferStarted(dataSpec);
+
+        return mLength;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int readLength) throws IOException {
+        if (!mIsSplit) {
+            int read = mUpstream.read(buffer, offset, readLength);
+
+            if (read > 0) {
+                bytesTransferred(read);
+            }
+
+            return read;
+        }
+
+        if (readLength == 0) {
+            return 0;
+        }
+
+        if (mReadPosition >= mLength) {
+            return C.RESULT_END_OF_INPUT;
+        }
+
+        int available = waitForData(mParts.get(mReadPosition / mPartLength), mReadPosition);
+        int length = Math.min(readLength, available - mReadPosition);
+        System.arraycopy(mBuffer, mReadPosition, buffer, offset, length);
+        mReadPosition += length;
+        bytesTransferred(length);
+
+        return length;
+    }
+
+    @Nullable
+    @Override
+    public Uri getUri() {
+        return mIsSplit ? mUri : mUpstream.getUri();
+    }
+
+    /**
+     * Headers of the first part. It's the one that has been opened by {@link #open(DataSpec)}.
+     */
+    @Override
+    public Map<String, List<String>> getResponseHeaders() {
+        return mIsSplit ? mResponseHeaders : mUpstream.getResponseHeaders();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (mIsSplit) {
+                closeParts();
+            } else {
+                mUpstream.close();
+            }
+        } finally {
+            if (mIsOpened) {
+                mIsOpened = false;
+                transferEnded();
+            }
+
+            mIsSplit = false;
+            mResponseHeaders = null;
+        }
+    }
+
+    private void closeParts() {
+        boolean isInterrupted = false;
+
+        for (Part part : mParts) {
+            if (!part.mFuture.isDone()) {
+                part.mFuture.cancel(true);
+                isInterrupted = true;
+            }
+        }
+
+        // Cancelled parts may still write into the buffer. Don't reuse it.
+        releaseBuffer(mBuffer, !isInterrupted);
+        mBuffer = null;
+
+        mParts.clear();
+    }
+
+    /**
+     * Runs on the network thread. Parts report nothing to the listeners. The whole request is reported by the reader.
+     */
+    private void fetchPart(Part part, DataSpec partSpec, byte[] buffer) throws IOException {
+        DataSource source = mUpstreamFactory.createDataSource();
+        long startTimeMs = SystemClock.elapsedRealtime();
+
+        try {
+            source.open(partSpec);
+            long openTimeMs = SystemClock.elapsedRealtime() - startTimeMs;
+
+            synchronized (part) {
+                part.mIsOpened = true;
+                part.mResponseHeaders = source.getResponseHeaders();
+                part.notifyAll();
+            }
+
+            int position = part.mPosition;
+
+            while (position < part.mEnd) {
+                int read = source.read(buffer, position, part.mEnd - position);
+
+                if (read == C.RESULT_END_OF_INPUT) {
+                    throw new EOFException("Part is shorter than expected: " + partSpec);
+                }
+
+                position += read;
+
+                synchronized (part) {
+                    part.mPosition = position;
+                    part.notifyAll();
+                }
+            }
+
+            adaptPartCount(openTimeMs, SystemClock.elapsedRealtime() - startTimeMs);
+        } catch (IOException | RuntimeException e) {
+            synchronized (part) {
+                part.mError = e instanceof IOException ? (IOException) e : new IOException(e);
+                part.notifyAll();
+            }
+
+            throw e;
+        } finally {
+            source.close();
+        }
+    }
+
+    private static Map<String, List<String>> waitForOpen(Part part) throws IOException {
+        synchronized (part) {
+            while (!part.mIsOpened && part.mError == null) {
+                waitFor(part);
+            }
+
+            if (!part.mIsOpened) {
+                throw part.mError;
+            }
+
+            return part.mResponseHeaders;
+        }
+    }
+
+    /**
+     * @return end of the bytes that are available to read
+     */
+    private static int waitForData(Part part, int position) throws IOException {
+        synchronized (part) {
+            while (part.mPosition <= position && part.mError == null) {
+                waitFor(part);
+            }
+
+            // Serve the bytes that have arrived before the error
+            if (part.mPosition > position) {
+                return part.mPosition;
+            }
+
+            throw part.mError;
+        }
+    }
+
+    private static void waitFor(Part part) throws InterruptedIOException {
+        try {
+            part.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * @return null if all buffers are in use
+     */
+    private static synchronized byte[] acquireBuffer(int length) {
+        byte[] buffer = sFreeBuffers.poll();
+
+        if (buffer == null) {
+            if (sBufferCount >= MAX_BUFFERS) {
+                return null;
+            }
+
+            sBufferCount++;
+        }
+
+        return buffer != null && buffer.length >= length ? buffer : new byte[length];
+    }
+
+    private static synchronized void releaseBuffer(byte[] buffer, boolean isReusable) {
+        if (buffer == null) {
+            return;
+        }
+
+        if (isReusable) {
+            sFreeBuffers.push(buffer);
+        } else {
+            sBufferCount--;
+        }
+    }
+
+    private static int getPartCount(long length) {
+        if (length == C.LENGTH_UNSET || length < MIN_SPLIT_LENGTH || length > MAX_BUFFER_LENGTH) {
+            return 1;
+        }
+
+        return (int) Math.min(sPartCount, length / MIN_PART_LENGTH);
+    }
+
+    /**
+     * More connections when the request time is dominated by the latency. Less when by the throughput.
+     */
+    private static void adaptPartCount(long openTimeMs, long totalTimeMs) {
+        if (totalTimeMs <= 0) {
+            return;
+        }
+
+        float latencyRatio = (float) openTimeMs / totalTimeMs;
+        int partCount = sPartCount;
+
+        if (latencyRatio > 0.3f && partCount < MAX_PARTS) {
+            partCount++;
+        } else if (latencyRatio < 0.1f && partCount > MIN_PARTS) {
+            partCount--;
+        }
+
+        if (partCount != sPartCount) {
+            Log.d(TAG, "Part count changed to %s. Latency ratio %s", partCount, latencyRatio);
+            sPartCount = partCount;
+        }
+    }
+}
@@ -6,11 +6,13 @@ import android.text.TextUtils;
 import android.util.Log;
 
 import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.ext.okhttp.OkHttpDataSourceFactory;
 import com.google.android.exoplayer2.upstream.DataSource;
 import com.google.android.exoplayer2.upstream.DataSpec;
 import com.google.android.exoplayer2.upstream.DefaultDataSourceFactory;
-import com.google.android.exoplayer2.upstream.DefaultHttpDataSourceFactory;
 import com.google.android.exoplayer2.upstream.TransferListener;
+import com.liskovsoft.sharedutils.okhttp.OkHttpManager;
+import com.liskovsoft.smartyoutubetv2.common.exoplayer.other.PersistentBandwidthMeter;
 import com.liskovsoft.smartyoutubetv2.common.prefs.GeneralData;
 
 import java.io.IOException;
@@ -36,8 +38,10 @@ public class SmbDataSourceFactory implements DataSource.Factory {
         mGeneralData = GeneralData.instance(context);
         
         // 创建默认数据源工厂用于处理非SMB URL
-        DefaultHttpDataSourceFactory httpDataSourceFactory = new DefaultHttpDataSourceFactory("Mozilla/5.0");
-        mDefaultDataSourceFactory = new DefaultDataSourceFactory(context, httpDataSourceFactory);
+        // 共享OkHttp连接池，避免每次创建播放器时新建连接
+        OkHttpDataSourceFactory httpDataSourceFactory = new OkHttpDataSourceFactory(OkHttpManager.instance().getClient(), "Mozilla/5.0");
+        // Only http transfers are measured. Local network speed isn't representative.
+        mDefaultDataSourceFactory = new DefaultDataSourceFactory(context, PersistentBandwidthMeter.instance(context), httpDataSourceFactory);
     }
 
     @Override
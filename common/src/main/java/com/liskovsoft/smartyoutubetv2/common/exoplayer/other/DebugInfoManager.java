@@ -31,11 +31,14 @@ import com.liskovsoft.sharedutils.helpers.FileHelpers;
 import com.liskovsoft.sharedutils.helpers.Helpers;
 import com.liskovsoft.sharedutils.querystringparser.UrlQueryStringFactory;
 import com.liskovsoft.smartyoutubetv2.common.R;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.PlaybackSessionStats;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.PlaybackStatsStorage;
 import com.liskovsoft.smartyoutubetv2.common.autoframerate.internal.DisplayHolder.Mode;
 import com.liskovsoft.smartyoutubetv2.common.autoframerate.internal.UhdHelper;
 import com.liskovsoft.smartyoutubetv2.common.exoplayer.versions.ExoUtils;
 import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs;
 import com.liskovsoft.smartyoutubetv2.common.prefs.PlayerTweaksData;
+import com.liskovsoft.smartyoutubetv2.common.utils.NetworkExecutors;
 import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
 import com.liskovsoft.youtubeapi.app.models.AppInfo;
 import com.liskovsoft.youtubeapi.service.internal.MediaServiceData;
@@ -198,6 +201,8 @@ public final class DebugInfoManager implements Runnable, Player.EventListener {
 
         appendVideoInfo();
         appendRuntimeInfo();
+        appendBandwidthInfo();
+        appendSessionStats();
         appendPlayerState();
         appendDisplayInfo();
         appendDisplayModeId();
@@ -270,6 +275,39 @@ public final class DebugInfoManager implements Runnable, Player.EventListener {
         appendRow("Buffer size (seconds)", (int)(mPlayer.getBufferedPosition() - mPlayer.getCurrentPosition()) / 1_000);
     }
 
+    private void appendSessionStats() {
+        PlaybackStatsStorage storage = PlaybackStatsStorage.instance(mContext);
+        PlaybackSessionStats stats = storage.getCurrent();
+
+        if (stats != null) {
+            appendRow("Time to First Frame (ms)", stats.getFirstFrameMs() != -1 ? String.valueOf(stats.getFirstFrameMs()) : NOT_AVAILABLE);
+            appendRow("Rebuffers/Time (ms)", stats.getRebufferCount() + "/" + stats.getRebufferTimeMs());
+            appendRow("Format Switches", stats.getFormatSwitches());
+            appendRow("Session Dropped Frames", stats.getDroppedFrames());
+            appendRow("AFR Pause (ms)", String.valueOf(stats.getAfrPauseMs()));
+            appendRow("Engine Restarts", stats.getEngineRestarts());
+        }
+
+        // Exported with the long click on the stats button
+        appendRow("Playback Reports (Hold to Export)", storage.getReports().size());
+    }
+
+    private void appendBandwidthInfo() {
+        PersistentBandwidthMeter bandwidthMeter = PersistentBandwidthMeter.instance(mContext);
+        appendRow("Bandwidth Estimate/Stored", String.format(
+                "%s/%s",
+                toHumanReadable((int) bandwidthMeter.getBitrateEstimate()),
+                bandwidthMeter.getInitialEstimate() > 0 ? toHumanReadable((int) bandwidthMeter.getInitialEstimate()) : NOT_AVAILABLE
+        ));
+        appendRow("Bandwidth Network", bandwidthMeter.getNetworkName());
+        appendRow("Network Queued/Active/Connections", String.format(
+                "%s/%s/%s",
+                NetworkExecutors.getQueuedCount(),
+                NetworkExecutors.getActiveCount(),
+                NetworkExecutors.getConnectionCount()
+        ));
+    }
+
     private void appendPlayerState() {
         appendRow("Player Paused", !mPlayer.getPlayWhenReady());
 
@@ -47,13 +47,15 @@ public class ExoPlayerInitializer {
         //trackSelector.setParameters(trackSelector.buildUponParameters().setTunnelingAudioSessionId(C.generateAudioSessionIdV21(context)));
 
         // Old initializer
-        SimpleExoPlayer player = ExoPlayerFactory.newSimpleInstance(context, renderersFactory, trackSelector, loadControl);
+        //SimpleExoPlayer player = ExoPlayerFactory.newSimpleInstance(context, renderersFactory, trackSelector, loadControl);
 
-        // New initializer
-        //SimpleExoPlayer player = ExoPlayerFactory.newSimpleInstance(
-        //        context, renderersFactory, trackSelector, loadControl,
-        //        null, new DummyBandwidthMeter(), new AnalyticsCollector.Factory(), Util.getLooper()
-        //);
+        // Adaptive selection starts from the estimate that is stored for the current network
+        PersistentBandwidthMeter bandwidthMeter = PersistentBandwidthMeter.instance(context);
+        bandwidthMeter.refresh();
+
+        SimpleExoPlayer player = ExoPlayerFactory.newSimpleInstance(
+                context, renderersFactory, trackSelector, loadControl, null, bandwidthMeter
+        );
 
         //enableAudioFocus(player);
 
@@ -0,0 +1,296 @@
+package com.liskovsoft.smartyoutubetv2.common.exoplayer.other;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.net.wifi.WifiInfo;
+import android.net.wifi.WifiManager;
+import android.os.Handler;
+import android.util.Pair;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.exoplayer2.upstream.BandwidthMeter;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.google.android.exoplayer2.upstream.DefaultBandwidthMeter;
+import com.google.android.exoplayer2.upstream.TransferListener;
+import com.liskovsoft.sharedutils.helpers.Helpers;
+import com.liskovsoft.sharedutils.mylogger.Log;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs;
+import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bandwidth meter that remembers the estimate between sessions.<br/>
+ * Estimates are stored per network (transport + wifi name). Once per session the last estimate is blended with the stored value.<br/>
+ * So the playback starts with a reasonable quality instead of the generic defaults.
+ */
+public class PersistentBandwidthMeter implements BandwidthMeter, TransferListener {
+    private static final String TAG = PersistentBandwidthMeter.class.getSimpleName();
+    @SuppressLint("StaticFieldLeak")
+    private static PersistentBandwidthMeter sInstance;
+    // Package-private for tests
+    static final String BANDWIDTH_ESTIMATES_DATA = "bandwidth_estimates_data";
+    private static final String DELIM = "&bw;";
+    private static final String FIELD_DELIM = "&bf;";
+    private static final String UNKNOWN_NETWORK = "unknown";
+    // Weight of the newest session estimate
+    private static final float DECAY_FACTOR = 0.3f;
+    private static final long EXPIRE_TIME_MS = 30L * 24 * 60 * 60 * 1_000;
+    private static final long PERSIST_DELAY_MS = 10_000;
+    private final Context mContext;
+    private final AppPrefs mPrefs;
+    // network key -> (estimate, update time)
+    private final Map<String, Pair<Long, Long>> mEstimates = new HashMap<>();
+    private final List<Pair<Handler, EventListener>> mEventListeners = new ArrayList<>();
+    private final Runnable mPersistDataInt = this::persistDataInt;
+    private DefaultBandwidthMeter mMeter;
+    private String mNetworkKey;
+    private long mInitialEstimate;
+    private long mMeterStartEstimate;
+    // Last estimate of the running session. Stored on commit.
+    private long mSessionEstimate;
+    private int mActiveTransfers;
+
+    /**
+     * Package-private for tests
+     */
+    PersistentBandwidthMeter(Context context) {
+        mContext = context;
+        mPrefs = AppPrefs.instance(context);
+        restoreData();
+        mMeter = createMeter(getNetworkKey());
+    }
+
+    public static PersistentBandwidthMeter instance(Context context) {
+        if (sInstance == null && context != null) {
+            sInstance = new PersistentBandwidthMeter(context.getApplicationContext());
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Call before the new playback. Switches to the stored estimate if the network has been changed.
+     */
+    public synchronized void refresh() {
+        String networkKey = getNetworkKey();
+
+        // Don't swap the meter in the middle of the transfer
+        if (networkKey.equals(mNetworkKey) || mActiveTransfers > 0) {
+            return;
+        }
+
+        // Session of the previous network is over
+        commitSession();
+
+        for (Pair<Handler, EventListener> listener : mEventListeners) {
+            mMeter.removeEventListener(listener.second);
+        }
+
+        mMeter = createMeter(networkKey);
+
+        for (Pair<Handler, EventListener> listener : mEventListeners) {
+            mMeter.addEventListener(listener.first, listener.second);
+        }
+    }
+
+    /**
+     * Stored estimate for the current network or 0 if there's no one.
+     */
+    public synchronized long getInitialEstimate() {
+        return mInitialEstimate;
+    }
+
+    /**
+     * Stored estimate for the current network or 0 if there's no one.
+     */
+    public synchronized long getStoredEstimate() {
+        Pair<Long, Long> stored = mEstimates.get(mNetworkKey);
+        return stored != null ? stored.first : 0;
+    }
+
+    /**
+     * Call when the session is over (e.g. player released). Blends the session estimate with the stored one.
+     */
+    public synchronized void commitSession() {
+        if (mSessionEstimate <= 0) {
+            return;
+        }
+
+        Pair<Long, Long> stored = mEstimates.get(mNetworkKey);
+        long result = stored != null ? (long) (stored.first * (1 - DECAY_FACTOR) + mSessionEstimate * DECAY_FACTOR) : mSessionEstimate;
+
+        mEstimates.put(mNetworkKey, new Pair<>(result, System.currentTimeMillis()));
+        persistData();
+
+        // Next session shouldn't commit the same value again
+        mMeterStartEstimate = mMeter.getBitrateEstimate();
+        mSessionEstimate = 0;
+    }
+
+    public synchronized String getNetworkName() {
+        return mNetworkKey;
+    }
+
+    @Override
+    public synchronized long getBitrateEstimate() {
+        return mMeter.getBitrateEstimate();
+    }
+
+    /**
+     * The meter is attached to the data sources by the factories. Returning it here too will count every transfer twice.
+     */
+    @Nullable
+    @Override
+    public TransferListener getTransferListener() {
+        return null;
+    }
+
+    @Override
+    public synchronized void addEventListener(Handler eventHandler, EventListener eventListener) {
+        mEventListeners.add(new Pair<>(eventHandler, eventListener));
+        mMeter.addEventListener(eventHandler, eventListener);
+    }
+
+    @Override
+    public synchronized void removeEventListener(EventListener eventListener) {
+        Helpers.removeIf(mEventListeners, item -> item.second == eventListener);
+        mMeter.removeEventListener(eventListener);
+    }
+
+    @Override
+    public synchronized void onTransferInitializing(DataSource source, DataSpec dataSpec, boolean isNetwork) {
+        mMeter.onTransferInitializing(source, dataSpec, isNetwork);
+    }
+
+    @Override
+    public synchronized void onTransferStart(DataSource source, DataSpec dataSpec, boolean isNetwork) {
+        if (isNetwork) {
+            mActiveTransfers++;
+        }
+
+        mMeter.onTransferStart(source, dataSpec, isNetwork);
+    }
+
+    @Override
+    public synchronized void onBytesTransferred(DataSource source, DataSpec dataSpec, boolean isNetwork, int bytesTransferred) {
+        mMeter.onBytesTransferred(source, dataSpec, isNetwork, bytesTransferred);
+    }
+
+    @Override
+    public synchronized void onTransferEnd(DataSource source, DataSpec dataSpec, boolean isNetwork) {
+        mMeter.onTransferEnd(source, dataSpec, isNetwork);
+
+        if (!isNetwork) {
+            return;
+        }
+
+        if (mActiveTransfers > 0) {
+            mActiveTransfers--;
+        }
+
+        long estimate = mMeter.getBitrateEstimate();
+
+        // Nothing is measured yet
+        if (estimate > 0 && estimate != mMeterStartEstimate) {
+            mSessionEstimate = estimate;
+        }
+    }
+
+    private DefaultBandwidthMeter createMeter(String networkKey) {
+        mNetworkKey = networkKey;
+        Pair<Long, Long> stored = mEstimates.get(networkKey);
+
+        DefaultBandwidthMeter.Builder builder = new DefaultBandwidthMeter.Builder(mContext);
+
+        if (stored != null) {
+            mInitialEstimate = stored.first;
+            builder.setInitialBitrateEstimate(stored.first);
+        } else {
+            mInitialEstimate = 0;
+        }
+
+        Log.d(TAG, "Network %s, initial estimate %s", networkKey, mInitialEstimate);
+
+        DefaultBandwidthMeter meter = builder.build();
+        mMeterStartEstimate = meter.getBitrateEstimate();
+
+        return meter;
+    }
+
+    @SuppressWarnings("deprecation")
+    private String getNetworkKey() {
+        try {
+            ConnectivityManager connectivityManager = (ConnectivityManager) mContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+            NetworkInfo networkInfo = connectivityManager != null ? connectivityManager.getActiveNetworkInfo() : null;
+
+            if (networkInfo == null) {
+                return UNKNOWN_NETWORK;
+            }
+
+            String result = networkInfo.getTypeName();
+
+            if (networkInfo.getType() == ConnectivityManager.TYPE_WIFI) {
+                WifiManager wifiManager = (WifiManager) mContext.getSystemService(Context.WIFI_SERVICE);
+                WifiInfo wifiInfo = wifiManager != null ? wifiManager.getConnectionInfo() : null;
+                String ssid = wifiInfo != null ? wifiInfo.getSSID() : null;
+
+                // Returns "<unknown ssid>" without location permission
+                if (ssid != null && !ssid.startsWith("<")) {
+                    result += ":" + ssid;
+                }
+            }
+
+            return result;
+        } catch (SecurityException e) {
+            Log.e(TAG, "Can't get network info: %s", e.getMessage());
+            return UNKNOWN_NETWORK;
+        }
+    }
+
+    private void restoreData() {
+        String data = mPrefs.getData(BANDWIDTH_ESTIMATES_DATA);
+
+        if (data == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+
+        for (String spec : Helpers.split(DELIM, data)) {
+            String[] split = Helpers.split(FIELD_DELIM, spec);
+            String networkKey = Helpers.parseStr(split, 0);
+            long estimate = Helpers.parseLong(split, 1);
+            long updateTimeMs = Helpers.parseLong(split, 2);
+
+            if (networkKey != null && estimate > 0 && now - updateTimeMs < EXPIRE_TIME_MS) {
+                mEstimates.put(networkKey, new Pair<>(estimate, updateTimeMs));
+            }
+        }
+    }
+
+    private void persistData() {
+        Utils.postDelayed(mPersistDataInt, PERSIST_DELAY_MS);
+    }
+
+    private synchronized void persistDataInt() {
+        StringBuilder sb = new StringBuilder();
+
+        for (Map.Entry<String, Pair<Long, Long>> entry : mEstimates.entrySet()) {
+            if (sb.length() != 0) {
+                sb.append(DELIM);
+            }
+
+            sb.append(Helpers.merge(FIELD_DELIM, entry.getKey(), entry.getValue().first, entry.getValue().second));
+        }
+
+        mPrefs.setData(BANDWIDTH_ESTIMATES_DATA, sb.toString());
+    }
+}
@@ -17,6 +17,7 @@ import com.liskovsoft.sharedutils.helpers.MessageHelpers;
 import com.liskovsoft.smartyoutubetv2.common.app.presenters.PlaybackPresenter;
 import com.liskovsoft.smartyoutubetv2.common.app.views.PlaybackView;
 import com.liskovsoft.smartyoutubetv2.common.app.views.StandaloneSmbPlayerView;
+import com.liskovsoft.smartyoutubetv2.common.utils.NetworkExecutors;
 
 import java.lang.reflect.Field;
 import java.util.List;
@@ -649,7 +650,7 @@ public class SubtitleWordSelectionController {
         final String finalWord = wordToTranslate;
         final String finalContext = subtitleContext;
         
-        new Thread(() -> {
+        NetworkExecutors.execute(NetworkExecutors.PRIORITY_METADATA, () -> {
             String definition = TranslationService.fetchDefinition(finalWord, finalContext, 0);
             
             // 回到主线程更新 UI
@@ -662,7 +663,7 @@ public class SubtitleWordSelectionController {
                     }
                 });
             }
-        }).start();
+        });
     }
     
     /**
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.media.AudioManager;
 import android.media.MediaPlayer;
 import android.util.Log;
+import com.liskovsoft.smartyoutubetv2.common.utils.NetworkExecutors;
 import org.json.JSONObject;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -57,7 +58,7 @@ public class TTSService {
         mLastSpokenWord = word;
         
         // 在后台线程中执行网络请求
-        new Thread(() -> fetchAndPlayTTS(word)).start();
+        NetworkExecutors.execute(NetworkExecutors.PRIORITY_METADATA, () -> fetchAndPlayTTS(word));
     }
     
     /**
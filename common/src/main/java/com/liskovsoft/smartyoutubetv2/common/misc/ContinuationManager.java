@@ -0,0 +1,233 @@
+package com.liskovsoft.smartyoutubetv2.common.misc;
+
+import com.liskovsoft.mediaserviceinterfaces.data.MediaGroup;
+import com.liskovsoft.sharedutils.mylogger.Log;
+import com.liskovsoft.sharedutils.rx.RxHelper;
+import com.liskovsoft.smartyoutubetv2.common.app.models.data.VideoGroup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import io.reactivex.ObservableTransformer;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Demand-driven continuation of the rows/grids.<br/>
+ * Only rows that are close to the focused one are continued. In-flight continuations are capped across all rows.<br/>
+ * Continuations of the rows that went off-screen are cancelled and re-queued.<br/>
+ * Should be accessed from the main thread only.
+ */
+public class ContinuationManager {
+    private static final String TAG = ContinuationManager.class.getSimpleName();
+    private static final int DEFAULT_MAX_IN_FLIGHT = 2;
+    private static final int DEFAULT_VISIBLE_ROWS = 2;
+    private final Map<Integer, Integer> mRowIndexes = new HashMap<>();
+    private final Map<Integer, Disposable> mInFlight = new HashMap<>();
+    private final Map<Integer, ContinuationTask> mRunning = new HashMap<>();
+    private final Map<Integer, ContinuationTask> mPending = new LinkedHashMap<>();
+    private final int mMaxInFlight;
+    private final int mVisibleRows;
+    private int mFocusedRow;
+
+    public interface ContinuationTask {
+        /**
+         * Start the continuation. Compose the observable with the finisher before subscribe.<br/>
+         * The finisher frees the slot when the continuation terminates in any way.
+         */
+        Disposable run(ObservableTransformer<MediaGroup, MediaGroup> finisher);
+    }
+
+    public ContinuationManager() {
+        this(DEFAULT_MAX_IN_FLIGHT, DEFAULT_VISIBLE_ROWS);
+    }
+
+    /**
+     * @param maxInFlight max number of simultaneous continuations across all rows
+     * @param visibleRows max distance (in rows) from the focused row where continuations are allowed
+     */
+    public ContinuationManager(int maxInFlight, int visibleRows) {
+        mMaxInFlight = maxInFlight;
+        mVisibleRows = visibleRows;
+    }
+
+    /**
+     * Remember row order. Row with the position is inserted at it. The rest are appended as the view does.
+     */
+    public void register(VideoGroup group) {
+        if (group == null || mRowIndexes.containsKey(group.getId())) {
+            return;
+        }
+
+        int position = group.getPosition();
+
+        if (position < 0 || position >= mRowIndexes.size()) {
+            mRowIndexes.put(group.getId(), mRowIndexes.size());
+            return;
+        }
+
+        // Shift the rows below
+        for (Entry<Integer, Integer> entry : mRowIndexes.entrySet()) {
+            if (entry.getValue() >= position) {
+                entry.setValue(entry.getValue() + 1);
+            }
+        }
+
+        if (mFocusedRow >= position) {
+            mFocusedRow++;
+        }
+
+        mRowIndexes.put(group.getId(), position);
+    }
+
+    /**
+     * Enqueue the continuation. It will be started as soon as the row is close to the focus and there's a free slot.
+     */
+    public void request(VideoGroup group, ContinuationTask task) {
+        if (group == null || task == null) {
+            return;
+        }
+
+        register(group);
+
+        // The same row could be requested multiple times while scrolling. Keep the last one.
+        mPending.remove(group.getId());
+        mPending.put(group.getId(), task);
+
+        schedule();
+    }
+
+    /**
+     * User moved the focus to another row. Cancel the work that is far away from it.
+     */
+    public void onFocused(VideoGroup group) {
+        if (group == null) {
+            return;
+        }
+
+        Integer row = mRowIndexes.get(group.getId());
+
+        if (row == null || row == mFocusedRow) {
+            return;
+        }
+
+        mFocusedRow = row;
+
+        cancelFarRows();
+        schedule();
+    }
+
+    public boolean isRunning() {
+        return !mRunning.isEmpty();
+    }
+
+    /**
+     * Cancel everything. Call on section refresh before disposing own actions.
+     */
+    public void clear() {
+        List<Disposable> actions = new ArrayList<>(mInFlight.values());
+
+        // Detach first. So the finishers of the disposed actions don't start the pending ones.
+        mInFlight.clear();
+        mRunning.clear();
+        mPending.clear();
+        mRowIndexes.clear();
+        mFocusedRow = 0;
+
+        RxHelper.disposeActions(actions);
+    }
+
+    private void schedule() {
+        while (mRunning.size() < mMaxInFlight) {
+            Entry<Integer, ContinuationTask> next = findClosestPending();
+
+            if (next == null) {
+                break;
+            }
+
+            int groupId = next.getKey();
+            ContinuationTask task = next.getValue();
+            mPending.remove(groupId);
+            mRunning.put(groupId, task);
+
+            Disposable action = task.run(upstream -> upstream.doFinally(() -> onFinish(groupId, task)));
+
+            if (mRunning.get(groupId) != task) {
+                // Finished synchronously
+                continue;
+            }
+
+            if (action != null && !action.isDisposed()) {
+                mInFlight.put(groupId, action);
+            } else {
+                // Not started
+                mRunning.remove(groupId);
+            }
+        }
+    }
+
+    private void onFinish(int groupId, ContinuationTask task) {
+        // Cancelled or replaced by the manager
+        if (mRunning.get(groupId) != task) {
+            return;
+        }
+
+        mRunning.remove(groupId);
+        mInFlight.remove(groupId);
+        schedule();
+    }
+
+    private Entry<Integer, ContinuationTask> findClosestPending() {
+        Entry<Integer, ContinuationTask> result = null;
+        int minDistance = Integer.MAX_VALUE;
+
+        for (Entry<Integer, ContinuationTask> entry : mPending.entrySet()) {
+            if (mRunning.containsKey(entry.getKey())) {
+                continue;
+            }
+
+            int distance = getDistance(entry.getKey());
+
+            if (distance <= mVisibleRows && distance < minDistance) {
+                minDistance = distance;
+                result = entry;
+            }
+        }
+
+        return result;
+    }
+
+    private void cancelFarRows() {
+        List<Integer> farRows = new ArrayList<>();
+
+        for (Integer groupId : mInFlight.keySet()) {
+            if (getDistance(groupId) > mVisibleRows) {
+                farRows.add(groupId);
+            }
+        }
+
+        for (Integer groupId : farRows) {
+            // Detach before dispose. So the finisher is a no-op.
+            ContinuationTask task = mRunning.remove(groupId);
+            RxHelper.disposeActions(mInFlight.remove(groupId));
+
+            // Continue later when the row become visible again
+            if (task != null && !mPending.containsKey(groupId)) {
+                mPending.put(groupId, task);
+            }
+        }
+
+        if (!farRows.isEmpty()) {
+            Log.d(TAG, "Cancelled continuations of off-screen rows: %s", farRows.size());
+        }
+    }
+
+    private int getDistance(int groupId) {
+        Integer row = mRowIndexes.get(groupId);
+
+        return row != null ? Math.abs(row - mFocusedRow) : 0;
+    }
+}
@@ -0,0 +1,150 @@
+package com.liskovsoft.smartyoutubetv2.common.misc;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.liskovsoft.sharedutils.helpers.Helpers;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs;
+import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Persistent DeArrow results keyed by video id.<br/>
+ * Empty results are stored too. So the videos without submissions aren't requested again until expired.
+ */
+public class DeArrowCache {
+    @SuppressLint("StaticFieldLeak")
+    private static DeArrowCache sInstance;
+    private static final String DEARROW_CACHE_DATA = "dearrow_cache_data";
+    private static final String DELIM = "&dc;";
+    private static final int MAX_SIZE = 1_000;
+    private static final long TTL_MS = 3 * 24 * 60 * 60 * 1_000L;
+    private static final long PERSIST_DELAY_MS = 10_000;
+    private final AppPrefs mPrefs;
+    private final Map<String, Entry> mEntries;
+    private final Runnable mPersistDataInt = this::persistDataInt;
+
+    private DeArrowCache(Context context) {
+        mPrefs = AppPrefs.instance(context);
+        mEntries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > MAX_SIZE;
+            }
+        };
+        restoreData();
+    }
+
+    public static DeArrowCache instance(Context context) {
+        if (sInstance == null && context != null) {
+            sInstance = new DeArrowCache(context.getApplicationContext());
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Returns null when the video isn't cached or the entry is expired.
+     */
+    public Entry get(String videoId) {
+        Entry entry = mEntries.get(videoId);
+
+        if (entry != null && System.currentTimeMillis() - entry.timestamp > TTL_MS) {
+            mEntries.remove(videoId);
+            entry = null;
+        }
+
+        return entry;
+    }
+
+    public void put(String videoId, String title, String thumbnailUrl) {
+        if (videoId == null) {
+            return;
+        }
+
+        mEntries.put(videoId, new Entry(videoId, title, thumbnailUrl, System.currentTimeMillis()));
+        persistData();
+    }
+
+    private void restoreData() {
+        String data = mPrefs.getData(DEARROW_CACHE_DATA);
+
+        if (data == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+
+        for (String spec : Helpers.split(DELIM, data)) {
+            Entry entry = Entry.from(spec);
+
+            if (entry != null && now - entry.timestamp <= TTL_MS) {
+                mEntries.put(entry.videoId, entry);
+            }
+        }
+    }
+
+    private void persistData() {
+        // Improve memory and disc usage
+        Utils.postDelayed(mPersistDataInt, PERSIST_DELAY_MS);
+    }
+
+    private void persistDataInt() {
+        StringBuilder sb = new StringBuilder();
+
+        for (Entry entry : mEntries.values()) {
+            if (sb.length() != 0) {
+                sb.append(DELIM);
+            }
+
+            sb.append(entry);
+        }
+
+        mPrefs.setData(DEARROW_CACHE_DATA, sb.toString());
+    }
+
+    public static class Entry {
+        private static final String DELIM = "&df;";
+        public final String videoId;
+        public final String title;
+        public final String thumbnailUrl;
+        public final long timestamp;
+
+        public Entry(String videoId, String title, String thumbnailUrl, long timestamp) {
+            this.videoId = videoId;
+            this.title = title;
+            this.thumbnailUrl = thumbnailUrl;
+            this.timestamp = timestamp;
+        }
+
+        public static Entry from(String spec) {
+            if (spec == null) {
+                return null;
+            }
+
+            String[] split = Helpers.split(DELIM, spec);
+
+            String videoId = Helpers.parseStr(split, 0);
+
+            if (videoId == null) {
+                return null;
+            }
+
+            return new Entry(videoId, Helpers.parseStr(split, 1), Helpers.parseStr(split, 2), Helpers.parseLong(split, 3));
+        }
+
+        public boolean isEmpty() {
+            return title == null && thumbnailUrl == null;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return Helpers.merge(DELIM, videoId, title, thumbnailUrl, timestamp);
+        }
+    }
+}
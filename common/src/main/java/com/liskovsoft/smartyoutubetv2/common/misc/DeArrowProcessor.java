@@ -4,27 +4,43 @@ import android.content.Context;
 
 import com.liskovsoft.mediaserviceinterfaces.ServiceManager;
 import com.liskovsoft.mediaserviceinterfaces.MediaItemService;
+import com.liskovsoft.sharedutils.helpers.Helpers;
 import com.liskovsoft.sharedutils.mylogger.Log;
 import com.liskovsoft.sharedutils.rx.RxHelper;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.VideoGroup;
+import com.liskovsoft.smartyoutubetv2.common.misc.DeArrowCache.Entry;
 import com.liskovsoft.smartyoutubetv2.common.prefs.DeArrowData;
 import com.liskovsoft.smartyoutubetv2.common.prefs.common.DataChangeBase.OnDataChange;
+import com.liskovsoft.smartyoutubetv2.common.utils.Utils;
 import com.liskovsoft.youtubeapi.service.YouTubeServiceManager;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import io.reactivex.disposables.Disposable;
 
 public class DeArrowProcessor implements OnDataChange, BrowseProcessor {
     private static final String TAG = DeArrowProcessor.class.getSimpleName();
+    private static final int MAX_BATCH_SIZE = 50;
+    private static final long BATCH_DELAY_MS = 100;
     private final OnItemReady mOnItemReady;
     private final MediaItemService mItemService;
     private final DeArrowData mDeArrowData;
+    private final DeArrowCache mCache;
+    // Same video may be present in multiple groups
+    private final Map<String, List<Video>> mWaiting = new HashMap<>();
+    private final Set<String> mQueued = new LinkedHashSet<>();
+    private final List<Disposable> mActions = new ArrayList<>();
+    private final Runnable mFlushBatch = this::flushBatch;
     private boolean mIsReplaceTitlesEnabled;
     private boolean mIsReplaceThumbnailsEnabled;
-    private Disposable mResult;
 
     public DeArrowProcessor(Context context, OnItemReady onItemReady) {
         mOnItemReady = onItemReady;
@@ -32,6 +48,7 @@ public class DeArrowProcessor implements OnDataChange, BrowseProcessor {
         mItemService = service.getMediaItemService();
         mDeArrowData = DeArrowData.instance(context);
         mDeArrowData.setOnChange(this);
+        mCache = DeArrowCache.instance(context);
         initData();
     }
 
@@ -51,39 +68,114 @@ public class DeArrowProcessor implements OnDataChange, BrowseProcessor {
             return;
         }
 
-        List<String> videoIds = getVideoIds(videoGroup);
-        mResult = mItemService.getDeArrowDataObserve(videoIds)
+        for (Video video : videoGroup.getVideos()) {
+            if (video.deArrowProcessed || video.videoId == null) {
+                continue;
+            }
+            video.deArrowProcessed = true;
+
+            Entry entry = mCache.get(video.videoId);
+
+            if (entry != null) {
+                if (!entry.isEmpty()) {
+                    applyResult(video, entry.title, entry.thumbnailUrl);
+                }
+                continue;
+            }
+
+            addWaiting(video);
+        }
+
+        if (mQueued.size() >= MAX_BATCH_SIZE) {
+            flushBatch();
+        } else if (!mQueued.isEmpty()) {
+            // Give a chance to the neighbour groups to join the batch
+            Utils.postDelayed(mFlushBatch, BATCH_DELAY_MS);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        Utils.removeCallbacks(mFlushBatch);
+        RxHelper.disposeActions(mActions);
+        mWaiting.clear();
+        mQueued.clear();
+    }
+
+    private void addWaiting(Video video) {
+        List<Video> waiting = mWaiting.get(video.videoId);
+
+        if (waiting == null) {
+            waiting = new ArrayList<>();
+            mWaiting.put(video.videoId, waiting);
+            mQueued.add(video.videoId);
+        }
+
+        waiting.add(video);
+    }
+
+    private void flushBatch() {
+        Utils.removeCallbacks(mFlushBatch);
+
+        while (!mQueued.isEmpty()) {
+            List<String> batch = new ArrayList<>(Math.min(mQueued.size(), MAX_BATCH_SIZE));
+
+            for (Iterator<String> iterator = mQueued.iterator(); iterator.hasNext() && batch.size() < MAX_BATCH_SIZE; ) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+
+            requestBatch(batch);
+        }
+    }
+
+    private void requestBatch(List<String> videoIds) {
+        // Ids without submissions won't be returned at all
+        Set<String> missing = new HashSet<>(videoIds);
+
+        Disposable action = mItemService.getDeArrowDataObserve(videoIds)
                 .subscribe(deArrowData -> {
-                    Video video = videoGroup.findVideoById(deArrowData.getVideoId());
-                    if (mIsReplaceTitlesEnabled) {
-                        video.deArrowTitle = deArrowData.getTitle();
-                    }
-                    if (mIsReplaceThumbnailsEnabled) {
-                        video.altCardImageUrl = deArrowData.getThumbnailUrl();
-                    }
-                    mOnItemReady.onItemReady(video);
+                    String videoId = deArrowData.getVideoId();
+                    missing.remove(videoId);
+                    mCache.put(videoId, deArrowData.getTitle(), deArrowData.getThumbnailUrl());
+                    onResult(videoId, deArrowData.getTitle(), deArrowData.getThumbnailUrl());
                 },
                 error -> {
                     Log.d(TAG, "DeArrow cannot process the video");
+                    for (String videoId : missing) {
+                        mWaiting.remove(videoId);
+                    }
+                },
+                () -> {
+                    for (String videoId : missing) {
+                        mCache.put(videoId, null, null);
+                        mWaiting.remove(videoId);
+                    }
                 });
-    }
 
-    @Override
-    public void dispose() {
-        RxHelper.disposeActions(mResult);
+        Helpers.removeIf(mActions, Disposable::isDisposed);
+        mActions.add(action);
     }
 
-    private List<String> getVideoIds(VideoGroup videoGroup) {
-        List<String> result = new ArrayList<>();
+    private void onResult(String videoId, String title, String thumbnailUrl) {
+        List<Video> waiting = mWaiting.remove(videoId);
 
-        for (Video video : videoGroup.getVideos()) {
-            if (video.deArrowProcessed) {
-                continue;
-            }
-            video.deArrowProcessed = true;
-            result.add(video.videoId);
+        if (waiting == null) {
+            return;
+        }
+
+        for (Video video : waiting) {
+            applyResult(video, title, thumbnailUrl);
         }
+    }
 
-        return result;
+    private void applyResult(Video video, String title, String thumbnailUrl) {
+        if (mIsReplaceTitlesEnabled && title != null) {
+            video.deArrowTitle = title;
+        }
+        if (mIsReplaceThumbnailsEnabled && thumbnailUrl != null) {
+            video.altCardImageUrl = thumbnailUrl;
+        }
+        mOnItemReady.onItemReady(video);
     }
 }
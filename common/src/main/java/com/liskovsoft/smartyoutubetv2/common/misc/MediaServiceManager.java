@@ -21,6 +21,7 @@ import com.liskovsoft.sharedutils.mylogger.Log;
 import com.liskovsoft.sharedutils.rx.RxHelper;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.VideoGroup;
+import com.liskovsoft.smartyoutubetv2.common.app.models.search.MediaServiceSearchTagProvider;
 import com.liskovsoft.smartyoutubetv2.common.app.presenters.ChannelPresenter;
 import com.liskovsoft.smartyoutubetv2.common.app.presenters.ChannelUploadsPresenter;
 import com.liskovsoft.smartyoutubetv2.common.prefs.AccountsData;
@@ -53,12 +54,19 @@ public class MediaServiceManager implements OnAccountChange {
     private Disposable mFormatInfoAction;
     private Disposable mPlaylistGroupAction;
     private Disposable mPlaylistInfosAction;
-    private Disposable mHistoryAction;
     private static final int MIN_GRID_GROUP_SIZE = 13;
     private static final int MIN_ROW_GROUP_SIZE = 5;
     private static final int MIN_SCALED_GRID_GROUP_SIZE = 35;
     private static final int MIN_SCALED_ROW_GROUP_SIZE = 10;
+    private static final long FORMAT_INFO_TTL_MS = 2 * 60_000;
+    private static final int MAX_FORMAT_INFOS = 10;
     private final Map<Integer, Pair<Integer, Long>> mContinuations = new HashMap<>();
+    // Same video requested by the player, suggestions and the preload shares one request.
+    // Live and upcoming streams aren't stored. The player reloads them to get the fresh state.
+    private final SharedRequests<MediaItemFormatInfo> mFormatInfoRequests = new SharedRequests<>(FORMAT_INFO_TTL_MS, MAX_FORMAT_INFOS,
+            formatInfo -> formatInfo.containsMedia() && !formatInfo.isLive() && !formatInfo.isUnplayable());
+    // Metadata results aren't stored. They're refreshed on purpose (live description, subscribe state).
+    private final SharedRequests<MediaItemMetadata> mMetadataRequests = new SharedRequests<>();
     private final List<AccountChangeListener> mAccountListeners = new CopyOnWriteArrayList<>();
 
     public interface OnMetadata {
@@ -131,7 +139,7 @@ public class MediaServiceManager implements OnAccountChange {
             observable = mItemService.getMetadataObserve(video.mediaItem);
         } else {
             // Simply load
-            observable = mItemService.getMetadataObserve(video.videoId, video.getPlaylistId(), video.playlistIndex, video.playlistParams);
+            observable = getMetadataObserve(video.videoId, video.getPlaylistId(), video.playlistIndex, video.playlistParams);
         }
 
         mMetadataAction = observable
@@ -232,7 +240,7 @@ public class MediaServiceManager implements OnAccountChange {
 
         RxHelper.disposeActions(mFormatInfoAction);
 
-        Observable<MediaItemFormatInfo> observable = mItemService.getFormatInfoObserve(item.videoId);
+        Observable<MediaItemFormatInfo> observable = getFormatInfoObserve(item.videoId);
 
         mFormatInfoAction = observable
                 .subscribe(
@@ -241,6 +249,43 @@ public class MediaServiceManager implements OnAccountChange {
                 );
     }
 
+    /**
+     * Doesn't cancel other format info requests. The result is kept for the player.
+     */
+    public void preloadFormatInfo(Video item) {
+        if (item == null || item.videoId == null) {
+            return;
+        }
+
+        getFormatInfoObserve(item.videoId)
+                .subscribe(
+                        formatInfo -> {},
+                        error -> Log.e(TAG, "preloadFormatInfo error: %s", error.getMessage())
+                );
+    }
+
+    /**
+     * Concurrent callers share one request per video. Recent results of the regular videos are reused.
+     */
+    public Observable<MediaItemFormatInfo> getFormatInfoObserve(String videoId) {
+        return mFormatInfoRequests.get(videoId, mItemService.getFormatInfoObserve(videoId));
+    }
+
+    /**
+     * Concurrent callers share one request per video and playlist. Every new request returns fresh data.
+     */
+    public Observable<MediaItemMetadata> getMetadataObserve(String videoId, String playlistId, int playlistIndex, String playlistParams) {
+        String key = String.format("%s,%s,%s,%s", videoId, playlistId, playlistIndex, playlistParams);
+        return mMetadataRequests.get(key, mItemService.getMetadataObserve(videoId, playlistId, playlistIndex, playlistParams));
+    }
+
+    /**
+     * Drop the stored result. E.g. when the player fails with it.
+     */
+    public void invalidateFormatInfo(String videoId) {
+        mFormatInfoRequests.remove(videoId);
+    }
+
     public void loadPlaylists(Video item, OnMediaGroup onPlaylistGroup) {
         if (item == null) {
             return;
@@ -368,27 +413,10 @@ public class MediaServiceManager implements OnAccountChange {
     }
 
     public void clearSearchHistory() {
+        MediaServiceSearchTagProvider.clearCache();
         RxHelper.runAsyncUser(mContentService::clearSearchHistory);
     }
 
-    public void updateHistory(Video video, long positionMs) {
-        if (video == null || RxHelper.isAnyActionRunning(mHistoryAction)) {
-            return;
-        }
-
-        RxHelper.disposeActions(mHistoryAction);
-
-        Observable<Void> historyObservable;
-
-        if (video.mediaItem != null) {
-            historyObservable = mItemService.updateHistoryPositionObserve(video.mediaItem, positionMs / 1_000f);
-        } else { // video launched form ATV channels
-            historyObservable = mItemService.updateHistoryPositionObserve(video.videoId, positionMs / 1_000f);
-        }
-
-        mHistoryAction = RxHelper.execute(historyObservable);
-    }
-
     public void hideNotification(Video item) {
         if (item != null && item.belongsToNotifications()) {
             RxHelper.execute(mNotificationsService.hideNotificationObserve(item.mediaItem));
@@ -455,6 +483,11 @@ public class MediaServiceManager implements OnAccountChange {
 
     @Override
     public void onAccountChanged(Account account) {
+        MediaServiceSearchTagProvider.clearCache();
+
+        // Formats depend on the account (e.g. premium)
+        mFormatInfoRequests.clear();
+
         for (AccountChangeListener listener : mAccountListeners) {
             listener.onAccountChanged(account);
         }
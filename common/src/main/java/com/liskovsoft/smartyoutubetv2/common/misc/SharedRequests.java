@@ -0,0 +1,94 @@
+package com.liskovsoft.smartyoutubetv2.common.misc;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.reactivex.Observable;
+import io.reactivex.functions.Predicate;
+
+/**
+ * Concurrent callers share one request per key. The request is cancelled only when all the callers are gone.<br/>
+ * Results accepted by the filter are reused for the given time.
+ */
+class SharedRequests<T> {
+    private final Map<String, Observable<T>> mRequests = new HashMap<>();
+    private final Map<String, Result<T>> mResults;
+    private final long mTtlMs;
+    private final Predicate<T> mIsStorable;
+
+    private static class Result<T> {
+        final long timeMs;
+        final T value;
+
+        Result(long timeMs, T value) {
+            this.timeMs = timeMs;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Results aren't reused. Every new request returns fresh data.
+     */
+    SharedRequests() {
+        this(0, 0, null);
+    }
+
+    /**
+     * @param isStorable which results could be reused or null to reuse none
+     */
+    SharedRequests(long ttlMs, int maxResults, Predicate<T> isStorable) {
+        mTtlMs = ttlMs;
+        mIsStorable = isStorable;
+        mResults = new LinkedHashMap<String, Result<T>>(maxResults, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Result<T>> eldest) {
+                return size() > maxResults;
+            }
+        };
+    }
+
+    public synchronized Observable<T> get(String key, Observable<T> source) {
+        Result<T> result = mResults.get(key);
+
+        if (result != null && System.currentTimeMillis() - result.timeMs < mTtlMs) {
+            return Observable.just(result.value);
+        }
+
+        Observable<T> request = mRequests.get(key);
+
+        if (request == null) {
+            request = source
+                    .doOnNext(item -> {
+                        if (mIsStorable != null && mIsStorable.test(item)) {
+                            putResult(key, item);
+                        }
+                    })
+                    .doFinally(() -> removeRequest(key))
+                    .replay(1)
+                    .refCount();
+            mRequests.put(key, request);
+        }
+
+        return request;
+    }
+
+    /**
+     * Drop the stored result. E.g. when the caller fails with it.
+     */
+    public synchronized void remove(String key) {
+        mResults.remove(key);
+    }
+
+    public synchronized void clear() {
+        mResults.clear();
+    }
+
+    private synchronized void putResult(String key, T item) {
+        mResults.put(key, new Result<>(System.currentTimeMillis(), item));
+    }
+
+    private synchronized void removeRequest(String key) {
+        mRequests.remove(key);
+    }
+}
@@ -0,0 +1,124 @@
+package com.liskovsoft.smartyoutubetv2.common.misc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Poll schedule of the pending streams. Time is passed by the caller.<br/>
+ * Each stream is polled on its own schedule: rarely when the start is far away, every minute close to the start.<br/>
+ * Failed polls back off per stream.
+ */
+class StreamPollScheduler {
+    static final long MIN_POLL_INTERVAL_MS = 60_000;
+    static final long MAX_POLL_INTERVAL_MS = 30 * 60_000;
+    // Start time isn't known
+    static final long DEFAULT_POLL_INTERVAL_MS = 2 * 60_000;
+    static final long CLOSE_TO_START_MS = 10 * 60_000;
+    private static final int MAX_BACKOFF_SHIFT = 5;
+    private final Map<String, PollState> mPollStates = new HashMap<>();
+
+    private static class PollState {
+        long nextPollMs;
+        long startTimeMs;
+        int failures;
+        boolean isPolling;
+    }
+
+    /**
+     * Returns the streams that should be polled now and marks them as polling.<br/>
+     * States of the streams that are no longer pending are dropped.
+     */
+    public List<String> getDuePolls(Collection<String> videoIds, long now) {
+        mPollStates.keySet().retainAll(videoIds);
+
+        List<String> result = new ArrayList<>();
+
+        for (String videoId : videoIds) {
+            PollState state = mPollStates.get(videoId);
+
+            if (state == null) {
+                state = new PollState();
+                mPollStates.put(videoId, state);
+            }
+
+            if (state.isPolling || state.nextPollMs > now) {
+                continue;
+            }
+
+            state.isPolling = true;
+            result.add(videoId);
+        }
+
+        return result;
+    }
+
+    /**
+     * @param startTimeMs scheduled start of the stream or 0 if unknown
+     */
+    public void onPollSuccess(String videoId, long startTimeMs, long now) {
+        PollState state = mPollStates.get(videoId);
+
+        if (state == null) {
+            return;
+        }
+
+        state.isPolling = false;
+        state.failures = 0;
+        if (startTimeMs > 0) {
+            state.startTimeMs = startTimeMs;
+        }
+        state.nextPollMs = now + getPollIntervalMs(state.startTimeMs, now);
+    }
+
+    public void onPollError(String videoId, long now) {
+        PollState state = mPollStates.get(videoId);
+
+        if (state == null) {
+            return;
+        }
+
+        state.isPolling = false;
+        state.failures++;
+        state.nextPollMs = now + getBackoffMs(state.failures);
+    }
+
+    public void onPollFinished(String videoId) {
+        PollState state = mPollStates.get(videoId);
+
+        if (state != null) {
+            state.isPolling = false;
+        }
+    }
+
+    public void remove(String videoId) {
+        mPollStates.remove(videoId);
+    }
+
+    public int size() {
+        return mPollStates.size();
+    }
+
+    /**
+     * Half of the time left to the start. So the poll never oversleeps it.
+     */
+    static long getPollIntervalMs(long startTimeMs, long now) {
+        if (startTimeMs <= 0) {
+            return DEFAULT_POLL_INTERVAL_MS;
+        }
+
+        long untilStartMs = startTimeMs - now;
+
+        if (untilStartMs <= CLOSE_TO_START_MS) {
+            return MIN_POLL_INTERVAL_MS;
+        }
+
+        return Math.max(MIN_POLL_INTERVAL_MS, Math.min(untilStartMs / 2, MAX_POLL_INTERVAL_MS));
+    }
+
+    static long getBackoffMs(int failures) {
+        return Math.min(MIN_POLL_INTERVAL_MS << Math.min(failures, MAX_BACKOFF_SHIFT), MAX_POLL_INTERVAL_MS);
+    }
+}
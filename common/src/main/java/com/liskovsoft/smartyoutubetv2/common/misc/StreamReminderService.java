@@ -6,7 +6,6 @@ import com.liskovsoft.mediaserviceinterfaces.ServiceManager;
 import com.liskovsoft.mediaserviceinterfaces.data.MediaItemFormatInfo;
 import com.liskovsoft.sharedutils.helpers.MessageHelpers;
 import com.liskovsoft.sharedutils.mylogger.Log;
-import com.liskovsoft.sharedutils.rx.RxHelper;
 import com.liskovsoft.smartyoutubetv2.common.R;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.Playlist;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
@@ -16,18 +15,20 @@ import com.liskovsoft.smartyoutubetv2.common.misc.TickleManager.TickleListener;
 import com.liskovsoft.smartyoutubetv2.common.prefs.GeneralData;
 import com.liskovsoft.youtubeapi.service.YouTubeServiceManager;
 import io.reactivex.Observable;
-import io.reactivex.disposables.Disposable;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Polls the pending streams and opens them once they start. Poll schedule is kept by {@link StreamPollScheduler}.
+ */
 public class StreamReminderService implements TickleListener {
     private static final String TAG = StreamReminderService.class.getSimpleName();
     private static StreamReminderService sInstance;
     private final MediaItemService mItemManager;
     private final Context mContext;
     private final GeneralData mGeneralData;
-    private Disposable mReminderAction;
+    private final StreamPollScheduler mScheduler = new StreamPollScheduler();
 
     private StreamReminderService(Context context) {
         ServiceManager service = YouTubeServiceManager.instance();
@@ -55,6 +56,7 @@ public class StreamReminderService implements TickleListener {
 
         if (mGeneralData.containsPendingStream(video)) {
             mGeneralData.removePendingStream(video);
+            mScheduler.remove(video.videoId);
         } else {
             mGeneralData.addPendingStream(video);
         }
@@ -78,11 +80,14 @@ public class StreamReminderService implements TickleListener {
             return;
         }
 
-        RxHelper.disposeActions(mReminderAction);
+        List<Observable<MediaItemFormatInfo>> observables = toObservables(System.currentTimeMillis());
 
-        List<Observable<MediaItemFormatInfo>> observables = toObservables();
+        if (observables.isEmpty()) {
+            return;
+        }
 
-        mReminderAction = Observable.mergeDelayError(observables)
+        // NOTE: don't cancel the slow polls of the previous ticks. Only the due streams are polled.
+        Observable.mergeDelayError(observables)
                 .subscribe(
                         this::processMetadata,
                         error -> Log.e(TAG, "loadMetadata error: %s", error.getMessage())
@@ -91,6 +96,12 @@ public class StreamReminderService implements TickleListener {
 
     private void processMetadata(MediaItemFormatInfo formatInfo) {
         String videoId = formatInfo.getVideoId();
+
+        if (videoId != null) {
+            // Start time of the upcoming stream is the scheduled one
+            mScheduler.onPollSuccess(videoId, formatInfo.getStartTimeMs(), System.currentTimeMillis());
+        }
+
         if (formatInfo.containsMedia() && videoId != null) {
             Video video = new Video();
             video.title = formatInfo.getTitle();
@@ -109,18 +120,37 @@ public class StreamReminderService implements TickleListener {
             }
 
             mGeneralData.removePendingStream(video);
+            mScheduler.remove(videoId);
             start();
         }
     }
 
+    private void onPollError(String videoId, Throwable error) {
+        Log.e(TAG, "loadMetadata error for %s: %s", videoId, error.getMessage());
+
+        mScheduler.onPollError(videoId, System.currentTimeMillis());
+    }
+
     /**
      * NOTE: don't use MediaItemMetadata because it has contains isLive and isUpcoming flags
      */
-    private List<Observable<MediaItemFormatInfo>> toObservables() {
+    private List<Observable<MediaItemFormatInfo>> toObservables(long now) {
         List<Observable<MediaItemFormatInfo>> result = new ArrayList<>();
 
+        List<String> videoIds = new ArrayList<>();
+
         for (Video item : mGeneralData.getPendingStreams()) {
-            result.add(mItemManager.getFormatInfoObserve(item.videoId));
+            videoIds.add(item.videoId);
+        }
+
+        for (String videoId : mScheduler.getDuePolls(videoIds, now)) {
+            // One failed stream shouldn't break the others
+            result.add(mItemManager.getFormatInfoObserve(videoId)
+                    .onErrorResumeNext(error -> {
+                        onPollError(videoId, error);
+                        return Observable.empty();
+                    })
+                    .doFinally(() -> mScheduler.onPollFinished(videoId)));
         }
 
         return result;
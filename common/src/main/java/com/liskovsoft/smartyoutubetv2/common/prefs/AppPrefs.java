@@ -111,6 +111,14 @@ public class AppPrefs extends SharedPreferencesBase implements AccountChangeList
         setData(getProfileKey(SIDEBAR_DATA, true), data);
     }
 
+    /**
+     * Data key of the current account. Always uses multiple profiles.<br/>
+     * Remember it to write the data of the previous profile after the switch.
+     */
+    public String getAccountDataKey(String key) {
+        return getProfileKey(key, true);
+    }
+
     public void setProfileData(String key, String data) {
         setData(getProfileKey(key, isMultiProfilesEnabled()), data);
     }
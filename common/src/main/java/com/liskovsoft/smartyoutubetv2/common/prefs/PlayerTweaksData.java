@@ -101,6 +101,7 @@ public class PlayerTweaksData implements ProfileChangeListener {
     private boolean mIsOculusQuestFixEnabled;
     private boolean mIsAudioFocusEnabled;
     private boolean mIsNetworkErrorFixingDisabled;
+    private boolean mIsParallelChunkLoadingEnabled;
     private final Runnable mPersistDataInt = this::persistDataInt;
 
     private PlayerTweaksData(Context context) {
@@ -603,6 +604,15 @@ public class PlayerTweaksData implements ProfileChangeListener {
         return mIsNetworkErrorFixingDisabled;
     }
 
+    public void enableParallelChunkLoading(boolean enable) {
+        mIsParallelChunkLoadingEnabled = enable;
+        persistData();
+    }
+
+    public boolean isParallelChunkLoadingEnabled() {
+        return mIsParallelChunkLoadingEnabled;
+    }
+
     private void restoreData() {
         String data = mPrefs.getProfileData(VIDEO_PLAYER_TWEAKS_DATA);
 
@@ -668,6 +678,7 @@ public class PlayerTweaksData implements ProfileChangeListener {
         mIsCommentsPlacedLeft = Helpers.parseBoolean(split, 52, false);
         //mIsPersistentAntiBotFixEnabled = Helpers.parseBoolean(split, 53, false);
         mIsAudioFocusEnabled = Helpers.parseBoolean(split, 54, true);
+        mIsParallelChunkLoadingEnabled = Helpers.parseBoolean(split, 55, false);
 
         updateDefaultValues();
     }
@@ -690,7 +701,7 @@ public class PlayerTweaksData implements ProfileChangeListener {
                 mScreenOffDimmingPercents, mIsBootScreenOffEnabled, mIsPlayerUiOnNextEnabled, mIsPlayerAutoVolumeEnabled, mIsSimplePlayerNavigationEnabled,
                 mIsUnsafeAudioFormatsEnabled, null, mIsLoopShortsEnabled, mIsQuickSkipShortsEnabled, mIsRememberPositionOfLiveVideosEnabled,
                 mIsOculusQuestFixEnabled, null, mIsExtraLongSpeedListEnabled, mIsQuickSkipVideosEnabled, mIsNetworkErrorFixingDisabled, mIsCommentsPlacedLeft,
-                null, mIsAudioFocusEnabled
+                null, mIsAudioFocusEnabled, mIsParallelChunkLoadingEnabled
                 ));
     }
 
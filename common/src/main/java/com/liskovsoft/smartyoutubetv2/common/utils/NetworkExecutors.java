@@ -0,0 +1,159 @@
+package com.liskovsoft.smartyoutubetv2.common.utils;
+
+import androidx.annotation.NonNull;
+
+import com.liskovsoft.sharedutils.mylogger.Log;
+import com.liskovsoft.sharedutils.okhttp.OkHttpManager;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+/**
+ * App-wide bounded executors for the network work.<br/>
+ * Same threads are reused across player restarts. Queued tasks are ordered by priority, then by submit order.
+ */
+public final class NetworkExecutors {
+    private static final String TAG = NetworkExecutors.class.getSimpleName();
+    public static final int PRIORITY_PLAYBACK = 0;
+    public static final int PRIORITY_PREFETCH = 1;
+    public static final int PRIORITY_METADATA = 2;
+    public static final int PRIORITY_THUMBNAILS = 3;
+    private static final int MAX_THREADS = 8;
+    private static final long KEEP_ALIVE_SEC = 30;
+    private static final AtomicLong sSequence = new AtomicLong();
+    private static ThreadPoolExecutor sExecutor;
+    private static ExecutorService sCronetExecutor;
+
+    private NetworkExecutors() {
+    }
+
+    /**
+     * Shared callback executor for the Cronet data sources.
+     */
+    public static synchronized Executor getCronetExecutor() {
+        if (sCronetExecutor == null) {
+            sCronetExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("cronet-callback"));
+        }
+
+        return sCronetExecutor;
+    }
+
+    /**
+     * Nobody waits for the result. Errors go to the uncaught exception handler like on the raw thread.
+     */
+    public static void execute(int priority, Runnable task) {
+        getExecutor().execute(new PriorityTask<>(priority, task));
+    }
+
+    public static <T> Future<T> submit(int priority, Callable<T> task) {
+        PriorityTask<T> result = new PriorityTask<>(priority, task);
+        getExecutor().execute(result);
+        return result;
+    }
+
+    public static int getQueuedCount() {
+        return sExecutor != null ? sExecutor.getQueue().size() : 0;
+    }
+
+    public static int getActiveCount() {
+        return sExecutor != null ? sExecutor.getActiveCount() : 0;
+    }
+
+    /**
+     * Connections that are held by the shared OkHttp pool (active + idle).
+     */
+    public static int getConnectionCount() {
+        OkHttpClient client = OkHttpManager.instance().getClient();
+        ConnectionPool pool = client != null ? client.connectionPool() : null;
+        return pool != null ? pool.connectionCount() : 0;
+    }
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (sExecutor == null) {
+            sExecutor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, KEEP_ALIVE_SEC, TimeUnit.SECONDS,
+                    new PriorityBlockingQueue<>(), new NamedThreadFactory("network"));
+            sExecutor.allowCoreThreadTimeOut(true);
+        }
+
+        return sExecutor;
+    }
+
+    private static final class PriorityTask<T> extends FutureTask<T> implements Comparable<PriorityTask<?>> {
+        private final int mPriority;
+        private final long mSequence = sSequence.getAndIncrement();
+        private final boolean mIsFireAndForget;
+
+        PriorityTask(int priority, Callable<T> callable) {
+            super(callable);
+            mPriority = priority;
+            mIsFireAndForget = false;
+        }
+
+        PriorityTask(int priority, Runnable runnable) {
+            super(runnable, null);
+            mPriority = priority;
+            mIsFireAndForget = true;
+        }
+
+        @Override
+        protected void done() {
+            if (!mIsFireAndForget || isCancelled()) {
+                return;
+            }
+
+            try {
+                get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                Log.e(TAG, "Task failed: %s", e.getCause());
+
+                Thread thread = Thread.currentThread();
+                Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+
+                if (handler != null) {
+                    handler.uncaughtException(thread, e.getCause());
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(PriorityTask<?> other) {
+            if (mPriority != other.mPriority) {
+                return Integer.compare(mPriority, other.mPriority);
+            }
+
+            return Long.compare(mSequence, other.mSequence);
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String mPrefix;
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            mPrefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, mPrefix + "-" + mCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.liskovsoft.smartyoutubetv2.common.utils;
+
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.liskovsoft.sharedutils.mylogger.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Startup tasks with declared dependencies.<br/>
+ * Critical tasks run at once. The rest run one by one when the main thread is idle. So the first screen isn't delayed.
+ */
+public class StartupTaskGraph {
+    private static final String TAG = StartupTaskGraph.class.getSimpleName();
+    private final List<Task> mTasks = new ArrayList<>();
+    private final Set<String> mDone = new HashSet<>();
+    // task name -> run time
+    private final Map<String, Long> mTimings = new LinkedHashMap<>();
+    private long mStartTimeMs;
+
+    private static class Task {
+        final String name;
+        final boolean isCritical;
+        final Runnable action;
+        final List<String> dependencies;
+
+        Task(String name, boolean isCritical, Runnable action, String... dependencies) {
+            this.name = name;
+            this.isCritical = isCritical;
+            this.action = action;
+            this.dependencies = Arrays.asList(dependencies);
+        }
+    }
+
+    /**
+     * Critical task may depend only on critical tasks added before.
+     */
+    public StartupTaskGraph add(String name, boolean isCritical, Runnable action, String... dependencies) {
+        mTasks.add(new Task(name, isCritical, action, dependencies));
+        return this;
+    }
+
+    /**
+     * Should be called on the main thread.
+     */
+    public void start() {
+        mStartTimeMs = SystemClock.elapsedRealtime();
+
+        for (Task task : mTasks) {
+            if (!task.isCritical) {
+                continue;
+            }
+
+            if (!isReady(task)) {
+                throw new IllegalStateException("Critical task " + task.name + " depends on the deferred or unknown task: " + task.dependencies);
+            }
+
+            run(task);
+        }
+
+        Looper.myQueue().addIdleHandler(() -> {
+            Task task = findReady();
+
+            if (task == null) {
+                onFinish();
+                return false;
+            }
+
+            run(task);
+            return true;
+        });
+    }
+
+    public Map<String, Long> getTimings() {
+        return mTimings;
+    }
+
+    private void run(Task task) {
+        long startTimeMs = SystemClock.elapsedRealtime();
+        task.action.run();
+        mTimings.put(task.name, SystemClock.elapsedRealtime() - startTimeMs);
+        mDone.add(task.name);
+    }
+
+    private Task findReady() {
+        for (Task task : mTasks) {
+            if (!mDone.contains(task.name) && isReady(task)) {
+                return task;
+            }
+        }
+
+        return null;
+    }
+
+    private boolean isReady(Task task) {
+        return mDone.containsAll(task.dependencies);
+    }
+
+    private void onFinish() {
+        if (mDone.size() < mTasks.size()) {
+            Log.e(TAG, "Tasks with unknown dependencies are skipped. Done: %s", mDone);
+        }
+
+        Log.d(TAG, "Startup tasks finished in %s ms: %s", SystemClock.elapsedRealtime() - mStartTimeMs, mTimings);
+    }
+}
@@ -62,6 +62,7 @@ import com.liskovsoft.smartyoutubetv2.common.BuildConfig;
 import com.liskovsoft.smartyoutubetv2.common.R;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.manager.PlayerConstants;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.manager.PlayerManager;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.PlaybackStatsStorage;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.VideoStateService;
 import com.liskovsoft.smartyoutubetv2.common.app.presenters.PlaybackPresenter;
 import com.liskovsoft.smartyoutubetv2.common.app.presenters.SplashPresenter;
@@ -694,6 +695,16 @@ public class Utils {
         }
     }
 
+    public static void exportPlaybackReports(Context context) {
+        PlaybackStatsStorage.instance(context).export(file -> {
+            if (file != null) {
+                MessageHelpers.showLongMessage(context, context.getString(R.string.playback_reports_exported, file.getAbsolutePath()));
+            } else {
+                MessageHelpers.showMessage(context, R.string.playback_reports_export_error);
+            }
+        });
+    }
+
     /**
      * NOTE: Doesn't work in Android 13<br/>
      * java.lang.SecurityException: Injecting input events requires the caller (or the source of the instrumentation, if any) to have the INJECT_EVENTS permission.
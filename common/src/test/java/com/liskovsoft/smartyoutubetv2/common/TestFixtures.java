@@ -0,0 +1,48 @@
+package com.liskovsoft.smartyoutubetv2.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Recorded fixtures from the test resources.
+ */
+public final class TestFixtures {
+    public static final String LEGACY_STATES = "states/legacy_states.txt";
+    // Successive updates of the YouTube live manifest. 100 segments of 5 sec each. The window moves by one segment.
+    public static final String LIVE_WINDOW_1 = "manifests/live_window_1.mpd";
+    public static final String LIVE_WINDOW_2 = "manifests/live_window_2.mpd";
+    // Stream that is shorter than the window. Starts from the zero segment.
+    public static final String LIVE_SHORT = "manifests/live_short.mpd";
+
+    private TestFixtures() {
+    }
+
+    public static InputStream open(String fixture) throws IOException {
+        InputStream inputStream = TestFixtures.class.getClassLoader().getResourceAsStream(fixture);
+
+        if (inputStream == null) {
+            throw new IOException("Fixture not found: " + fixture);
+        }
+
+        return inputStream;
+    }
+
+    public static byte[] readBytes(String fixture) throws IOException {
+        try (InputStream inputStream = open(fixture)) {
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+
+            while ((length = inputStream.read(buffer)) != -1) {
+                result.write(buffer, 0, length);
+            }
+
+            return result.toByteArray();
+        }
+    }
+
+    public static String read(String fixture) throws IOException {
+        return new String(readBytes(fixture), "UTF-8");
+    }
+}
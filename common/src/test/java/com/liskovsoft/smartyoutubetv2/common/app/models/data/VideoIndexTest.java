@@ -0,0 +1,236 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class VideoIndexTest {
+    @Test
+    public void testIndexOfAfterRebuild() {
+        List<Video> videos = createVideos("a", "b", "c");
+        VideoIndex index = VideoIndex.byId();
+        index.rebuild(videos);
+
+        assertEquals(1, index.indexOf(videos, createVideo("b")));
+        assertEquals(-1, index.indexOf(videos, createVideo("d")));
+    }
+
+    @Test
+    public void testAppendAndPrepend() {
+        List<Video> videos = createVideos("b", "c");
+        VideoIndex index = VideoIndex.byId();
+        index.rebuild(videos);
+
+        videos.addAll(createVideos("d", "e"));
+        index.onAppend(videos, 2);
+
+        videos.addAll(0, createVideos("a"));
+        index.onPrepend(videos, 1);
+
+        for (int i = 0; i < videos.size(); i++) {
+            assertEquals(i, index.indexOf(videos, createVideo(videos.get(i).videoId)));
+        }
+    }
+
+    @Test
+    public void testOutdatedIndexFallsBackToScan() {
+        List<Video> videos = createVideos("a", "b", "c");
+        VideoIndex index = VideoIndex.byId();
+        index.rebuild(videos);
+
+        // Owner forgot to notify the index
+        videos.remove(0);
+
+        assertEquals(0, index.indexOf(videos, createVideo("b")));
+        assertEquals(1, index.indexOf(videos, createVideo("c")));
+        assertEquals(-1, index.indexOf(videos, createVideo("a")));
+    }
+
+    @Test
+    public void testLookupDoesNotChangeIndex() {
+        List<Video> videos = createVideos("a", "b");
+        VideoIndex index = VideoIndex.byId();
+        index.rebuild(videos);
+
+        // Same size, different content. Lookup shouldn't "repair" the index with this list.
+        List<Video> other = createVideos("b", "a");
+        assertEquals(0, index.indexOf(other, createVideo("b")));
+
+        assertEquals(1, index.indexOf(videos, createVideo("b")));
+    }
+
+    @Test
+    public void testIndexesOfByReference() {
+        Video same = createVideo("a");
+        List<Video> videos = new ArrayList<>(Arrays.asList(same, createVideo("a"), same));
+        VideoIndex index = VideoIndex.byReference();
+        index.rebuild(videos);
+
+        assertEquals(Arrays.asList(0, 2), index.indexesOf(videos, same));
+        assertEquals(Collections.singletonList(1), index.indexesOf(videos, videos.get(1)));
+        assertEquals(Collections.emptyList(), index.indexesOf(videos, createVideo("a")));
+    }
+
+    @Test
+    public void testFindById() {
+        List<Video> videos = createVideos("a", "b", "b");
+
+        VideoIndex byId = VideoIndex.byId();
+        byId.rebuild(videos);
+        assertSame(videos.get(1), byId.findById(videos, "b"));
+        assertNull(byId.findById(videos, "c"));
+
+        VideoIndex byReference = VideoIndex.byReference();
+        byReference.rebuild(videos);
+        assertNull(byReference.findById(videos, "b"));
+    }
+
+    @Test
+    public void testRemove() {
+        List<Video> videos = createVideos("a", "b", "c", "d", "e");
+        VideoIndex index = VideoIndex.byId();
+        index.rebuild(videos);
+
+        index.onRemove(videos.remove(3), 3);
+        index.onRemove(videos.remove(1), 1);
+        index.onRemove(videos.remove(0), 0);
+
+        assertEquals(0, index.indexOf(videos, createVideo("c")));
+        assertEquals(1, index.indexOf(videos, createVideo("e")));
+        assertEquals(-1, index.indexOf(videos, createVideo("b")));
+    }
+
+    @Test
+    public void testRemoveDuplicate() {
+        List<Video> videos = createVideos("a", "b", "a", "c");
+        VideoIndex index = VideoIndex.byId();
+        index.rebuild(videos);
+
+        index.onRemove(videos.remove(2), 2);
+
+        assertEquals(Collections.singletonList(0), index.indexesOf(videos, createVideo("a")));
+        assertEquals(2, index.indexOf(videos, createVideo("c")));
+    }
+
+    @Test
+    public void testRemoveMixedWithAppendAndPrepend() {
+        List<Video> videos = createVideos("c", "d", "e");
+        VideoIndex index = VideoIndex.byId();
+        index.rebuild(videos);
+
+        index.onRemove(videos.remove(2), 2);
+        videos.addAll(createVideos("f", "g"));
+        index.onAppend(videos, 2);
+        videos.addAll(0, createVideos("a", "b"));
+        index.onPrepend(videos, 2);
+        index.onRemove(videos.remove(3), 3);
+
+        assertEquals(Arrays.asList("a", "b", "c", "f", "g"), getIds(videos));
+
+        for (int i = 0; i < videos.size(); i++) {
+            assertEquals(i, index.indexOf(videos, createVideo(videos.get(i).videoId)));
+        }
+    }
+
+    @Test
+    public void testVideoGroupRemoveAll() {
+        List<Video> videos = createVideos("a", "b", "c", "d");
+        VideoGroup group = VideoGroup.from(videos);
+
+        group.removeAll(Arrays.asList(videos.get(0), videos.get(2)));
+
+        assertEquals(2, group.getSize());
+        assertEquals(0, group.indexOf(createVideo("b")));
+        assertEquals(1, group.indexOf(createVideo("d")));
+        assertEquals(-1, group.indexOf(createVideo("c")));
+    }
+
+    /**
+     * Not a strict benchmark. Prints the time of the incremental removal vs full rebuild on 5k items.
+     */
+    @Test
+    public void testRemoveBenchmark() {
+        int size = 5_000;
+        int removals = 1_000;
+        List<Video> videos = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            videos.add(createVideo("video" + i));
+        }
+
+        List<Video> incremental = new ArrayList<>(videos);
+        VideoIndex index = VideoIndex.byId();
+        index.rebuild(incremental);
+
+        long startNs = System.nanoTime();
+        for (int i = 0; i < removals; i++) {
+            int position = (i * 7) % incremental.size();
+            index.onRemove(incremental.remove(position), position);
+        }
+        long incrementalNs = System.nanoTime() - startNs;
+
+        List<Video> rebuilt = new ArrayList<>(videos);
+        VideoIndex rebuiltIndex = VideoIndex.byId();
+        rebuiltIndex.rebuild(rebuilt);
+
+        startNs = System.nanoTime();
+        for (int i = 0; i < removals; i++) {
+            int position = (i * 7) % rebuilt.size();
+            rebuilt.remove(position);
+            rebuiltIndex.rebuild(rebuilt);
+        }
+        long rebuildNs = System.nanoTime() - startNs;
+
+        System.out.printf("VideoIndex: %s removals of %s items. Incremental: %s ms, rebuild: %s ms%n",
+                removals, size, incrementalNs / 1_000_000, rebuildNs / 1_000_000);
+
+        assertEquals(getIds(rebuilt), getIds(incremental));
+
+        for (int i = 0; i < incremental.size(); i += 97) {
+            assertEquals(i, index.indexOf(incremental, createVideo(incremental.get(i).videoId)));
+        }
+    }
+
+    @Test
+    public void testNotBuiltIndex() {
+        List<Video> videos = createVideos("a", "b");
+        VideoIndex index = VideoIndex.byId();
+
+        assertEquals(1, index.indexOf(videos, createVideo("b")));
+        assertEquals(-1, index.indexOf(null, createVideo("b")));
+        assertEquals(-1, index.indexOf(videos, null));
+    }
+
+    private static List<Video> createVideos(String... videoIds) {
+        List<Video> result = new ArrayList<>();
+
+        for (String videoId : videoIds) {
+            result.add(createVideo(videoId));
+        }
+
+        return result;
+    }
+
+    private static List<String> getIds(List<Video> videos) {
+        List<String> result = new ArrayList<>();
+
+        for (Video video : videos) {
+            result.add(video.videoId);
+        }
+
+        return result;
+    }
+
+    private static Video createVideo(String videoId) {
+        Video video = new Video();
+        video.videoId = videoId;
+        return video;
+    }
+}
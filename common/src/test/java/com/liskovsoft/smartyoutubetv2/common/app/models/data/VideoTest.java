@@ -0,0 +1,83 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.data;
+
+import com.liskovsoft.sharedutils.helpers.Helpers;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class VideoTest {
+    @Test
+    public void testRoundTrip() {
+        Video video = createVideo();
+
+        Video result = Video.fromString(video.toString());
+
+        assertNotNull(result);
+        assertEquals(video.videoId, result.videoId);
+        assertEquals(video.title, result.title);
+        assertEquals(video.secondTitle, result.secondTitle);
+        assertEquals(video.playlistId, result.playlistId);
+        assertEquals(video.channelId, result.channelId);
+        assertEquals(video.cardImageUrl, result.cardImageUrl);
+        assertEquals(video.sectionId, result.sectionId);
+        assertEquals(video.percentWatched, result.percentWatched, 0.01);
+        assertEquals(video.badge, result.badge);
+        assertEquals(video.channelGroupId, result.channelGroupId);
+        assertTrue(result.isLive);
+    }
+
+    @Test
+    public void testLegacySpec() {
+        // Spec of the oldest version. Ends with the media item.
+        String spec = Helpers.mergeObj(1, "category", "Title", "video1", null, "playlist1", "channel1", null, "https://example.com/card.jpg", null);
+
+        Video result = Video.fromString(spec);
+
+        assertNotNull(result);
+        assertEquals("video1", result.videoId);
+        assertEquals("playlist1", result.playlistId);
+        assertEquals(-1, result.sectionId);
+        assertNull(result.channelGroupId);
+        assertFalse(result.isLive);
+    }
+
+    @Test
+    public void testOldChannelGroupIdReset() {
+        Video video = createVideo();
+        video.channelGroupId = "-1";
+
+        assertNull(Video.fromString(video.toString()).channelGroupId);
+    }
+
+    @Test
+    public void testInvalidSpec() {
+        assertNull(Video.fromString(null));
+        // State of the old versions contains the video id only
+        assertNull(Video.fromString("video1"));
+    }
+
+    static Video createVideo() {
+        Video video = new Video();
+        video.id = 1;
+        video.videoId = "video1";
+        video.title = "Title";
+        video.secondTitle = "Author • 1M views";
+        video.playlistId = "playlist1";
+        video.channelId = "channel1";
+        video.cardImageUrl = "https://example.com/card.jpg";
+        video.sectionId = 5;
+        video.percentWatched = 42.5f;
+        video.badge = "LIVE";
+        video.isLive = true;
+        video.channelGroupId = "group1";
+        return video;
+    }
+}
@@ -0,0 +1,112 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.playback.controllers;
+
+import com.liskovsoft.mediaserviceinterfaces.data.SponsorSegment;
+import com.liskovsoft.smartyoutubetv2.common.prefs.ContentBlockData;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ContentBlockControllerTest {
+    private static final long WINDOW_MS = 2_000;
+    private static final String SPONSOR = "sponsor";
+    private static final String INTRO = "intro";
+    private static final String OUTRO = "outro";
+    private final Map<String, Integer> mActions = new HashMap<>();
+
+    private static class TestSegment implements SponsorSegment {
+        private final long mStartMs;
+        private final long mEndMs;
+        private final String mCategory;
+
+        TestSegment(long startMs, long endMs, String category) {
+            mStartMs = startMs;
+            mEndMs = endMs;
+            mCategory = category;
+        }
+
+        @Override
+        public long getStartMs() {
+            return mStartMs;
+        }
+
+        @Override
+        public long getEndMs() {
+            return mEndMs;
+        }
+
+        @Override
+        public String getCategory() {
+            return mCategory;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mActions.put(SPONSOR, ContentBlockData.ACTION_SKIP_ONLY);
+        mActions.put(INTRO, ContentBlockData.ACTION_SKIP_WITH_TOAST);
+        mActions.put(OUTRO, ContentBlockData.ACTION_SHOW_DIALOG);
+    }
+
+    @Test
+    public void testNoSegments() {
+        assertNull(ContentBlockController.findMatchedSegments(1_000, null, mActions, WINDOW_MS, false));
+    }
+
+    @Test
+    public void testPartialMatchOnlyInsideWindow() {
+        SponsorSegment segment = new TestSegment(10_000, 30_000, SPONSOR);
+        List<SponsorSegment> segments = Arrays.asList(segment);
+
+        assertNull(ContentBlockController.findMatchedSegments(9_999, segments, mActions, WINDOW_MS, false));
+        assertEquals(Arrays.asList(segment), ContentBlockController.findMatchedSegments(10_000, segments, mActions, WINDOW_MS, false));
+        assertEquals(Arrays.asList(segment), ContentBlockController.findMatchedSegments(12_000, segments, mActions, WINDOW_MS, false));
+        // Seek inside the segment isn't skipped
+        assertNull(ContentBlockController.findMatchedSegments(12_001, segments, mActions, WINDOW_MS, false));
+    }
+
+    @Test
+    public void testFullMatch() {
+        SponsorSegment segment = new TestSegment(10_000, 30_000, SPONSOR);
+        List<SponsorSegment> segments = Arrays.asList(segment);
+
+        assertEquals(Arrays.asList(segment), ContentBlockController.findMatchedSegments(25_000, segments, mActions, WINDOW_MS, true));
+        assertEquals(Arrays.asList(segment), ContentBlockController.findMatchedSegments(30_000, segments, mActions, WINDOW_MS, true));
+        assertNull(ContentBlockController.findMatchedSegments(30_001, segments, mActions, WINDOW_MS, true));
+    }
+
+    @Test
+    public void testAdjacentSkipSegmentsAreGrouped() {
+        SponsorSegment first = new TestSegment(10_000, 20_000, SPONSOR);
+        SponsorSegment second = new TestSegment(21_000, 40_000, INTRO);
+        SponsorSegment far = new TestSegment(50_000, 60_000, SPONSOR);
+        List<SponsorSegment> segments = Arrays.asList(first, second, far);
+
+        assertEquals(Arrays.asList(first, second), ContentBlockController.findMatchedSegments(10_500, segments, mActions, WINDOW_MS, false));
+    }
+
+    @Test
+    public void testDialogSegmentIsNotGrouped() {
+        SponsorSegment dialog = new TestSegment(10_000, 20_000, OUTRO);
+        SponsorSegment next = new TestSegment(20_500, 30_000, SPONSOR);
+        List<SponsorSegment> segments = Arrays.asList(dialog, next);
+
+        assertEquals(Arrays.asList(dialog), ContentBlockController.findMatchedSegments(10_500, segments, mActions, WINDOW_MS, false));
+    }
+
+    @Test
+    public void testUnknownCategoryIsNotGrouped() {
+        SponsorSegment first = new TestSegment(10_000, 20_000, SPONSOR);
+        SponsorSegment unknown = new TestSegment(20_500, 30_000, "unknown");
+        List<SponsorSegment> segments = Arrays.asList(first, unknown);
+
+        assertEquals(Arrays.asList(first), ContentBlockController.findMatchedSegments(10_500, segments, mActions, WINDOW_MS, false));
+    }
+}
@@ -0,0 +1,176 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.playback.service;
+
+import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.LooperMode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.reactivex.Observable;
+import io.reactivex.android.plugins.RxAndroidPlugins;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.Schedulers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Stub service records the sent positions. Rx runs synchronously, the flush is called by hand.
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class HistorySyncQueueTest {
+    private final List<String> mSent = new ArrayList<>();
+    private final Set<String> mFailing = new HashSet<>();
+    private HistorySyncQueue mQueue;
+
+    @Before
+    public void setUp() {
+        RxJavaPlugins.setIoSchedulerHandler(scheduler -> Schedulers.trampoline());
+        RxAndroidPlugins.setMainThreadSchedulerHandler(scheduler -> Schedulers.trampoline());
+
+        // Prefs singleton outlives the test
+        AppPrefs prefs = AppPrefs.instance(RuntimeEnvironment.application);
+        prefs.setData(prefs.getAccountDataKey(HistorySyncQueue.HISTORY_SYNC_DATA), null);
+
+        mQueue = new HistorySyncQueue(RuntimeEnvironment.application, (videoId, video, positionMs) -> {
+            mSent.add(videoId + ":" + positionMs);
+            return mFailing.contains(videoId) ? Observable.error(new IOException("Unavailable")) : Observable.empty();
+        });
+    }
+
+    @After
+    public void tearDown() {
+        RxJavaPlugins.reset();
+        RxAndroidPlugins.reset();
+    }
+
+    @Test
+    public void testLatestPositionPerVideo() {
+        mQueue.add(createVideo("video1"), 1_000);
+        mQueue.add(createVideo("video1"), 2_000);
+        mQueue.flush();
+
+        assertEquals(Collections.singletonList("video1:2000"), mSent);
+    }
+
+    @Test
+    public void testOrderedByUpdateTime() {
+        mQueue.add(createVideo("video1"), 1_000);
+        mQueue.add(createVideo("video2"), 2_000);
+        mQueue.add(createVideo("video3"), 3_000);
+        mQueue.add(createVideo("video1"), 4_000);
+        mQueue.flush();
+
+        assertEquals(Arrays.asList("video2:2000", "video3:3000", "video1:4000"), mSent);
+    }
+
+    @Test
+    public void testSentEntriesRemoved() {
+        mQueue.add(createVideo("video1"), 1_000);
+        mQueue.flush();
+        mQueue.flush();
+
+        assertEquals(1, mSent.size());
+    }
+
+    @Test
+    public void testSentInBatches() {
+        for (int i = 0; i < 15; i++) {
+            mQueue.add(createVideo("video" + i), i);
+        }
+
+        mQueue.flush();
+        assertEquals(10, mSent.size());
+
+        mQueue.flush();
+        assertEquals(15, mSent.size());
+    }
+
+    @Test
+    public void testFailedEntryDoesNotStopBatch() {
+        mFailing.add("video1");
+        mQueue.add(createVideo("video1"), 1_000);
+        mQueue.add(createVideo("video2"), 2_000);
+        mQueue.add(createVideo("video3"), 3_000);
+        mQueue.flush();
+
+        assertEquals(Arrays.asList("video1:1000", "video2:2000", "video3:3000"), mSent);
+
+        // Only the failed entry is retried
+        mSent.clear();
+        mQueue.flush();
+
+        assertEquals(Collections.singletonList("video1:1000"), mSent);
+    }
+
+    @Test
+    public void testFailedEntriesMovedToEnd() {
+        for (int i = 0; i < 15; i++) {
+            mFailing.add("video" + i);
+            mQueue.add(createVideo("video" + i), i);
+        }
+
+        mQueue.flush();
+
+        // Failed batch doesn't hold the rest of the queue
+        mFailing.clear();
+        mSent.clear();
+        mQueue.flush();
+
+        assertEquals("video10:10", mSent.get(0));
+        assertEquals(10, mSent.size());
+    }
+
+    @Test
+    public void testBrokenEntryDropped() {
+        mFailing.add("broken");
+        mQueue.add(createVideo("broken"), 1_000);
+
+        // Other entries are sent. So the server is reachable.
+        for (int i = 0; i < HistorySyncQueue.MAX_ENTRY_FAILURES; i++) {
+            mQueue.add(createVideo("video" + i), i);
+            mQueue.flush();
+        }
+
+        mSent.clear();
+        mQueue.flush();
+
+        assertTrue(mSent.isEmpty());
+    }
+
+    @Test
+    public void testNothingDroppedWhenServerUnreachable() {
+        mFailing.add("video1");
+        mQueue.add(createVideo("video1"), 1_000);
+
+        for (int i = 0; i < HistorySyncQueue.MAX_ENTRY_FAILURES * 2; i++) {
+            mQueue.flush();
+        }
+
+        mFailing.clear();
+        mSent.clear();
+        mQueue.flush();
+
+        assertEquals(Collections.singletonList("video1:1000"), mSent);
+    }
+
+    private static Video createVideo(String videoId) {
+        Video video = new Video();
+        video.videoId = videoId;
+        return video;
+    }
+}
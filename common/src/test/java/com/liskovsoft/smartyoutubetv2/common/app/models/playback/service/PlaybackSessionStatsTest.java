@@ -0,0 +1,184 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.playback.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class PlaybackSessionStatsTest {
+    private static final long START_MS = 10_000;
+    private PlaybackSessionStats mStats;
+
+    @Before
+    public void setUp() {
+        mStats = new PlaybackSessionStats("video_id", START_MS, 1_600_000_000_000L);
+    }
+
+    @Test
+    public void testFirstFrame() {
+        assertEquals(-1, mStats.getFirstFrameMs());
+
+        mStats.onPlay(START_MS + 700);
+        mStats.onPlay(START_MS + 5_000);
+
+        assertEquals(700, mStats.getFirstFrameMs());
+    }
+
+    @Test
+    public void testStartupBufferingIgnored() {
+        mStats.onBuffering(START_MS + 100);
+        mStats.onPlay(START_MS + 900);
+
+        assertEquals(0, mStats.getRebufferCount());
+        assertEquals(0, mStats.getRebufferTimeMs());
+    }
+
+    @Test
+    public void testRebuffer() {
+        mStats.onPlay(START_MS + 500);
+        mStats.onBuffering(START_MS + 2_000);
+        // Repeated state shouldn't move the start
+        mStats.onBuffering(START_MS + 2_200);
+        mStats.onPlay(START_MS + 2_500);
+
+        assertEquals(1, mStats.getRebufferCount());
+        assertEquals(500, mStats.getRebufferTimeMs());
+    }
+
+    @Test
+    public void testRebufferEndedByPause() {
+        mStats.onPlay(START_MS + 500);
+        mStats.onBuffering(START_MS + 1_000);
+        mStats.onPause(START_MS + 1_300);
+
+        assertEquals(1, mStats.getRebufferCount());
+        assertEquals(300, mStats.getRebufferTimeMs());
+    }
+
+    @Test
+    public void testSeekBufferingIgnored() {
+        mStats.onPlay(START_MS + 500);
+
+        // Order of the player events: buffering, seek processed, buffering again, ready
+        mStats.onBuffering(START_MS + 3_000);
+        mStats.onSeekEnd();
+        mStats.onBuffering(START_MS + 3_100);
+        mStats.onPlay(START_MS + 4_000);
+
+        assertEquals(0, mStats.getRebufferCount());
+        assertEquals(0, mStats.getRebufferTimeMs());
+
+        // Next buffering is the real one
+        mStats.onBuffering(START_MS + 6_000);
+        mStats.onPlay(START_MS + 6_400);
+
+        assertEquals(1, mStats.getRebufferCount());
+        assertEquals(400, mStats.getRebufferTimeMs());
+    }
+
+    @Test
+    public void testEngineRestartBufferingIgnored() {
+        mStats.onPlay(START_MS + 500);
+        mStats.onEngineRestart();
+        mStats.onBuffering(START_MS + 1_000);
+        mStats.onPlay(START_MS + 2_000);
+
+        assertEquals(1, mStats.getEngineRestarts());
+        assertEquals(0, mStats.getRebufferCount());
+    }
+
+    @Test
+    public void testAfrPause() {
+        mStats.onAfrPauseStart(START_MS + 100);
+        // Nested start is ignored
+        mStats.onAfrPauseStart(START_MS + 200);
+        mStats.onAfrPauseEnd(START_MS + 1_100);
+        // End without start is ignored
+        mStats.onAfrPauseEnd(START_MS + 1_500);
+
+        assertEquals(1_000, mStats.getAfrPauseMs());
+    }
+
+    @Test
+    public void testDroppedFramesCounterReset() {
+        mStats.onDroppedFrames(5);
+        mStats.onDroppedFrames(8);
+        // New engine. Counter starts from zero.
+        mStats.onDroppedFrames(2);
+        mStats.onDroppedFrames(-1);
+
+        assertEquals(10, mStats.getDroppedFrames());
+    }
+
+    @Test
+    public void testFormatSwitches() {
+        mStats.onVideoFormat(1920, 1080, 30);
+        mStats.onVideoFormat(1920, 1080, 30);
+        mStats.onVideoFormat(1280, 720, 30);
+        mStats.onVideoFormat(1280, 720, 60);
+
+        assertEquals(2, mStats.getFormatSwitches());
+    }
+
+    @Test
+    public void testFinishClosesIntervals() {
+        mStats.onPlay(START_MS + 500);
+        mStats.onBuffering(START_MS + 1_000);
+        mStats.onAfrPauseStart(START_MS + 1_200);
+        mStats.finish(START_MS + 2_000);
+
+        assertTrue(mStats.isFinished());
+        assertEquals(2_000, mStats.getDurationMs());
+        assertEquals(1, mStats.getRebufferCount());
+        assertEquals(1_000, mStats.getRebufferTimeMs());
+        assertEquals(800, mStats.getAfrPauseMs());
+
+        // Ignored after finish
+        mStats.onBuffering(START_MS + 3_000);
+        mStats.onPlay(START_MS + 4_000);
+        mStats.finish(START_MS + 5_000);
+
+        assertEquals(1, mStats.getRebufferCount());
+        assertEquals(2_000, mStats.getDurationMs());
+    }
+
+    @Test
+    public void testRestore() {
+        mStats.onPlay(START_MS + 700);
+        mStats.onBuffering(START_MS + 1_000);
+        mStats.onPlay(START_MS + 1_250);
+        mStats.onVideoFormat(1920, 1080, 30);
+        mStats.onVideoFormat(1280, 720, 30);
+        mStats.onDroppedFrames(3);
+        mStats.onEngineRestart();
+        mStats.finish(START_MS + 60_000);
+
+        PlaybackSessionStats restored = PlaybackSessionStats.fromString(mStats.toString());
+
+        assertNotNull(restored);
+        assertTrue(restored.isFinished());
+        assertEquals(mStats.getVideoId(), restored.getVideoId());
+        assertEquals(mStats.getDateMs(), restored.getDateMs());
+        assertEquals(mStats.getDurationMs(), restored.getDurationMs());
+        assertEquals(mStats.getFirstFrameMs(), restored.getFirstFrameMs());
+        assertEquals(mStats.getRebufferCount(), restored.getRebufferCount());
+        assertEquals(mStats.getRebufferTimeMs(), restored.getRebufferTimeMs());
+        assertEquals(mStats.getFormatSwitches(), restored.getFormatSwitches());
+        assertEquals(mStats.getDroppedFrames(), restored.getDroppedFrames());
+        assertEquals(mStats.getEngineRestarts(), restored.getEngineRestarts());
+    }
+
+    @Test
+    public void testRunningSessionNotFinished() {
+        mStats.onPlay(START_MS + 500);
+
+        assertFalse(mStats.isFinished());
+        assertEquals(-1, mStats.getDurationMs());
+    }
+}
@@ -0,0 +1,84 @@
+package com.liskovsoft.smartyoutubetv2.common.app.models.playback.service;
+
+import com.liskovsoft.smartyoutubetv2.common.TestFixtures;
+import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.VideoStateService.State;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Fixture holds 300 states in the format of the old versions (video id only).
+ */
+@RunWith(RobolectricTestRunner.class)
+public class VideoStateServiceTest {
+    private VideoStateService mService;
+    private String[] mFixtureStates;
+
+    @Before
+    public void setUp() throws IOException {
+        String data = TestFixtures.read(TestFixtures.LEGACY_STATES);
+        mFixtureStates = data.split("&si;");
+
+        AppPrefs.instance(RuntimeEnvironment.application).setStateUpdaterData(data);
+        mService = VideoStateService.instance(RuntimeEnvironment.application);
+        // Singleton outlives the test. Read the fixture again.
+        mService.onProfileChanged();
+    }
+
+    @Test
+    public void testLegacyStatesRestored() {
+        String[] lastState = mFixtureStates[mFixtureStates.length - 1].split("&sf;");
+        State state = mService.getLastState();
+
+        assertNotNull(state);
+        assertEquals(lastState[0], state.video.videoId);
+        assertEquals(Long.parseLong(lastState[1]), state.positionMs);
+        assertEquals(Long.parseLong(lastState[2]), state.durationMs);
+        assertEquals(Long.parseLong(lastState[1]) * 100f / Long.parseLong(lastState[2]), state.video.percentWatched, 0.01);
+    }
+
+    @Test
+    public void testGetByVideoId() {
+        String[] lastState = mFixtureStates[mFixtureStates.length - 1].split("&sf;");
+
+        assertEquals(Long.parseLong(lastState[1]), mService.getByVideoId(lastState[0]).positionMs);
+        assertNull(mService.getByVideoId("missing"));
+    }
+
+    @Test
+    public void testRemoveByVideoId() {
+        String videoId = mService.getLastState().video.videoId;
+        mService.removeByVideoId(videoId);
+
+        assertNull(mService.getByVideoId(videoId));
+        assertFalse(mService.isEmpty());
+    }
+
+    @Test
+    public void testStateRoundTrip() {
+        Video video = new Video();
+        video.videoId = "video1";
+        video.title = "Title";
+
+        State state = State.from(new State(video, 1_000, 4_000, 1.5f).toString());
+
+        assertEquals("video1", state.video.videoId);
+        assertEquals("Title", state.video.title);
+        assertEquals(1_000, state.positionMs);
+        assertEquals(4_000, state.durationMs);
+        assertEquals(1.5f, state.speed, 0.001);
+        assertEquals(25f, state.video.percentWatched, 0.01);
+    }
+}
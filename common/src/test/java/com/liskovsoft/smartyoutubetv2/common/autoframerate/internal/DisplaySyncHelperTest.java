@@ -0,0 +1,72 @@
+package com.liskovsoft.smartyoutubetv2.common.autoframerate.internal;
+
+import com.liskovsoft.smartyoutubetv2.common.autoframerate.internal.DisplayHolder.Mode;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+public class DisplaySyncHelperTest {
+    private static final Mode FHD_24 = new Mode(1, 1920, 1080, 24f);
+    private static final Mode FHD_50 = new Mode(2, 1920, 1080, 50f);
+    private static final Mode FHD_60 = new Mode(3, 1920, 1080, 60f);
+    private static final Mode UHD_24 = new Mode(4, 3840, 2160, 24f);
+    private static final Mode UHD_50 = new Mode(5, 3840, 2160, 50f);
+    private static final Mode UHD_60 = new Mode(6, 3840, 2160, 60f);
+
+    @Test
+    public void testSameResolutionRateSwitch() {
+        Mode mode = DisplaySyncHelper.findBestMode(createModes(), FHD_60, 3840, 25f, false, true, false);
+
+        assertEquals(FHD_50, mode);
+    }
+
+    @Test
+    public void testResolutionSwitch() {
+        Mode mode = DisplaySyncHelper.findBestMode(createModes(), FHD_60, 3840, 24f, true, true, false);
+
+        assertEquals(UHD_24, mode);
+    }
+
+    @Test
+    public void testResolutionSwitchPrefersSmallestWidth() {
+        // HD video on the 4K display. Both resolutions are suitable. The smallest one wins.
+        Mode mode = DisplaySyncHelper.findBestMode(createModes(), UHD_60, 1280, 50f, true, true, false);
+
+        assertEquals(FHD_50, mode);
+    }
+
+    @Test
+    public void testSkip24Rate() {
+        Mode mode = DisplaySyncHelper.findBestMode(createModes(), FHD_60, 1920, 23.976f, false, true, true);
+
+        assertEquals(FHD_60, mode);
+    }
+
+    @Test
+    public void testUnknownRate() {
+        assertNull(DisplaySyncHelper.findBestMode(createModes(), FHD_60, 1920, 10f, false, true, false));
+    }
+
+    @Test
+    public void testNoCurrentMode() {
+        assertNull(DisplaySyncHelper.findBestMode(createModes(), null, 1920, 24f, false, true, false));
+    }
+
+    @Test
+    public void testModesNotModified() {
+        Mode[] modes = createModes();
+        DisplaySyncHelper.findBestMode(modes, FHD_60, 3840, 24f, true, true, false);
+
+        assertArrayEquals(createModes(), modes);
+    }
+
+    private static Mode[] createModes() {
+        return new Mode[] {FHD_24, FHD_50, FHD_60, UHD_24, UHD_50, UHD_60};
+    }
+}
@@ -0,0 +1,94 @@
+package com.liskovsoft.smartyoutubetv2.common.benchmark;
+
+import android.net.Uri;
+
+import com.liskovsoft.smartyoutubetv2.common.TestFixtures;
+import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
+import com.liskovsoft.smartyoutubetv2.common.app.models.playback.service.VideoStateService;
+import com.liskovsoft.smartyoutubetv2.common.exoplayer.LiveDashManifestParser;
+import com.liskovsoft.smartyoutubetv2.common.exoplayer.other.SubtitleTextProcessor;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+/**
+ * Hot paths on the recorded fixtures of the unit tests. Results are printed as ns per operation.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class HotPathBenchmark {
+    private static final Uri MANIFEST_URI = Uri.parse("https://example.googlevideo.com/api/manifest/dash");
+
+    @Before
+    public void setUp() {
+        Microbenchmark.assumeEnabled();
+    }
+
+    @Test
+    public void benchmarkVideoFromString() throws Exception {
+        Video video = new Video();
+        video.videoId = "video1";
+        video.title = "Title";
+        video.secondTitle = "Author • 1M views";
+        video.channelId = "channel1";
+        video.cardImageUrl = "https://example.com/card.jpg";
+        String spec = video.toString();
+
+        Microbenchmark.run("Video.fromString", 100_000, () -> Video.fromString(spec));
+    }
+
+    @Test
+    public void benchmarkVideoStateRestore() throws Exception {
+        AppPrefs.instance(RuntimeEnvironment.application).setStateUpdaterData(TestFixtures.read(TestFixtures.LEGACY_STATES));
+        VideoStateService service = VideoStateService.instance(RuntimeEnvironment.application);
+
+        Microbenchmark.run("VideoStateService restore (300 states)", 200, () -> {
+            service.onProfileChanged();
+            return service.getLastState();
+        });
+    }
+
+    @Test
+    public void benchmarkVideoStateLookup() throws Exception {
+        AppPrefs.instance(RuntimeEnvironment.application).setStateUpdaterData(TestFixtures.read(TestFixtures.LEGACY_STATES));
+        VideoStateService service = VideoStateService.instance(RuntimeEnvironment.application);
+        service.onProfileChanged();
+        // Worst case. Missing video is compared with all the states.
+        Microbenchmark.run("VideoStateService.getByVideoId", 20_000, () -> service.getByVideoId("missing"));
+    }
+
+    @Test
+    public void benchmarkSubtitleTokenize() throws Exception {
+        String regular = "Well, I didn't expect that. Did you?";
+        String autoGenerated = "so what we're gonna do today is";
+        String cjk = "今天天气很好我们去公园散步吧";
+
+        Microbenchmark.run("SubtitleTextProcessor regular", 100_000, () -> {
+            List<String> words = SubtitleTextProcessor.tokenizeText(regular, false, false);
+            return SubtitleTextProcessor.calculateWordPositions(regular, words);
+        });
+        Microbenchmark.run("SubtitleTextProcessor auto generated", 100_000,
+                () -> SubtitleTextProcessor.tokenizeText(autoGenerated, false, SubtitleTextProcessor.isAutoGeneratedSubtitle(autoGenerated)));
+        Microbenchmark.run("SubtitleTextProcessor CJK", 100_000,
+                () -> SubtitleTextProcessor.tokenizeText(cjk, SubtitleTextProcessor.containsOnlyCJK(cjk), false));
+    }
+
+    @Test
+    public void benchmarkLiveManifestUpdate() throws Exception {
+        byte[] window1 = TestFixtures.readBytes(TestFixtures.LIVE_WINDOW_1);
+        byte[] window2 = TestFixtures.readBytes(TestFixtures.LIVE_WINDOW_2);
+
+        // Manifest is refreshed every segment (5 sec) during the live playback
+        Microbenchmark.run("LiveDashManifestParser update (2 x 100 segments)", 200, () -> {
+            LiveDashManifestParser parser = new LiveDashManifestParser();
+            parser.parse(MANIFEST_URI, new ByteArrayInputStream(window1));
+            return parser.parse(MANIFEST_URI, new ByteArrayInputStream(window2));
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.liskovsoft.smartyoutubetv2.common.benchmark;
+
+import org.junit.Assume;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * Minimal JVM microbenchmark. Runs as the unit test, so the Android classes are provided by Robolectric.<br/>
+ * Skipped unless the build is started with the benchmark property:<br/>
+ * <code>./gradlew :common:testStorigDebugUnitTest -Pbenchmark --tests '*Benchmark'</code>
+ */
+final class Microbenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+    // Results are kept here. So JIT can't drop the measured code.
+    private static volatile int sSink;
+
+    private Microbenchmark() {
+    }
+
+    static void assumeEnabled() {
+        Assume.assumeTrue("Benchmarks are disabled. Run with -Pbenchmark", Boolean.getBoolean("benchmark"));
+    }
+
+    /**
+     * Prints and returns the best time of the measured rounds, ns per operation.
+     */
+    static long run(String name, int iterations, Callable<?> operation) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runRound(iterations, operation);
+        }
+
+        long bestNs = Long.MAX_VALUE;
+
+        for (int i = 0; i < ROUNDS; i++) {
+            bestNs = Math.min(bestNs, runRound(iterations, operation));
+        }
+
+        long nsPerOp = bestNs / iterations;
+        System.out.println(String.format(Locale.US, "Benchmark %s: %,d ns/op", name, nsPerOp));
+
+        return nsPerOp;
+    }
+
+    private static long runRound(int iterations, Callable<?> operation) throws Exception {
+        int sink = 0;
+        long startNs = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++) {
+            Object result = operation.call();
+            sink += result != null ? result.hashCode() : 0;
+        }
+
+        long elapsedNs = System.nanoTime() - startNs;
+        sSink += sink;
+
+        return elapsedNs;
+    }
+}
@@ -0,0 +1,82 @@
+package com.liskovsoft.smartyoutubetv2.common.exoplayer;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DataSpec;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Keep-alive is disabled for the player data source only. Local server counts the opened connections.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ExoMediaSourceFactoryTest {
+    private static final int REQUEST_COUNT = 5;
+    private LocalHttpServer mServer;
+
+    @Before
+    public void setUp() throws IOException {
+        mServer = new LocalHttpServer(new byte[100_000], 0, 0);
+        mServer.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mServer.stop();
+    }
+
+    @Test
+    public void testPlayerDataSourceNotReuseConnections() throws IOException {
+        DataSource.Factory factory = ExoMediaSourceFactory.buildDefaultHttpDataSourceFactory(null);
+
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            readAll(factory.createDataSource());
+        }
+
+        assertEquals(REQUEST_COUNT, mServer.getRequestCount());
+        assertEquals(REQUEST_COUNT, mServer.getConnectionCount());
+    }
+
+    @Test
+    public void testOtherClientsReuseConnection() throws IOException {
+        // SponsorBlock, DeArrow, translation etc. No process wide 'http.keepAlive=false' anymore.
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            HttpURLConnection connection = (HttpURLConnection) new URL(mServer.getUri().toString()).openConnection();
+
+            try (InputStream inputStream = connection.getInputStream()) {
+                byte[] buffer = new byte[8 * 1024];
+                while (inputStream.read(buffer) != -1) {
+                    // Read the body, so the connection is returned to the pool
+                }
+            }
+        }
+
+        assertEquals(REQUEST_COUNT, mServer.getRequestCount());
+        assertEquals(1, mServer.getConnectionCount());
+    }
+
+    private void readAll(DataSource source) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+
+        try {
+            source.open(new DataSpec(mServer.getUri()));
+
+            while (source.read(buffer, 0, buffer.length) != C.RESULT_END_OF_INPUT) {
+                // Skip the content
+            }
+        } finally {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.liskovsoft.smartyoutubetv2.common.exoplayer;
+
+import android.net.Uri;
+
+import com.google.android.exoplayer2.source.dash.DashSegmentIndex;
+import com.google.android.exoplayer2.source.dash.manifest.DashManifest;
+import com.google.android.exoplayer2.source.dash.manifest.Representation;
+import com.liskovsoft.smartyoutubetv2.common.TestFixtures;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class LiveDashManifestParserTest {
+    private static final Uri MANIFEST_URI = Uri.parse("https://example.googlevideo.com/api/manifest/dash");
+
+    @Test
+    public void testFirstManifestStartsFromZero() throws IOException {
+        DashManifest manifest = parse(new LiveDashManifestParser(), TestFixtures.LIVE_WINDOW_1);
+
+        for (int i = 0; i < 2; i++) {
+            DashSegmentIndex index = getRepresentation(manifest, i).getIndex();
+            assertEquals(0, index.getFirstSegmentNum());
+            assertEquals(100, index.getSegmentCount(DashSegmentIndex.INDEX_UNBOUNDED));
+        }
+    }
+
+    @Test
+    public void testNewSegmentsAppended() throws IOException {
+        LiveDashManifestParser parser = new LiveDashManifestParser();
+        DashManifest first = parse(parser, TestFixtures.LIVE_WINDOW_1);
+        DashManifest second = parse(parser, TestFixtures.LIVE_WINDOW_2);
+
+        // Old segments are kept. So the user could seek back beyond the window.
+        assertSame(first, second);
+
+        for (int i = 0; i < 2; i++) {
+            Representation representation = getRepresentation(second, i);
+            DashSegmentIndex index = representation.getIndex();
+            assertEquals(101, index.getSegmentCount(DashSegmentIndex.INDEX_UNBOUNDED));
+            assertTrue(index.getSegmentUrl(0).resolveUriString(representation.baseUrl).contains("sq/5000/"));
+            assertTrue(index.getSegmentUrl(100).resolveUriString(representation.baseUrl).contains("sq/5100/"));
+            assertEquals(index.getTimeUs(99) + 5_000_000, index.getTimeUs(100));
+        }
+    }
+
+    @Test
+    public void testSameManifestNotAppended() throws IOException {
+        LiveDashManifestParser parser = new LiveDashManifestParser();
+        parse(parser, TestFixtures.LIVE_WINDOW_1);
+        DashManifest manifest = parse(parser, TestFixtures.LIVE_WINDOW_1);
+
+        assertEquals(100, getRepresentation(manifest, 1).getIndex().getSegmentCount(DashSegmentIndex.INDEX_UNBOUNDED));
+    }
+
+    @Test
+    public void testShortStreamReplaced() throws IOException {
+        LiveDashManifestParser parser = new LiveDashManifestParser();
+        DashManifest first = parse(parser, TestFixtures.LIVE_SHORT);
+        DashManifest second = parse(parser, TestFixtures.LIVE_SHORT);
+
+        assertNotSame(first, second);
+        assertEquals(3, getRepresentation(second, 1).getIndex().getSegmentCount(DashSegmentIndex.INDEX_UNBOUNDED));
+    }
+
+    private static DashManifest parse(LiveDashManifestParser parser, String fixture) throws IOException {
+        try (InputStream inputStream = TestFixtures.open(fixture)) {
+            return parser.parse(MANIFEST_URI, inputStream);
+        }
+    }
+
+    private static Representation getRepresentation(DashManifest manifest, int adaptationSet) {
+        return manifest.getPeriod(0).adaptationSets.get(adaptationSet).representations.get(0);
+    }
+}
@@ -0,0 +1,169 @@
+package com.liskovsoft.smartyoutubetv2.common.exoplayer;
+
+import android.net.Uri;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal HTTP/1.1 server for the network tests. Serves the same content on every path.<br/>
+ * Supports byte ranges and keep-alive. Latency and per-connection rate limit emulate the slow link.
+ */
+class LocalHttpServer {
+    private static final int SLICE_BYTES = 16 * 1024;
+    private final byte[] mContent;
+    private final long mLatencyMs;
+    private final long mBytesPerSecond;
+    private final AtomicInteger mConnectionCount = new AtomicInteger();
+    private final AtomicInteger mRequestCount = new AtomicInteger();
+    private ServerSocket mServerSocket;
+
+    /**
+     * @param latencyMs delay before every response
+     * @param bytesPerSecond rate limit of the single connection. 0 - no limit.
+     */
+    LocalHttpServer(byte[] content, long latencyMs, long bytesPerSecond) {
+        mContent = content;
+        mLatencyMs = latencyMs;
+        mBytesPerSecond = bytesPerSecond;
+    }
+
+    void start() throws IOException {
+        mServerSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+
+        startThread(() -> {
+            while (!mServerSocket.isClosed()) {
+                try {
+                    Socket socket = mServerSocket.accept();
+                    mConnectionCount.incrementAndGet();
+                    startThread(() -> serve(socket));
+                } catch (IOException e) {
+                    // Closed
+                }
+            }
+        });
+    }
+
+    void stop() throws IOException {
+        mServerSocket.close();
+    }
+
+    Uri getUri() {
+        return Uri.parse("http://127.0.0.1:" + mServerSocket.getLocalPort() + "/video");
+    }
+
+    int getConnectionCount() {
+        return mConnectionCount.get();
+    }
+
+    int getRequestCount() {
+        return mRequestCount.get();
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            InputStream input = new BufferedInputStream(s.getInputStream());
+            OutputStream output = s.getOutputStream();
+
+            while (true) {
+                String request = readHeaders(input);
+
+                if (request == null) {
+                    return;
+                }
+
+                mRequestCount.incrementAndGet();
+                boolean isClose = request.toLowerCase(Locale.US).contains("\r\nconnection: close");
+                respond(output, request, isClose);
+
+                if (isClose) {
+                    return;
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // Client has gone
+        }
+    }
+
+    private void respond(OutputStream output, String request, boolean isClose) throws IOException, InterruptedException {
+        int start = 0;
+        int end = mContent.length - 1;
+        boolean isRange = false;
+
+        for (String line : request.split("\r\n")) {
+            if (line.toLowerCase(Locale.US).startsWith("range: bytes=")) {
+                String[] range = line.substring("range: bytes=".length()).split("-", -1);
+                start = Integer.parseInt(range[0].trim());
+
+                if (!range[1].trim().isEmpty()) {
+                    end = Math.min(end, Integer.parseInt(range[1].trim()));
+                }
+
+                isRange = true;
+            }
+        }
+
+        Thread.sleep(mLatencyMs);
+
+        int length = end - start + 1;
+        StringBuilder headers = new StringBuilder();
+        headers.append(isRange ? "HTTP/1.1 206 Partial Content\r\n" : "HTTP/1.1 200 OK\r\n");
+        headers.append("Content-Type: application/octet-stream\r\n");
+        headers.append("Content-Length: ").append(length).append("\r\n");
+
+        if (isRange) {
+            headers.append("Content-Range: bytes ").append(start).append('-').append(end).append('/').append(mContent.length).append("\r\n");
+        }
+
+        headers.append(isClose ? "Connection: close\r\n" : "Connection: keep-alive\r\n");
+        headers.append("\r\n");
+        output.write(headers.toString().getBytes(StandardCharsets.US_ASCII));
+
+        for (int offset = start; offset <= end; offset += SLICE_BYTES) {
+            int slice = Math.min(SLICE_BYTES, end - offset + 1);
+            output.write(mContent, offset, slice);
+
+            if (mBytesPerSecond > 0) {
+                Thread.sleep(slice * 1_000L / mBytesPerSecond);
+            }
+        }
+
+        output.flush();
+    }
+
+    /**
+     * @return request line and headers or null if the connection is closed
+     */
+    private static String readHeaders(InputStream input) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        int matched = 0;
+
+        while (matched < 4) {
+            int b = input.read();
+
+            if (b == -1) {
+                return null;
+            }
+
+            result.write(b);
+            matched = (b == '\r' && (matched == 0 || matched == 2)) || (b == '\n' && (matched == 1 || matched == 3)) ? matched + 1 : 0;
+        }
+
+        return result.toString("US-ASCII");
+    }
+
+    private static void startThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "local-http-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,125 @@
+package com.liskovsoft.smartyoutubetv2.common.exoplayer;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.google.android.exoplayer2.upstream.DefaultHttpDataSourceFactory;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local server with the injected latency and per-connection rate limit stands in for the slow link.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ParallelRangeDataSourceTest {
+    private static final int CONTENT_LENGTH = 4_000_000;
+    private static final long LATENCY_MS = 200;
+    private static final long BYTES_PER_SECOND = 4_000_000;
+    private final byte[] mContent = createContent();
+    private final DataSource.Factory mUpstreamFactory = new DefaultHttpDataSourceFactory("test");
+    private LocalHttpServer mServer;
+
+    @After
+    public void tearDown() throws IOException {
+        if (mServer != null) {
+            mServer.stop();
+        }
+    }
+
+    @Test
+    public void testContentReassembledInOrder() throws IOException {
+        startServer(LATENCY_MS, 0);
+
+        byte[] result = readAll(new ParallelRangeDataSource(mUpstreamFactory), CONTENT_LENGTH);
+
+        assertArrayEquals(mContent, result);
+        assertTrue("Request should be split", mServer.getRequestCount() >= 2);
+    }
+
+    @Test
+    public void testSmallRequestNotSplit() throws IOException {
+        startServer(0, 0);
+
+        byte[] result = readAll(new ParallelRangeDataSource(mUpstreamFactory), 100_000);
+
+        assertEquals(100_000, result.length);
+        assertEquals(1, mServer.getRequestCount());
+    }
+
+    @Test
+    public void testUnknownLengthNotSplit() throws IOException {
+        startServer(0, 0);
+
+        byte[] result = readAll(new ParallelRangeDataSource(mUpstreamFactory), C.LENGTH_UNSET);
+
+        assertArrayEquals(mContent, result);
+        assertEquals(1, mServer.getRequestCount());
+    }
+
+    @Test
+    public void testThroughputOnSlowLink() throws IOException {
+        startServer(LATENCY_MS, BYTES_PER_SECOND);
+
+        long startNs = System.nanoTime();
+        readAll(mUpstreamFactory.createDataSource(), CONTENT_LENGTH);
+        long singleMs = (System.nanoTime() - startNs) / 1_000_000;
+
+        startNs = System.nanoTime();
+        byte[] result = readAll(new ParallelRangeDataSource(mUpstreamFactory), CONTENT_LENGTH);
+        long parallelMs = (System.nanoTime() - startNs) / 1_000_000;
+
+        System.out.printf("ParallelRangeDataSource: single connection %s ms, parallel %s ms%n", singleMs, parallelMs);
+
+        assertArrayEquals(mContent, result);
+        assertTrue("Parallel load should be faster: " + parallelMs + " vs " + singleMs, parallelMs < singleMs * 0.85);
+    }
+
+    @Test
+    public void testSourceReusedAfterClose() throws IOException {
+        startServer(0, 0);
+        ParallelRangeDataSource source = new ParallelRangeDataSource(mUpstreamFactory);
+
+        assertArrayEquals(mContent, readAll(source, CONTENT_LENGTH));
+        assertArrayEquals(mContent, readAll(source, CONTENT_LENGTH));
+    }
+
+    private void startServer(long latencyMs, long bytesPerSecond) throws IOException {
+        mServer = new LocalHttpServer(mContent, latencyMs, bytesPerSecond);
+        mServer.start();
+    }
+
+    private byte[] readAll(DataSource source, long length) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[64 * 1024];
+
+        try {
+            source.open(new DataSpec(mServer.getUri(), 0, length, null));
+
+            int read;
+            while ((read = source.read(buffer, 0, buffer.length)) != C.RESULT_END_OF_INPUT) {
+                result.write(buffer, 0, read);
+            }
+        } finally {
+            source.close();
+        }
+
+        return result.toByteArray();
+    }
+
+    private static byte[] createContent() {
+        byte[] result = new byte[CONTENT_LENGTH];
+        new Random(42).nextBytes(result);
+        return result;
+    }
+}
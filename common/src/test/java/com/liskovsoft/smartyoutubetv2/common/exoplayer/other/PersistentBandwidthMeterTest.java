@@ -0,0 +1,100 @@
+package com.liskovsoft.smartyoutubetv2.common.exoplayer.other;
+
+import android.net.Uri;
+import android.os.SystemClock;
+
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.liskovsoft.smartyoutubetv2.common.prefs.AppPrefs;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Replays the synthetic transfer traces. Robolectric clock is advanced by {@link SystemClock#sleep(long)}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PersistentBandwidthMeterTest {
+    private static final int CHUNK_BYTES = 1024 * 1024;
+    // 1 MB per 500 ms
+    private static final long FAST_BPS = CHUNK_BYTES * 8000L / 500;
+    // 1 MB per 1000 ms
+    private static final long SLOW_BPS = CHUNK_BYTES * 8000L / 1000;
+    private final DataSpec mDataSpec = new DataSpec(Uri.parse("https://example.com/video"));
+    private PersistentBandwidthMeter mMeter;
+
+    @Before
+    public void setUp() {
+        // Prefs singleton outlives the test
+        AppPrefs.instance(RuntimeEnvironment.application).setData(PersistentBandwidthMeter.BANDWIDTH_ESTIMATES_DATA, null);
+        mMeter = new PersistentBandwidthMeter(RuntimeEnvironment.application);
+    }
+
+    @Test
+    public void testNothingStoredBeforeCommit() {
+        replay(40, 500);
+
+        assertEquals(0, mMeter.getStoredEstimate());
+        assertEquals(FAST_BPS, mMeter.getBitrateEstimate());
+    }
+
+    @Test
+    public void testFirstSessionStoredAsIs() {
+        replay(40, 500);
+        mMeter.commitSession();
+
+        assertEquals(FAST_BPS, mMeter.getStoredEstimate());
+    }
+
+    @Test
+    public void testBlendOncePerSession() {
+        replay(40, 500);
+        mMeter.commitSession();
+
+        // Many chunks of the second session shouldn't move the stored value before commit
+        replay(200, 1000);
+        assertEquals(FAST_BPS, mMeter.getStoredEstimate());
+
+        mMeter.commitSession();
+        assertEquals(FAST_BPS * 0.7 + SLOW_BPS * 0.3, mMeter.getStoredEstimate(), FAST_BPS * 0.01);
+    }
+
+    @Test
+    public void testEmptySessionNotCommitted() {
+        replay(40, 500);
+        mMeter.commitSession();
+
+        // Player released without the transfers
+        mMeter.commitSession();
+
+        assertEquals(FAST_BPS, mMeter.getStoredEstimate());
+    }
+
+    @Test
+    public void testLocalTransfersIgnored() {
+        for (int i = 0; i < 40; i++) {
+            mMeter.onTransferStart(null, mDataSpec, false);
+            SystemClock.sleep(10);
+            mMeter.onBytesTransferred(null, mDataSpec, false, CHUNK_BYTES);
+            mMeter.onTransferEnd(null, mDataSpec, false);
+        }
+
+        mMeter.commitSession();
+
+        assertEquals(0, mMeter.getStoredEstimate());
+    }
+
+    private void replay(int chunks, long chunkTimeMs) {
+        for (int i = 0; i < chunks; i++) {
+            mMeter.onTransferInitializing(null, mDataSpec, true);
+            mMeter.onTransferStart(null, mDataSpec, true);
+            SystemClock.sleep(chunkTimeMs);
+            mMeter.onBytesTransferred(null, mDataSpec, true, CHUNK_BYTES);
+            mMeter.onTransferEnd(null, mDataSpec, true);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.liskovsoft.smartyoutubetv2.common.exoplayer.other;
+
+import com.google.android.exoplayer2.text.Cue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SubtitleTextProcessorTest {
+    // Recorded lines. Regular, auto generated and CJK captions.
+    static final String REGULAR_LINE = "Well, I didn't expect that.\nDid you?";
+    static final String AUTO_GENERATED_LINE = "so what we're gonna do today is";
+    static final String CJK_LINE = "今天 天气 很好";
+
+    @Test
+    public void testExtractTextFromCues() {
+        List<Cue> cues = Arrays.asList(new Cue("First line\nsecond line"), new Cue("Third line"));
+
+        assertEquals("First line second line Third line", SubtitleTextProcessor.extractTextFromCues(cues));
+        assertEquals("", SubtitleTextProcessor.extractTextFromCues(Collections.emptyList()));
+        assertEquals("", SubtitleTextProcessor.extractTextFromCues(null));
+    }
+
+    @Test
+    public void testContainsOnlyCJK() {
+        assertTrue(SubtitleTextProcessor.containsOnlyCJK(CJK_LINE));
+        assertTrue(SubtitleTextProcessor.containsOnlyCJK("こんにちは"));
+        assertFalse(SubtitleTextProcessor.containsOnlyCJK("今天 OK"));
+        assertFalse(SubtitleTextProcessor.containsOnlyCJK(""));
+    }
+
+    @Test
+    public void testIsAutoGeneratedSubtitle() {
+        assertTrue(SubtitleTextProcessor.isAutoGeneratedSubtitle(AUTO_GENERATED_LINE));
+        assertFalse(SubtitleTextProcessor.isAutoGeneratedSubtitle("This is a complete sentence."));
+        assertFalse(SubtitleTextProcessor.isAutoGeneratedSubtitle(
+                "this line is way too long to be produced by the speech recognition in one go so it is regular"));
+    }
+
+    @Test
+    public void testTokenizeRegularText() {
+        assertEquals(Arrays.asList("Well", "I", "didn't", "expect", "that", "Did", "you"),
+                SubtitleTextProcessor.tokenizeText(REGULAR_LINE, false, false));
+    }
+
+    @Test
+    public void testTokenizeAutoGeneratedText() {
+        assertEquals(Arrays.asList("so", "what", "we're", "gonna", "do", "today", "is"),
+                SubtitleTextProcessor.tokenizeText(AUTO_GENERATED_LINE, false, true));
+    }
+
+    @Test
+    public void testTokenizeCJKText() {
+        assertEquals(Arrays.asList("今", "天", "天", "气", "很", "好"),
+                SubtitleTextProcessor.tokenizeText(CJK_LINE, true, false));
+        assertEquals(Arrays.asList("我", "用", "YouTube", "看"),
+                SubtitleTextProcessor.tokenizeText("我用YouTube看", true, false));
+    }
+
+    @Test
+    public void testCalculateWordPositions() {
+        List<String> words = SubtitleTextProcessor.tokenizeText(REGULAR_LINE, false, false);
+
+        assertArrayEquals(new int[] {0, 6, 8, 15, 22, 28, 32}, SubtitleTextProcessor.calculateWordPositions(REGULAR_LINE, words));
+        assertArrayEquals(new int[] {-1}, SubtitleTextProcessor.calculateWordPositions("text", Collections.singletonList("missing")));
+    }
+}
@@ -0,0 +1,158 @@
+package com.liskovsoft.smartyoutubetv2.common.misc;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SharedRequestsTest {
+    private static final long TTL_MS = 60_000;
+    private static final String VIDEO_1 = "video1";
+    private static final String VIDEO_2 = "video2";
+    private static final String LIVE = "live";
+    private final AtomicInteger mSubscriptions = new AtomicInteger();
+
+    @Test
+    public void testConcurrentCallersShareRequest() {
+        SharedRequests<String> requests = createRequests();
+        PublishSubject<String> source = PublishSubject.create();
+
+        TestObserver<String> player = requests.get(VIDEO_1, counted(source)).test();
+        TestObserver<String> preload = requests.get(VIDEO_1, counted(source)).test();
+
+        assertEquals(1, mSubscriptions.get());
+
+        source.onNext("info");
+        source.onComplete();
+
+        player.assertValues("info").assertComplete();
+        preload.assertValues("info").assertComplete();
+    }
+
+    @Test
+    public void testLateCallerGetsSameResult() {
+        SharedRequests<String> requests = createRequests();
+        PublishSubject<String> source = PublishSubject.create();
+
+        TestObserver<String> player = requests.get(VIDEO_1, counted(source)).test();
+        source.onNext("info");
+
+        // Joined after the result but before the completion
+        TestObserver<String> late = requests.get(VIDEO_1, counted(source)).test();
+        source.onComplete();
+
+        assertEquals(1, mSubscriptions.get());
+        player.assertValues("info").assertComplete();
+        late.assertValues("info").assertComplete();
+    }
+
+    @Test
+    public void testDifferentKeysDontShare() {
+        SharedRequests<String> requests = createRequests();
+
+        requests.get(VIDEO_1, counted(Observable.just("info1"))).test().assertValues("info1");
+        requests.get(VIDEO_2, counted(Observable.just("info2"))).test().assertValues("info2");
+
+        assertEquals(2, mSubscriptions.get());
+    }
+
+    @Test
+    public void testRecentResultIsReused() {
+        SharedRequests<String> requests = createRequests();
+
+        requests.get(VIDEO_1, counted(Observable.just("info"))).test().assertValues("info");
+        requests.get(VIDEO_1, counted(Observable.just("fresh info"))).test().assertValues("info");
+
+        assertEquals(1, mSubscriptions.get());
+    }
+
+    @Test
+    public void testFilteredResultIsRequestedAgain() {
+        SharedRequests<String> requests = createRequests();
+
+        requests.get(LIVE, counted(Observable.just(LIVE))).test().assertValues(LIVE);
+        requests.get(LIVE, counted(Observable.just(LIVE))).test().assertValues(LIVE);
+
+        assertEquals(2, mSubscriptions.get());
+    }
+
+    @Test
+    public void testNothingReusedWithoutFilter() {
+        SharedRequests<String> requests = new SharedRequests<>();
+
+        requests.get(VIDEO_1, counted(Observable.just("info"))).test().assertValues("info");
+        requests.get(VIDEO_1, counted(Observable.just("fresh info"))).test().assertValues("fresh info");
+
+        assertEquals(2, mSubscriptions.get());
+    }
+
+    @Test
+    public void testRemovedResultIsRequestedAgain() {
+        SharedRequests<String> requests = createRequests();
+
+        requests.get(VIDEO_1, counted(Observable.just("info"))).test();
+        requests.remove(VIDEO_1);
+        requests.get(VIDEO_1, counted(Observable.just("fresh info"))).test().assertValues("fresh info");
+
+        requests.clear();
+        requests.get(VIDEO_1, counted(Observable.just("fresh info 2"))).test().assertValues("fresh info 2");
+
+        assertEquals(3, mSubscriptions.get());
+    }
+
+    @Test
+    public void testErrorIsNotStored() {
+        SharedRequests<String> requests = createRequests();
+
+        requests.get(VIDEO_1, counted(Observable.error(new IOException()))).test().assertError(IOException.class);
+        requests.get(VIDEO_1, counted(Observable.just("info"))).test().assertValues("info");
+
+        assertEquals(2, mSubscriptions.get());
+    }
+
+    @Test
+    public void testRequestCancelledWhenAllCallersGone() {
+        SharedRequests<String> requests = createRequests();
+        PublishSubject<String> source = PublishSubject.create();
+
+        TestObserver<String> player = requests.get(VIDEO_1, counted(source)).test();
+        TestObserver<String> preload = requests.get(VIDEO_1, counted(source)).test();
+
+        player.dispose();
+        assertTrue(source.hasObservers());
+
+        preload.dispose();
+        assertFalse(source.hasObservers());
+
+        // Cancelled request isn't reused
+        requests.get(VIDEO_1, counted(Observable.just("info"))).test().assertValues("info");
+        assertEquals(2, mSubscriptions.get());
+    }
+
+    @Test
+    public void testResultsAreEvicted() {
+        SharedRequests<String> requests = new SharedRequests<>(TTL_MS, 1, item -> true);
+
+        requests.get(VIDEO_1, counted(Observable.just("info1"))).test();
+        requests.get(VIDEO_2, counted(Observable.just("info2"))).test();
+        requests.get(VIDEO_1, counted(Observable.just("fresh info1"))).test().assertValues("fresh info1");
+
+        assertEquals(3, mSubscriptions.get());
+    }
+
+    private SharedRequests<String> createRequests() {
+        return new SharedRequests<>(TTL_MS, 10, item -> !LIVE.equals(item));
+    }
+
+    private <T> Observable<T> counted(Observable<T> source) {
+        return source.doOnSubscribe(disposable -> mSubscriptions.incrementAndGet());
+    }
+}
@@ -0,0 +1,150 @@
+package com.liskovsoft.smartyoutubetv2.common.misc;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamPollSchedulerTest {
+    private static final long MINUTE_MS = 60_000;
+    private static final String STREAM_1 = "stream1";
+    private static final String STREAM_2 = "stream2";
+
+    @Test
+    public void testPollInterval() {
+        long now = 1_000_000;
+
+        assertEquals(StreamPollScheduler.DEFAULT_POLL_INTERVAL_MS, StreamPollScheduler.getPollIntervalMs(0, now));
+        assertEquals(StreamPollScheduler.MAX_POLL_INTERVAL_MS, StreamPollScheduler.getPollIntervalMs(now + 180 * MINUTE_MS, now));
+        assertEquals(20 * MINUTE_MS, StreamPollScheduler.getPollIntervalMs(now + 40 * MINUTE_MS, now));
+        assertEquals(StreamPollScheduler.MIN_POLL_INTERVAL_MS, StreamPollScheduler.getPollIntervalMs(now + 5 * MINUTE_MS, now));
+        // Late stream
+        assertEquals(StreamPollScheduler.MIN_POLL_INTERVAL_MS, StreamPollScheduler.getPollIntervalMs(now - 5 * MINUTE_MS, now));
+    }
+
+    @Test
+    public void testBackoff() {
+        assertEquals(2 * MINUTE_MS, StreamPollScheduler.getBackoffMs(1));
+        assertEquals(4 * MINUTE_MS, StreamPollScheduler.getBackoffMs(2));
+        assertEquals(16 * MINUTE_MS, StreamPollScheduler.getBackoffMs(4));
+        assertEquals(StreamPollScheduler.MAX_POLL_INTERVAL_MS, StreamPollScheduler.getBackoffMs(5));
+        assertEquals(StreamPollScheduler.MAX_POLL_INTERVAL_MS, StreamPollScheduler.getBackoffMs(100));
+    }
+
+    @Test
+    public void testPollsBeforeStart() {
+        long startTimeMs = 180 * MINUTE_MS;
+        Map<String, Integer> polls = run(new StreamPollScheduler(), Collections.singletonMap(STREAM_1, startTimeMs),
+                Collections.emptySet(), startTimeMs + MINUTE_MS);
+
+        // 0, 30, 60, 90, 120, 150, 165 then every minute from 173 up to the start
+        assertEquals(15, (int) polls.get(STREAM_1));
+    }
+
+    @Test
+    public void testStreamIsPolledAtStart() {
+        long startTimeMs = 97 * MINUTE_MS;
+        StreamPollScheduler scheduler = new StreamPollScheduler();
+        Map<String, Long> startTimes = Collections.singletonMap(STREAM_1, startTimeMs);
+
+        run(scheduler, startTimes, Collections.emptySet(), startTimeMs);
+
+        assertEquals(Collections.singletonList(STREAM_1), scheduler.getDuePolls(startTimes.keySet(), startTimeMs));
+    }
+
+    @Test
+    public void testUnknownStartTime() {
+        Map<String, Integer> polls = run(new StreamPollScheduler(), Collections.singletonMap(STREAM_1, 0L),
+                Collections.emptySet(), 60 * MINUTE_MS);
+
+        assertEquals(30, (int) polls.get(STREAM_1));
+    }
+
+    @Test
+    public void testFailedPollsBackOff() {
+        StreamPollScheduler scheduler = new StreamPollScheduler();
+        Map<String, Long> startTimes = Collections.singletonMap(STREAM_1, 0L);
+
+        Map<String, Integer> polls = run(scheduler, startTimes, Collections.singleton(STREAM_1), 120 * MINUTE_MS);
+
+        // 0, 2, 6, 14, 30, 60, 90
+        assertEquals(7, (int) polls.get(STREAM_1));
+
+        // Success resets the backoff
+        long now = 120 * MINUTE_MS;
+        assertEquals(Collections.singletonList(STREAM_1), scheduler.getDuePolls(startTimes.keySet(), now));
+        scheduler.onPollSuccess(STREAM_1, 0, now);
+        assertTrue(scheduler.getDuePolls(startTimes.keySet(), now + MINUTE_MS).isEmpty());
+        assertEquals(Collections.singletonList(STREAM_1),
+                scheduler.getDuePolls(startTimes.keySet(), now + StreamPollScheduler.DEFAULT_POLL_INTERVAL_MS));
+    }
+
+    @Test
+    public void testFailedStreamDoesNotDelayOthers() {
+        Map<String, Long> startTimes = new HashMap<>();
+        startTimes.put(STREAM_1, 0L);
+        startTimes.put(STREAM_2, 0L);
+
+        Map<String, Integer> polls = run(new StreamPollScheduler(), startTimes, Collections.singleton(STREAM_1), 60 * MINUTE_MS);
+
+        assertEquals(5, (int) polls.get(STREAM_1));
+        assertEquals(30, (int) polls.get(STREAM_2));
+    }
+
+    @Test
+    public void testSlowPollIsNotRepeated() {
+        StreamPollScheduler scheduler = new StreamPollScheduler();
+        List<String> videoIds = Collections.singletonList(STREAM_1);
+
+        assertEquals(videoIds, scheduler.getDuePolls(videoIds, 0));
+        assertTrue(scheduler.getDuePolls(videoIds, 10 * MINUTE_MS).isEmpty());
+
+        // Poll completed without the result
+        scheduler.onPollFinished(STREAM_1);
+        assertEquals(videoIds, scheduler.getDuePolls(videoIds, 11 * MINUTE_MS));
+    }
+
+    @Test
+    public void testUnscheduledStreamIsDropped() {
+        StreamPollScheduler scheduler = new StreamPollScheduler();
+
+        scheduler.getDuePolls(Arrays.asList(STREAM_1, STREAM_2), 0);
+        assertEquals(2, scheduler.size());
+
+        scheduler.getDuePolls(Collections.singletonList(STREAM_2), MINUTE_MS);
+        assertEquals(1, scheduler.size());
+
+        scheduler.remove(STREAM_2);
+        assertEquals(0, scheduler.size());
+    }
+
+    /**
+     * Ticks every minute on a fake clock. Stub service answers synchronously.
+     */
+    private static Map<String, Integer> run(StreamPollScheduler scheduler, Map<String, Long> startTimes, Set<String> failing, long durationMs) {
+        Map<String, Integer> polls = new HashMap<>();
+
+        for (long now = 0; now < durationMs; now += MINUTE_MS) {
+            for (String videoId : scheduler.getDuePolls(startTimes.keySet(), now)) {
+                polls.put(videoId, polls.getOrDefault(videoId, 0) + 1);
+
+                if (failing.contains(videoId)) {
+                    scheduler.onPollError(videoId, now);
+                } else {
+                    scheduler.onPollSuccess(videoId, startTimes.get(videoId), now);
+                }
+
+                scheduler.onPollFinished(videoId);
+            }
+        }
+
+        return polls;
+    }
+}
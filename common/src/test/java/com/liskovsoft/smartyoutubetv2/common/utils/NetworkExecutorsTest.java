@@ -0,0 +1,61 @@
+package com.liskovsoft.smartyoutubetv2.common.utils;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+public class NetworkExecutorsTest {
+    private final Thread.UncaughtExceptionHandler mDefaultHandler = Thread.getDefaultUncaughtExceptionHandler();
+
+    @After
+    public void tearDown() {
+        Thread.setDefaultUncaughtExceptionHandler(mDefaultHandler);
+    }
+
+    @Test
+    public void testExecuteErrorNotSwallowed() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {
+            error.set(e);
+            latch.countDown();
+        });
+
+        NetworkExecutors.execute(NetworkExecutors.PRIORITY_METADATA, () -> {
+            throw new IllegalStateException("tts failed");
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("tts failed", error.get().getMessage());
+    }
+
+    @Test
+    public void testSubmitErrorGoesToCaller() throws InterruptedException {
+        Future<Object> future = NetworkExecutors.submit(NetworkExecutors.PRIORITY_PLAYBACK, () -> {
+            throw new IllegalStateException("part failed");
+        });
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("part failed", e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            fail("Task isn't executed");
+        }
+    }
+}
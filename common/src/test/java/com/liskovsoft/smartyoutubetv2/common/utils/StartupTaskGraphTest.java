@@ -0,0 +1,75 @@
+package com.liskovsoft.smartyoutubetv2.common.utils;
+
+import android.os.Looper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class StartupTaskGraphTest {
+    private final List<String> mOrder = new ArrayList<>();
+
+    @Test
+    public void testCriticalTasksRunAtOnce() {
+        new StartupTaskGraph()
+                .add("prefs", true, () -> mOrder.add("prefs"))
+                .add("cache", false, () -> mOrder.add("cache"))
+                .add("ui", true, () -> mOrder.add("ui"), "prefs")
+                .start();
+
+        assertEquals(Arrays.asList("prefs", "ui"), mOrder);
+    }
+
+    @Test
+    public void testDeferredTasksRespectDependencies() {
+        StartupTaskGraph graph = new StartupTaskGraph()
+                .add("updates", false, () -> mOrder.add("updates"), "network")
+                .add("network", false, () -> mOrder.add("network"), "prefs")
+                .add("prefs", true, () -> mOrder.add("prefs"));
+
+        graph.start();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(Arrays.asList("prefs", "network", "updates"), mOrder);
+        assertEquals(3, graph.getTimings().size());
+    }
+
+    @Test
+    public void testUnknownDependencyIsSkipped() {
+        new StartupTaskGraph()
+                .add("orphan", false, () -> mOrder.add("orphan"), "missing")
+                .add("other", false, () -> mOrder.add("other"))
+                .start();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(Collections.singletonList("other"), mOrder);
+    }
+
+    @Test
+    public void testCriticalTaskCantDependOnDeferred() {
+        StartupTaskGraph graph = new StartupTaskGraph()
+                .add("deferred", false, () -> mOrder.add("deferred"))
+                .add("critical", true, () -> mOrder.add("critical"), "deferred");
+
+        try {
+            graph.start();
+        } catch (IllegalStateException e) {
+            assertTrue(mOrder.isEmpty());
+            return;
+        }
+
+        throw new AssertionError("Critical task with the deferred dependency should fail");
+    }
+}
@@ -2,9 +2,13 @@ package com.liskovsoft.leanbackassistant.channels;
 
 import android.annotation.TargetApi;
 import android.content.ComponentName;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager.NameNotFoundException;
 import android.database.Cursor;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
@@ -31,7 +35,9 @@ import com.liskovsoft.sharedutils.mylogger.Log;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -55,6 +61,9 @@ public class ChannelsProvider {
     private static final Uri PREVIEW_PROGRAMS_CONTENT_URI =
             Uri.parse("content://android.media.tv/preview_program");
 
+    private static final String CHANNELS_PREFS_NAME = ChannelsProvider.class.getName();
+    private static final String CHANNEL_LOGO_KEY = "channel_logo_";
+
     @TargetApi(21)
     private static final String[] CHANNEL_COLUMNS = {
             TvContractCompat.Channels._ID,
@@ -84,8 +93,49 @@ public class ChannelsProvider {
     static private void writeChannelLogo(Context context, long channelId, @DrawableRes int drawableId) {
         if (channelId != -1 && drawableId != -1) {
             Bitmap bitmap = BitmapFactory.decodeResource(context.getResources(), drawableId);
-            ChannelLogoUtils.storeChannelLogo(context, channelId, bitmap);
+            boolean stored = ChannelLogoUtils.storeChannelLogo(context, channelId, bitmap);
+
+            if (stored) {
+                getPrefs(context).edit().putString(CHANNEL_LOGO_KEY + channelId, getLogoKey(context, drawableId)).apply();
+            }
+        }
+    }
+
+    /**
+     * Decoding and storing the logo is expensive. Skip it if the same logo is already written.
+     */
+    @WorkerThread
+    static private void writeChannelLogoIfNeeded(Context context, long channelId, @DrawableRes int drawableId) {
+        if (channelId == -1 || drawableId == -1) {
+            return;
+        }
+
+        String storedKey = getPrefs(context).getString(CHANNEL_LOGO_KEY + channelId, null);
+
+        if (TextUtils.equals(storedKey, getLogoKey(context, drawableId))) {
+            return;
+        }
+
+        writeChannelLogo(context, channelId, drawableId);
+    }
+
+    /**
+     * Resource ids may change after the app update
+     */
+    private static String getLogoKey(Context context, @DrawableRes int drawableId) {
+        long lastUpdateTime = 0;
+
+        try {
+            lastUpdateTime = context.getPackageManager().getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+        } catch (NameNotFoundException e) {
+            e.printStackTrace();
         }
+
+        return drawableId + "_" + lastUpdateTime;
+    }
+
+    private static SharedPreferences getPrefs(Context context) {
+        return context.getSharedPreferences(CHANNELS_PREFS_NAME, Context.MODE_PRIVATE);
     }
 
     @WorkerThread
@@ -222,8 +272,19 @@ public class ChannelsProvider {
         }
     }
 
+    /**
+     * Channel might be removed by the user
+     */
     @WorkerThread
-    public static void createOrUpdateChannel(Context context, Playlist playlist) {
+    public static boolean isChannelExists(Context context, Playlist playlist) {
+        return findChannelByProviderId(context, playlist.getPlaylistId()) != null;
+    }
+
+    /**
+     * @return false if the channel can't be created
+     */
+    @WorkerThread
+    public static boolean createOrUpdateChannel(Context context, Playlist playlist) {
         long publishedId = playlist.getPublishedId();
 
         if (publishedId != -1) {
@@ -231,7 +292,7 @@ public class ChannelsProvider {
             updateChannel(context, playlist);
             //addClipsToChannel(context, publishedId, Helpers.isGoogleTVLauncher(context) || channel.isBrowsable() ? playlist.getClips() : Collections.emptyList());
             addClipsToChannel(context, publishedId, playlist.getClips());
-            return;
+            return true;
         }
 
         Channel channel = findChannelByProviderId(context, playlist.getPlaylistId());
@@ -242,7 +303,7 @@ public class ChannelsProvider {
             updateChannel(context, playlist);
             //addClipsToChannel(context, channel.getId(), Helpers.isGoogleTVLauncher(context) || channel.isBrowsable() ? playlist.getClips() : Collections.emptyList());
             addClipsToChannel(context, channel.getId(), playlist.getClips());
-            return;
+            return true;
         }
 
         Log.d(TAG, "Creating channel: " + playlist.getName());
@@ -252,6 +313,8 @@ public class ChannelsProvider {
         // The channels are disabled by default (don't populate to save resources)
         //addClipsToChannel(context, channelId, Collections.emptyList());
         addClipsToChannel(context, channelId, playlist.getClips());
+
+        return channelId != -1;
     }
 
     private static long createChannel(Context context, Playlist playlist) {
@@ -299,18 +362,158 @@ public class ChannelsProvider {
             return;
         }
 
-        cleanupChannel(context, channelId);
+        ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+        List<Clip> inserted = new ArrayList<>();
 
-        int weight = clips.size();
-        for (int i = 0; i < clips.size(); ++i, --weight) {
+        // Incremental update. The launcher re-renders only the changed programs.
+        Map<String, PreviewProgram> published = findPublishedPrograms(context, channelId, operations);
+        int[] weights = createWeights(clips, published);
+
+        for (int i = 0; i < clips.size(); ++i) {
             Clip clip = clips.get(i);
 
-            publishProgram(context, clip, channelId, weight);
+            if (clip.getVideoUrl() == null) {
+                // Seems like this is an ads
+                Log.e(TAG, "Clip doesn't contain url. Skipping...");
+                continue;
+            }
+
+            ContentValues values = createProgramBuilder(context, clip)
+                    .setWeight(weights[i])
+                    .setChannelId(channelId)
+                    .build().toContentValues();
+
+            PreviewProgram existing = published.remove(clip.getClipId());
+
+            if (existing == null) {
+                operations.add(ContentProviderOperation.newInsert(PREVIEW_PROGRAMS_CONTENT_URI).withValues(values).build());
+                inserted.add(clip);
+            } else {
+                clip.setProgramId(existing.getId());
+
+                if (isProgramChanged(existing, values)) {
+                    operations.add(ContentProviderOperation.newUpdate(TvContractCompat.buildPreviewProgramUri(existing.getId()))
+                            .withValues(values).build());
+                }
+            }
+        }
+
+        // Programs that gone from the playlist
+        for (PreviewProgram program : published.values()) {
+            operations.add(ContentProviderOperation.newDelete(TvContractCompat.buildPreviewProgramUri(program.getId())).build());
+        }
+
+        if (operations.isEmpty()) {
+            Log.d(TAG, "Channel programs are up to date: " + channelId);
+            return;
+        }
+
+        Log.d(TAG, "Updating channel programs: %s, operations: %s, inserts: %s", channelId, operations.size(), inserted.size());
+
+        ContentProviderResult[] results = null;
+
+        try {
+            results = context.getContentResolver().applyBatch(TvContractCompat.AUTHORITY, operations);
+        } catch (Exception e) { // OperationApplicationException, RemoteException, SecurityException
+            Log.e(TAG, e.getMessage());
+            e.printStackTrace();
+        }
+
+        if (results == null) {
+            Log.e(TAG, "Update programs failed");
+            return;
+        }
+
+        int insertIndex = 0;
+        for (int i = 0; i < results.length && insertIndex < inserted.size(); i++) {
+            Uri programUri = results[i].uri;
+
+            if (programUri == null) { // update or delete result
+                continue;
+            }
+
+            if (!programUri.equals(Uri.EMPTY)) {
+                inserted.get(insertIndex).setProgramId(ContentUris.parseId(programUri));
+            }
+
+            insertIndex++;
         }
     }
 
-    private static void cleanupChannel(Context context, long channelId) {
-        context.getContentResolver().delete(TvContractCompat.buildPreviewProgramsUriForChannel(channelId), null, null);
+    /**
+     * Weights go down along the list. Existing programs keep their weights while the order allows it.<br/>
+     * So a new video at the top doesn't update the rest of the programs.
+     */
+    private static int[] createWeights(List<Clip> clips, Map<String, PreviewProgram> published) {
+        int[] weights = new int[clips.size()];
+        int lowerWeight = 0;
+
+        for (int i = clips.size() - 1; i >= 0; i--) {
+            PreviewProgram existing = published.get(clips.get(i).getClipId());
+
+            if (existing != null && existing.getWeight() > lowerWeight) {
+                weights[i] = existing.getWeight();
+            } else {
+                weights[i] = lowerWeight + 1;
+            }
+
+            lowerWeight = weights[i];
+        }
+
+        return weights;
+    }
+
+    /**
+     * Published programs by internal provider id (clip id). Deletion of the duplicates is added to the operations.
+     */
+    private static Map<String, PreviewProgram> findPublishedPrograms(Context context, long channelId, List<ContentProviderOperation> operations) {
+        Map<String, PreviewProgram> result = new HashMap<>();
+
+        Cursor cursor = null;
+
+        try {
+            cursor = context.getContentResolver().query(
+                    TvContractCompat.buildPreviewProgramsUriForChannel(channelId), PreviewProgram.PROJECTION, null, null, null);
+
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    PreviewProgram program = PreviewProgram.fromCursor(cursor);
+                    String providerId = program.getInternalProviderId();
+
+                    if (providerId == null || result.containsKey(providerId)) {
+                        operations.add(ContentProviderOperation.newDelete(TvContractCompat.buildPreviewProgramUri(program.getId())).build());
+                        continue;
+                    }
+
+                    result.put(providerId, program);
+                }
+            }
+        } catch (Exception e) { // channels not supported
+            Log.e(TAG, e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean isProgramChanged(PreviewProgram existing, ContentValues values) {
+        ContentValues existingValues = existing.toContentValues();
+
+        for (String key : values.keySet()) {
+            Object newValue = values.get(key);
+            Object oldValue = existingValues.get(key);
+
+            // Compare as strings. Cursor may return other numeric types.
+            if (!TextUtils.equals(newValue != null ? newValue.toString() : null, oldValue != null ? oldValue.toString() : null)) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     @WorkerThread
@@ -322,7 +525,7 @@ public class ChannelsProvider {
             return;
         }
 
-        writeChannelLogo(context, channelId, playlist.getLogoResId());
+        writeChannelLogoIfNeeded(context, channelId, playlist.getLogoResId());
 
         Builder builder = createChannelBuilder(context, playlist);
 
@@ -372,40 +575,6 @@ public class ChannelsProvider {
         }
     }
 
-    private static void publishProgram(Context context, Clip clip, long channelId, int weight) {
-        if (clip.getProgramId() != -1) {
-            Log.e(TAG, "Clip already published. Skipping...");
-            return;
-        }
-
-        if (clip.getVideoUrl() == null) {
-            // Seems like this is an ads
-            Log.e(TAG, "Clip doesn't contain url. Skipping...");
-            return;
-        }
-
-        PreviewProgram.Builder builder =
-                createProgramBuilder(context, clip)
-                        .setWeight(weight)
-                        .setChannelId(channelId);
-
-        Uri programUri = null;
-
-        try {
-            programUri = context.getContentResolver().insert(PREVIEW_PROGRAMS_CONTENT_URI, builder.build().toContentValues());
-        } catch (Exception e) {
-            Log.e(TAG, e.getMessage());
-            e.printStackTrace();
-        }
-
-        if (programUri == null || programUri.equals(Uri.EMPTY)) {
-            Log.e(TAG, "Insert program failed");
-            return;
-        }
-
-        clip.setProgramId(ContentUris.parseId(programUri));
-    }
-
     static String decodeVideoId(Uri uri) {
         List<String> paths = uri.getPathSegments();
         if (paths.size() == 2 && TextUtils.equals(paths.get(0), PLAY_VIDEO_ACTION_PATH)) {
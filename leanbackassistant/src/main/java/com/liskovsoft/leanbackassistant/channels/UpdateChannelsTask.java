@@ -1,7 +1,7 @@
 package com.liskovsoft.leanbackassistant.channels;
 
 import android.content.Context;
-import com.liskovsoft.leanbackassistant.media.ClipService;
+import com.liskovsoft.leanbackassistant.media.ClipServiceCached;
 import com.liskovsoft.leanbackassistant.media.Playlist;
 import com.liskovsoft.leanbackassistant.recommendations.RecommendationsProvider;
 import com.liskovsoft.sharedutils.helpers.Helpers;
@@ -12,17 +12,20 @@ public class UpdateChannelsTask {
     private static final String TAG = UpdateChannelsTask.class.getSimpleName();
     private final Context mContext;
     private final GlobalPreferences mPrefs;
-    private final ClipService mService;
+    private final ClipServiceCached mService;
 
     public UpdateChannelsTask(Context context) {
         mContext = context;
 
         Log.d(TAG, "Creating GlobalPreferences...");
         mPrefs = GlobalPreferences.instance(context);
-        mService = ClipService.instance(context);
+        mService = ClipServiceCached.instance(context);
     }
 
     public void run() {
+        // Fetch all playlists in parallel. They'll be served from the cache later.
+        mService.prefetchAll();
+
         updateChannels();
         updateRecommendations();
     }
@@ -82,8 +85,17 @@ public class UpdateChannelsTask {
     }
 
     private void updateOrPublishChannel(Playlist playlist) {
+        // Removed by the user channel should be created again
+        if (!mService.isChanged(playlist) && ChannelsProvider.isChannelExists(mContext, playlist)) {
+            Log.d(TAG, "Channel content isn't changed. Skipping: " + playlist.getName());
+            return;
+        }
+
         Log.d(TAG, "Syncing channel: " + playlist.getName());
-        ChannelsProvider.createOrUpdateChannel(mContext, playlist);
+
+        if (ChannelsProvider.createOrUpdateChannel(mContext, playlist)) {
+            mService.markPublished(playlist);
+        }
     }
 
     //private void updateOrPublishRecommendations(Playlist playlist) {
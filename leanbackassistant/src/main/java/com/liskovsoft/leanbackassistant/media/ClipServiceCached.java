@@ -1,98 +1,249 @@
 package com.liskovsoft.leanbackassistant.media;
 
+import android.annotation.SuppressLint;
 import android.content.Context;
+import android.content.SharedPreferences;
 
+import com.liskovsoft.mediaserviceinterfaces.data.Account;
+import com.liskovsoft.sharedutils.helpers.Helpers;
+import com.liskovsoft.sharedutils.mylogger.Log;
+import com.liskovsoft.youtubeapi.service.YouTubeServiceManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.reactivex.Completable;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Playlists are persisted on disk along with the fetch time. Separately for every account.<br/>
+ * So the fresh process (e.g. background channel worker) doesn't need to fetch them again.<br/>
+ * Hash of the published content lets to skip the channels that aren't changed.
+ */
 public class ClipServiceCached extends ClipService {
-    private static ClipServiceCached mInstance;
-    private Playlist mSubscriptions;
-    private long mSubscriptionsTime;
-    private Playlist mHistory;
-    private long mHistoryTime;
-    private Playlist mRecommended;
-    private long mRecommendedTime;
+    private static final String TAG = ClipServiceCached.class.getSimpleName();
+    private static final String PREFS_NAME = ClipServiceCached.class.getName();
+    private static final String SUBSCRIPTIONS_KEY = "subscriptions";
+    private static final String HISTORY_KEY = "history";
+    private static final String RECOMMENDED_KEY = "recommended";
+    private static final String PUBLISHED_HASH_KEY = "published_hash_";
+    private static final String DATA_DELIM = "&cd;";
+    private static final String CLIP_DELIM = "&cl;";
+    private static final String FIELD_DELIM = "&cf;";
     private static final long CACHE_UPDATE_TIME = 15 * 60 * 1000;
+    @SuppressLint("StaticFieldLeak")
+    private static ClipServiceCached mInstance;
+    private final SharedPreferences mPrefs;
+    private volatile Playlist mSubscriptions;
+    private volatile Playlist mHistory;
+    private volatile Playlist mRecommended;
+
+    private interface PlaylistSource {
+        Playlist getPlaylist();
+    }
 
     public ClipServiceCached(Context context) {
         super(context);
+
+        mPrefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
     }
 
-    public static ClipService instance(Context context) {
+    public static ClipServiceCached instance(Context context) {
         if (mInstance == null) {
-            mInstance = new ClipServiceCached(context);
+            mInstance = new ClipServiceCached(context.getApplicationContext());
         }
 
         return mInstance;
     }
 
+    /**
+     * Fetch all playlists in parallel instead of one after another.
+     */
+    public void prefetchAll() {
+        try {
+            Completable.mergeArrayDelayError(
+                    Completable.fromAction(this::getSubscriptionsPlaylist).subscribeOn(Schedulers.io()),
+                    Completable.fromAction(this::getHistoryPlaylist).subscribeOn(Schedulers.io()),
+                    Completable.fromAction(this::getRecommendedPlaylist).subscribeOn(Schedulers.io())
+            ).blockingAwait();
+        } catch (Exception e) {
+            Log.e(TAG, "Prefetch error: %s", e.getMessage());
+        }
+    }
+
+    @Override
     public Playlist getSubscriptionsPlaylist() {
-        Playlist cache = getSubscriptionsPlaylistCache();
+        Playlist playlist = mSubscriptions;
 
-        if (cache == null) {
-            cache = super.getSubscriptionsPlaylist();
-            setSubscriptionsPlaylistCache(cache);
+        if (!isFresh(playlist)) {
+            playlist = obtainPlaylist(SUBSCRIPTIONS_KEY, super::getSubscriptionsPlaylist);
+            mSubscriptions = playlist;
         }
 
-        return cache;
+        return playlist;
     }
 
-    private Playlist getSubscriptionsPlaylistCache() {
-        if ((System.currentTimeMillis() - mSubscriptionsTime) < CACHE_UPDATE_TIME) {
-            return mSubscriptions;
+    @Override
+    public Playlist getHistoryPlaylist() {
+        Playlist playlist = mHistory;
+
+        if (!isFresh(playlist)) {
+            playlist = obtainPlaylist(HISTORY_KEY, super::getHistoryPlaylist);
+            mHistory = playlist;
         }
 
-        return null;
+        return playlist;
     }
 
-    private void setSubscriptionsPlaylistCache(Playlist cache) {
-        mSubscriptionsTime = System.currentTimeMillis();
-        mSubscriptions = cache;
+    @Override
+    public Playlist getRecommendedPlaylist() {
+        Playlist playlist = mRecommended;
+
+        if (!isFresh(playlist)) {
+            playlist = obtainPlaylist(RECOMMENDED_KEY, super::getRecommendedPlaylist);
+            mRecommended = playlist;
+        }
+
+        return playlist;
     }
 
-    public Playlist getHistoryPlaylist() {
-        Playlist cache = getHistoryPlaylistCache();
+    /**
+     * Clips that are already on disk, even if outdated. Never touches the network.
+     */
+    public List<Clip> getCachedClips() {
+        List<Clip> result = new ArrayList<>();
+
+        for (String key : new String[] {SUBSCRIPTIONS_KEY, HISTORY_KEY}) {
+            String data = mPrefs.getString(getAccountKey(key), null);
+
+            if (data != null) {
+                List<Clip> clips = fromString(Helpers.parseStr(Helpers.split(DATA_DELIM, data), 1));
 
-        if (cache == null) {
-            cache = super.getHistoryPlaylist();
-            setHistoryPlaylistCache(cache);
+                if (clips != null) {
+                    result.addAll(clips);
+                }
+            }
         }
 
-        return cache;
+        return result;
     }
 
-    private Playlist getHistoryPlaylistCache() {
-        if ((System.currentTimeMillis() - mHistoryTime) < CACHE_UPDATE_TIME) {
-            return mHistory;
+    /**
+     * Content differs from the last successfully published one
+     */
+    public boolean isChanged(Playlist playlist) {
+        return getHash(playlist.getClips()) != mPrefs.getInt(getAccountKey(PUBLISHED_HASH_KEY + playlist.getPlaylistId()), 0);
+    }
+
+    /**
+     * Call only after the channel is published successfully
+     */
+    public void markPublished(Playlist playlist) {
+        mPrefs.edit().putInt(getAccountKey(PUBLISHED_HASH_KEY + playlist.getPlaylistId()), getHash(playlist.getClips())).apply();
+    }
+
+    private boolean isFresh(Playlist playlist) {
+        return playlist != null && System.currentTimeMillis() - playlist.getFetchTimeMs() < CACHE_UPDATE_TIME;
+    }
+
+    private Playlist obtainPlaylist(String key, PlaylistSource source) {
+        // Base playlist doesn't touch the network until getClips() is called
+        Playlist playlist = source.getPlaylist();
+        key = getAccountKey(key);
+
+        String data = mPrefs.getString(key, null);
+        long fetchTimeMs = 0;
+        List<Clip> clips = null;
+
+        if (data != null) {
+            String[] split = Helpers.split(DATA_DELIM, data);
+            fetchTimeMs = Helpers.parseLong(split, 0);
+            clips = fromString(Helpers.parseStr(split, 1));
+        }
+
+        if (clips != null && !clips.isEmpty() && System.currentTimeMillis() - fetchTimeMs < CACHE_UPDATE_TIME) {
+            Log.d(TAG, "Serving playlist from disk: %s", key);
+            playlist.setClips(clips);
+            playlist.setFetchTimeMs(fetchTimeMs);
+        } else {
+            clips = playlist.getClips(); // network call
+            playlist.setFetchTimeMs(System.currentTimeMillis());
+
+            if (clips != null && !clips.isEmpty()) {
+                mPrefs.edit().putString(key, Helpers.merge(DATA_DELIM, playlist.getFetchTimeMs(), toString(clips))).apply();
+            }
         }
 
-        return null;
+        return playlist;
     }
 
-    private void setHistoryPlaylistCache(Playlist cache) {
-        mHistoryTime = System.currentTimeMillis();
-        mHistory = cache;
+    /**
+     * Don't mix the content of the different accounts
+     */
+    private static String getAccountKey(String key) {
+        Account account = YouTubeServiceManager.instance().getSignInService().getSelectedAccount();
+        String email = account != null ? account.getEmail() : null;
+
+        return email != null ? Integer.toHexString(email.hashCode()) + "_" + key : key;
     }
 
-    public Playlist getRecommendedPlaylist() {
-        Playlist cache = getRecommendedPlaylistCache();
+    private static int getHash(List<Clip> clips) {
+        if (clips == null) {
+            return 0;
+        }
 
-        if (cache == null) {
-            cache = super.getRecommendedPlaylist();
-            setRecommendedPlaylistCache(cache);
+        int result = 1;
+
+        for (Clip clip : clips) {
+            result = 31 * result + Helpers.hashCodeAny(clip.getClipId(), clip.getTitle(), clip.getDescription(),
+                    clip.getCardImageUrl(), clip.getDurationMs(), clip.isLive());
         }
 
-        return cache;
+        return result;
     }
 
-    private Playlist getRecommendedPlaylistCache() {
-        if ((System.currentTimeMillis() - mRecommendedTime) < CACHE_UPDATE_TIME) {
-            return mRecommended;
+    private static String toString(List<Clip> clips) {
+        StringBuilder sb = new StringBuilder();
+
+        for (Clip clip : clips) {
+            if (sb.length() != 0) {
+                sb.append(CLIP_DELIM);
+            }
+
+            sb.append(Helpers.merge(FIELD_DELIM, clip.getTitle(), clip.getDescription(), clip.getDurationMs(),
+                    clip.getBackgroundImageUrl(), clip.getCardImageUrl(), clip.getVideoUrl(), clip.isLive(),
+                    clip.getClipId(), clip.getAspectRatio()));
         }
 
-        return null;
+        return sb.toString();
     }
 
-    private void setRecommendedPlaylistCache(Playlist cache) {
-        mRecommendedTime = System.currentTimeMillis();
-        mRecommended = cache;
+    private static List<Clip> fromString(String data) {
+        if (data == null || data.isEmpty()) {
+            return null;
+        }
+
+        List<Clip> result = new ArrayList<>();
+
+        for (String spec : Helpers.split(CLIP_DELIM, data)) {
+            String[] split = Helpers.split(FIELD_DELIM, spec);
+
+            result.add(new Clip(
+                    Helpers.parseStr(split, 0),
+                    Helpers.parseStr(split, 1),
+                    Helpers.parseLong(split, 2),
+                    Helpers.parseStr(split, 3),
+                    Helpers.parseStr(split, 4),
+                    Helpers.parseStr(split, 5),
+                    null,
+                    false,
+                    Helpers.parseBoolean(split, 6),
+                    null,
+                    Helpers.parseStr(split, 7),
+                    null,
+                    (int) Helpers.parseLong(split, 8)));
+        }
+
+        return result;
     }
 }
@@ -45,6 +45,7 @@ public final class Playlist {
     private int mLogoResId = -1;
     private final GroupCallback mCallback;
     private final boolean mIsDefault;
+    private long mFetchTimeMs;
     private static final int MIN_PLAYLIST_SIZE = 40;
 
     public Playlist(String name, String playlistId, GroupCallback callback) {
@@ -79,6 +80,10 @@ public final class Playlist {
         return mClips;
     }
 
+    public void setClips(List<Clip> clips) {
+        mClips = clips;
+    }
+
     public String getDescription() {
         return mDescription;
     }
@@ -236,6 +241,14 @@ public final class Playlist {
         return null;
     }
 
+    public long getFetchTimeMs() {
+        return mFetchTimeMs;
+    }
+
+    public void setFetchTimeMs(long timeMs) {
+        mFetchTimeMs = timeMs;
+    }
+
     public void setChannelKey(String key) {
         mChannelKey = key;
     }
@@ -6,7 +6,6 @@ import android.net.Uri;
 import android.os.Bundle;
 import androidx.annotation.Nullable;
 import com.liskovsoft.leanbackassistant.utils.AppUtil;
-import com.liskovsoft.mediaserviceinterfaces.data.MediaItem;
 import com.liskovsoft.sharedutils.helpers.Helpers;
 import com.liskovsoft.sharedutils.mylogger.Log;
 
@@ -46,12 +45,6 @@ public class SearchableActivity extends Activity {
     }
 
     private String obtainVideoOrChannelUrl(int id) {
-        MediaItem video = VideoContentProvider.findVideoWithId(id);
-
-        if (video != null) {
-            return video.getVideoUrl() != null ? video.getVideoUrl() : video.getChannelUrl();
-        }
-
-        return null;
+        return VideoContentProvider.findUrlWithId(id);
     }
 }
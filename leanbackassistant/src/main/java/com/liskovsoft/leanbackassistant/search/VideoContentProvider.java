@@ -8,19 +8,32 @@ import android.database.Cursor;
 import android.database.MatrixCursor;
 import android.net.Uri;
 import android.provider.BaseColumns;
+import android.util.Pair;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.liskovsoft.leanbackassistant.R;
+import com.liskovsoft.leanbackassistant.media.Clip;
+import com.liskovsoft.leanbackassistant.media.ClipServiceCached;
+import com.liskovsoft.mediaserviceinterfaces.ContentService;
 import com.liskovsoft.mediaserviceinterfaces.data.MediaGroup;
 import com.liskovsoft.mediaserviceinterfaces.data.MediaItem;
 import com.liskovsoft.sharedutils.mylogger.Log;
-import com.liskovsoft.sharedutils.rx.AppSchedulerProvider;
-import com.liskovsoft.sharedutils.rx.SchedulerProvider;
 import com.liskovsoft.youtubeapi.service.YouTubeServiceManager;
-import io.reactivex.disposables.CompositeDisposable;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Provides global search on the app's movie service.<br/>
@@ -57,10 +70,29 @@ public class VideoContentProvider extends ContentProvider {
                 MockDatabase.KEY_ACTION,
                 SearchManager.SUGGEST_COLUMN_INTENT_DATA_ID
     };
-    private CompositeDisposable mDisposable;
-    private SchedulerProvider mSchedulerProvider;
-    private static List<MediaItem> sCachedMediaItems = new ArrayList<>();
-    private MediaGroup mSearch;
+    private static final long SEARCH_TIMEOUT_MS = 1_500;
+    private static final long CACHE_TTL_MS = 10 * 60 * 1_000;
+    private static final int MAX_CACHED_QUERIES = 50;
+    private static final int MAX_LOCAL_RESULTS = 5;
+    private static final int MAX_URLS = 1_000;
+    private static final int MAX_SEARCH_THREADS = 2;
+    // Few threads are enough. Every query waits no longer than the timeout anyway.
+    private static final ExecutorService sExecutor = Executors.newFixedThreadPool(MAX_SEARCH_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "assistant-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // limit + normalized query -> (fetch time, items)
+    private static final Map<String, Pair<Long, List<MediaItem>>> sCache = new LinkedHashMap<String, Pair<Long, List<MediaItem>>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pair<Long, List<MediaItem>>> eldest) {
+            return size() > MAX_CACHED_QUERIES;
+        }
+    };
+    // Same query from the launcher and the assistant shares one request
+    private static final Map<String, Future<List<MediaItem>>> sPending = new HashMap<>();
+    // row id -> video or channel url
+    private static final Map<Integer, String> sUrls = new HashMap<>();
 
     @Override
     public boolean onCreate() {
@@ -113,86 +145,188 @@ public class VideoContentProvider extends ContentProvider {
         }
     }
 
-    public static MediaItem findVideoWithId(int id) {
-        if (sCachedMediaItems == null) {
-            return null;
+    public static String findUrlWithId(int id) {
+        synchronized (sUrls) {
+            return sUrls.get(id);
         }
-
-        for (MediaItem video : sCachedMediaItems) {
-            if (video != null && video.getId() == id) {
-                return video;
-            }
-        }
-
-        return null;
     }
 
+    /**
+     * Local results go first. Remote results are taken from the cache or awaited no longer than {@link #SEARCH_TIMEOUT_MS}.
+     */
     private Cursor search(String query, int limit) {
         MatrixCursor matrixCursor = new MatrixCursor(queryProjection);
 
-        mSearch = YouTubeServiceManager.instance().getContentService().getSearch(query);
+        if (query == null || query.trim().isEmpty()) {
+            return matrixCursor;
+        }
+
+        String key = normalize(query);
+        Set<String> urls = new HashSet<>();
 
-        if (mSearch != null) {
-            List<MediaItem> mediaItems = mSearch.getMediaItems();
+        for (Clip clip : findLocal(key)) {
+            if (urls.add(clip.getVideoUrl())) {
+                matrixCursor.addRow(convertClipIntoRow(clip));
+            }
+        }
 
-            Log.d(TAG, "Search result received: " + mediaItems);
+        List<MediaItem> mediaItems = getRemote(key, limit);
 
-            sCachedMediaItems.clear();
+        if (mediaItems != null) {
+            Log.d(TAG, "Search result received: " + mediaItems.size());
 
-            apply(matrixCursor, mediaItems, limit);
+            for (MediaItem mediaItem : mediaItems) {
+                if (matrixCursor.getCount() >= limit) {
+                    break;
+                }
+
+                String url = getUrl(mediaItem);
+
+                if (url == null || urls.add(url)) {
+                    matrixCursor.addRow(convertVideoIntoRow(mediaItem));
+                    putUrl(mediaItem.getId(), url);
+                }
+            }
         } else {
             Log.e(TAG, "Search is empty");
         }
 
-
         return matrixCursor;
     }
 
-    private void nextSearch(MatrixCursor cursor, int limit) {
-        mSearch = YouTubeServiceManager.instance().getContentService().continueGroup(mSearch);
+    /**
+     * Subscriptions and history from the home screen channels. No network.
+     */
+    private List<Clip> findLocal(String key) {
+        List<Clip> result = new ArrayList<>();
 
-        if (mSearch != null) {
-            List<MediaItem> mediaItems = mSearch.getMediaItems();
+        if (getContext() == null) {
+            return result;
+        }
 
-            Log.d(TAG, "Next search result received: " + mediaItems);
+        for (Clip clip : ClipServiceCached.instance(getContext()).getCachedClips()) {
+            if (result.size() >= MAX_LOCAL_RESULTS) {
+                break;
+            }
 
-            apply(cursor, mediaItems, limit);
-        } else {
-            Log.e(TAG, "Next search is empty");
+            if (clip.getTitle() != null && clip.getVideoUrl() != null && normalize(clip.getTitle()).contains(key)) {
+                result.add(clip);
+            }
         }
+
+        return result;
     }
 
-    private void apply(MatrixCursor matrixCursor, List<MediaItem> mediaItems, int limit) {
-        if (mediaItems != null) {
-            int idx = 0;
+    private static List<MediaItem> getRemote(String key, int limit) {
+        // Result of the smaller limit isn't enough for the bigger one
+        String cacheKey = limit + ":" + key;
+        Future<List<MediaItem>> pending;
 
-            for (MediaItem mediaItem : mediaItems) {
-                matrixCursor.addRow(convertVideoIntoRow(mediaItem));
-                idx++;
+        synchronized (sCache) {
+            Pair<Long, List<MediaItem>> cached = sCache.get(cacheKey);
+
+            if (cached != null && System.currentTimeMillis() - cached.first < CACHE_TTL_MS) {
+                return cached.second;
             }
 
-            sCachedMediaItems.addAll(mediaItems);
+            pending = sPending.get(cacheKey);
 
-            if (idx < limit) {
-                nextSearch(matrixCursor, limit - idx);
+            if (pending == null) {
+                pending = sExecutor.submit(() -> fetchRemote(cacheKey, key, limit));
+                sPending.put(cacheKey, pending);
             }
         }
+
+        try {
+            return pending.get(SEARCH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // The request keeps running and fills the cache for the next keystroke
+            Log.d(TAG, "Search is too slow: %s", key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Search error: %s", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        }
+
+        return null;
     }
 
-    private SchedulerProvider getSchedulerProvider() {
-        if (mSchedulerProvider == null) {
-            mSchedulerProvider = new AppSchedulerProvider();
+    private static List<MediaItem> fetchRemote(String cacheKey, String key, int limit) {
+        List<MediaItem> result = new ArrayList<>();
+
+        try {
+            ContentService contentService = YouTubeServiceManager.instance().getContentService();
+            MediaGroup search = contentService.getSearch(key);
+
+            while (search != null && search.getMediaItems() != null) {
+                result.addAll(search.getMediaItems());
+
+                if (result.size() >= limit) {
+                    break;
+                }
+
+                search = contentService.continueGroup(search);
+            }
+
+            if (!result.isEmpty()) {
+                synchronized (sCache) {
+                    sCache.put(cacheKey, new Pair<>(System.currentTimeMillis(), result));
+                }
+            }
+        } finally {
+            synchronized (sCache) {
+                sPending.remove(cacheKey);
+            }
         }
 
-        return mSchedulerProvider;
+        return result;
     }
 
-    private CompositeDisposable getCompositeDisposable() {
-        if (mDisposable == null) {
-            mDisposable = new CompositeDisposable();
+    private static void putUrl(int id, String url) {
+        if (url == null) {
+            return;
         }
 
-        return mDisposable;
+        synchronized (sUrls) {
+            if (sUrls.size() > MAX_URLS) {
+                sUrls.clear();
+            }
+
+            sUrls.put(id, url);
+        }
+    }
+
+    private static String getUrl(MediaItem mediaItem) {
+        return mediaItem.getVideoUrl() != null ? mediaItem.getVideoUrl() : mediaItem.getChannelUrl();
+    }
+
+    private static String normalize(String query) {
+        return query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Object[] convertClipIntoRow(Clip clip) {
+        int id = clip.getVideoUrl().hashCode();
+        putUrl(id, clip.getVideoUrl());
+
+        return new Object[] {
+            id,
+            clip.getTitle(),
+            clip.getDescription(),
+            clip.getCardImageUrl(),
+            null,
+            clip.isLive(),
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            clip.getDurationMs(),
+            "GLOBALSEARCH",
+            id
+        };
     }
 
     private Object[] convertVideoIntoRow(MediaItem mediaItem) {
@@ -0,0 +1,59 @@
+package com.liskovsoft.smartyoutubetv2.tv.adapter;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.liskovsoft.sharedutils.helpers.Helpers;
+import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
+
+import java.util.List;
+
+/**
+ * Videos are the same when ids are the same. Contents are the same when the card looks the same.<br/>
+ * NOTE: don't use {@link Video#equals}. It includes the data that changes on every refresh (e.g. media item).
+ */
+public class VideoDiffCallback extends DiffUtil.Callback {
+    private final List<Video> mOldItems;
+    private final List<Video> mNewItems;
+
+    public VideoDiffCallback(List<Video> oldItems, List<Video> newItems) {
+        mOldItems = oldItems;
+        mNewItems = newItems;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return mOldItems.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return mNewItems.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        Video oldItem = mOldItems.get(oldItemPosition);
+        Video newItem = mNewItems.get(newItemPosition);
+
+        return Helpers.equals(oldItem.videoId, newItem.videoId) &&
+                Helpers.equals(oldItem.playlistId, newItem.playlistId) &&
+                Helpers.equals(oldItem.channelId, newItem.channelId) &&
+                Helpers.equals(oldItem.channelGroupId, newItem.channelGroupId) &&
+                oldItem.sectionId == newItem.sectionId;
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        Video oldItem = mOldItems.get(oldItemPosition);
+        Video newItem = mNewItems.get(newItemPosition);
+
+        return Helpers.equals(oldItem.getTitle(), newItem.getTitle()) &&
+                Helpers.equals(Helpers.toString(oldItem.getSecondTitle()), Helpers.toString(newItem.getSecondTitle())) &&
+                Helpers.equals(oldItem.getCardImageUrl(), newItem.getCardImageUrl()) &&
+                Helpers.equals(oldItem.badge, newItem.badge) &&
+                oldItem.percentWatched == newItem.percentWatched &&
+                oldItem.isLive == newItem.isLive &&
+                oldItem.isUpcoming == newItem.isUpcoming &&
+                oldItem.hasNewContent == newItem.hasNewContent;
+    }
+}
@@ -1,6 +1,8 @@
 package com.liskovsoft.smartyoutubetv2.tv.adapter;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.leanback.widget.ObjectAdapter;
 import androidx.leanback.widget.Presenter;
 import androidx.leanback.widget.PresenterSelector;
@@ -8,10 +10,14 @@ import androidx.leanback.widget.PresenterSelector;
 import com.liskovsoft.sharedutils.helpers.Helpers;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
 import com.liskovsoft.smartyoutubetv2.common.app.models.data.VideoGroup;
+import com.liskovsoft.smartyoutubetv2.common.app.models.data.VideoIndex;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
 public class VideoGroupObjectAdapter extends ObjectAdapter {
     private static final String TAG = VideoGroupObjectAdapter.class.getSimpleName();
@@ -25,8 +31,8 @@ public class VideoGroupObjectAdapter extends ObjectAdapter {
             // Another alt method.
             int size = size();
             if (size > 0) {
-                if (size < CHECK_MAX_SIZE)
-                    Helpers.removeIf(c, this::contains);
+                // Indexed lookup. No need to limit the check by size.
+                Helpers.removeIf(c, video -> mIdIndex.indexOf(this, video) != -1);
             } else {
                 Helpers.removeDuplicates(c);
             }
@@ -35,7 +41,9 @@ public class VideoGroupObjectAdapter extends ObjectAdapter {
         }
     };
     private final List<VideoGroup> mVideoGroups = new ArrayList<>(); // keep groups from being garbage collected
-    private static final int CHECK_MAX_SIZE = 200;
+    // Secondary indexes (video -> position)
+    private final VideoIndex mReferenceIndex = VideoIndex.byReference();
+    private final VideoIndex mIdIndex = VideoIndex.byId();
 
     public VideoGroupObjectAdapter(VideoGroup videoGroup, Presenter presenter) {
         super(presenter);
@@ -115,8 +123,12 @@ public class VideoGroupObjectAdapter extends ObjectAdapter {
             mVideoGroups.add(0, group);
         }
 
+        int count = mVideoItems.size() - begin;
+        mReferenceIndex.onPrepend(mVideoItems, count);
+        mIdIndex.onPrepend(mVideoItems, count);
+
         // Fix double item blinking by specifying exact range
-        notifyItemRangeInserted(0, mVideoItems.size() - begin);
+        notifyItemRangeInserted(0, count);
     }
 
     private void append(VideoGroup group) {
@@ -134,25 +146,76 @@ public class VideoGroupObjectAdapter extends ObjectAdapter {
             mVideoGroups.add(group);
         }
 
+        mReferenceIndex.onAppend(mVideoItems, begin);
+        mIdIndex.onAppend(mVideoItems, begin);
+
         // Fix double item blinking by specifying exact range
         notifyItemRangeInserted(begin, mVideoItems.size() - begin);
     }
 
     /**
-     * Compare by reference. Because there may be multiple same videos.
+     * Notifies only the difference by video id. So focus and scroll position are kept.<br/>
+     * Unchanged videos keep their instances. Bound cards aren't rebound.
      */
-    public int indexOf(Video item) {
-        // Compare by reference. Because there may be multiple same videos.
-        int index = -1;
+    public void replace(VideoGroup group) {
+        if (group == null || group.getVideos() == null) {
+            return;
+        }
+
+        List<Video> newItems = new ArrayList<>(group.getVideos());
+        Helpers.removeDuplicates(newItems);
 
-        for (Video video : mVideoItems) {
-            index++;
-            if (video == item) {
-                return index;
+        VideoDiffCallback callback = new VideoDiffCallback(new ArrayList<>(mVideoItems), newItems);
+        DiffUtil.DiffResult diff = DiffUtil.calculateDiff(callback);
+
+        for (int i = 0; i < newItems.size(); i++) {
+            int oldPosition = diff.convertNewPositionToOld(i);
+
+            if (oldPosition != DiffUtil.DiffResult.NO_POSITION && callback.areContentsTheSame(oldPosition, i)) {
+                // Bound card keeps the old instance. Give it the fresh data (media item, playlist params etc).
+                Video oldItem = mVideoItems.get(oldPosition);
+                oldItem.syncRefreshed(newItems.get(i));
+                oldItem.setGroup(group);
+                newItems.set(i, oldItem);
             }
         }
 
-        return -1;
+        mVideoItems.clear();
+        mVideoItems.addAll(newItems);
+        mVideoGroups.clear();
+        mVideoGroups.add(group);
+        mReferenceIndex.rebuild(mVideoItems);
+        mIdIndex.rebuild(mVideoItems);
+
+        diff.dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                notifyItemRangeInserted(position, count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                notifyItemRangeRemoved(position, count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                notifyItemMoved(fromPosition, toPosition);
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                notifyItemRangeChanged(position, count);
+            }
+        });
+    }
+
+    /**
+     * Compare by reference. Because there may be multiple same videos.
+     */
+    public int indexOf(Video item) {
+        // Compare by reference. Because there may be multiple same videos.
+        return mReferenceIndex.indexOf(mVideoItems, item);
     }
 
     /**
@@ -160,16 +223,17 @@ public class VideoGroupObjectAdapter extends ObjectAdapter {
      * UI may consists of multiple rows with same video or even multiple videos in the same row.
      */
     public int indexOfAlt(Video item) {
-        int index = -1;
+        return mIdIndex.indexOf(mVideoItems, item);
+    }
 
-        for (Video video : mVideoItems) {
-            index++;
-            if (video.equals(item)) {
-                return index;
-            }
-        }
+    /**
+     * Focused item is close to the end. Time to load the next page.
+     * @param distance number of items from the end that triggers the continuation
+     */
+    public boolean isNearEnd(Video item, int distance) {
+        int index = indexOf(item);
 
-        return -1;
+        return index != -1 && index > (size() - distance);
     }
 
     /**
@@ -180,6 +244,8 @@ public class VideoGroupObjectAdapter extends ObjectAdapter {
         int itemCount = mVideoItems.size();
         mVideoItems.clear();
         mVideoGroups.clear();
+        mReferenceIndex.rebuild(mVideoItems);
+        mIdIndex.rebuild(mVideoItems);
         if (itemCount != 0) {
             // NOTE: Crashes RecycleView IndexOutOfBoundsException when doing add immediately after clear
             notifyItemRangeRemoved(0, itemCount);
@@ -187,18 +253,45 @@ public class VideoGroupObjectAdapter extends ObjectAdapter {
     }
 
     public void remove(VideoGroup group) {
+        // Remove all occurrences of the same element (if present)
+        TreeSet<Integer> positions = new TreeSet<>();
+
         for (Video video : group.getVideos()) {
-            while (true) { // remove all occurrences of the same element (if present)
-                int index = mVideoItems.indexOf(video);
-                if (index != -1) {
-                    mVideoItems.remove(video);
-                    notifyItemRangeRemoved(index, 1);
-                    removeFromGroup(video);
-                } else {
-                    break;
-                }
+            positions.addAll(mIdIndex.indexesOf(mVideoItems, video));
+        }
+
+        if (positions.isEmpty()) {
+            return;
+        }
+
+        Map<VideoGroup, List<Video>> removedByGroup = new IdentityHashMap<>();
+        List<Video> removed = new ArrayList<>(positions.size());
+
+        // Single pass compaction instead of the removal one by one
+        int writeIndex = 0;
+        for (int i = 0; i < mVideoItems.size(); i++) {
+            Video video = mVideoItems.get(i);
+            if (positions.contains(i)) {
+                addToRemoved(removedByGroup, video);
+                removed.add(video);
+            } else {
+                mVideoItems.set(writeIndex++, video);
             }
         }
+        mVideoItems.subList(writeIndex, mVideoItems.size()).clear();
+
+        // From the end to keep positions valid
+        int removedIndex = removed.size() - 1;
+        for (Integer position : positions.descendingSet()) {
+            Video video = removed.get(removedIndex--);
+            mReferenceIndex.onRemove(video, position);
+            mIdIndex.onRemove(video, position);
+            notifyItemRangeRemoved(position, 1);
+        }
+
+        for (Map.Entry<VideoGroup, List<Video>> entry : removedByGroup.entrySet()) {
+            entry.getKey().removeAll(entry.getValue());
+        }
     }
 
     public void removeAuthor(VideoGroup group) {
@@ -212,12 +305,9 @@ public class VideoGroupObjectAdapter extends ObjectAdapter {
     public void sync(VideoGroup group) {
         for (Video video : group.getVideos()) {
             // Search for multiple occurrences (e.g. History section)
-            for (int i = 0; i < mVideoItems.size(); i++) {
-                Video origin = mVideoItems.get(i);
-                if (origin.equals(video)) {
-                    origin.sync(video);
-                    notifyItemRangeChanged(i, 1);
-                }
+            for (int index : mIdIndex.indexesOf(mVideoItems, video)) {
+                mVideoItems.get(index).sync(video);
+                notifyItemRangeChanged(index, 1);
             }
         }
     }
@@ -226,9 +316,18 @@ public class VideoGroupObjectAdapter extends ObjectAdapter {
         return mVideoItems.isEmpty();
     }
 
-    private void removeFromGroup(Video video) {
-        if (video != null && video.getGroup() != null) {
-            video.getGroup().remove(video);
+    private static void addToRemoved(Map<VideoGroup, List<Video>> removedByGroup, Video video) {
+        if (video == null || video.getGroup() == null) {
+            return;
+        }
+
+        List<Video> videos = removedByGroup.get(video.getGroup());
+
+        if (videos == null) {
+            videos = new ArrayList<>();
+            removedByGroup.put(video.getGroup(), videos);
         }
+
+        videos.add(video);
     }
 }
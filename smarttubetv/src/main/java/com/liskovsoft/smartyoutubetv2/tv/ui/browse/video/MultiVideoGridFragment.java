@@ -444,11 +444,8 @@ public class MultiVideoGridFragment extends MultiGridFragment implements VideoSe
         private void checkScrollEnd(Video item) {
             VideoGroupObjectAdapter adapter = mGridAdapter2;
 
-            int size = adapter.size();
-            int index = adapter.indexOf(item);
-
-            if (index > (size - ViewUtil.GRID_SCROLL_CONTINUE_NUM)) {
-                mMainPresenter.onScrollEnd((Video) adapter.get(size - 1));
+            if (adapter.isNearEnd(item, ViewUtil.GRID_SCROLL_CONTINUE_NUM)) {
+                mMainPresenter.onScrollEnd((Video) adapter.get(adapter.size() - 1));
             }
         }
     }
@@ -168,6 +168,22 @@ public abstract class MultipleRowsFragment extends RowsSupportFragment implement
         return -1;
     }
 
+    /**
+     * Row could be refreshed in place only if its header and card type aren't changed.
+     */
+    private boolean isSameRowLook(VideoGroupObjectAdapter adapter, VideoGroup group) {
+        int position = findPositionById(group.getId());
+
+        if (position == -1) {
+            return false;
+        }
+
+        HeaderItem header = ((ListRow) mRowsAdapter.get(position)).getHeaderItem();
+        Presenter presenter = group.isShorts() ? mShortsPresenter : mCardPresenter;
+
+        return header != null && Helpers.equals(header.getName(), group.getTitle()) && adapter.getPresenter(adapter.get(0)) == presenter;
+    }
+
     private boolean isComputingLayout(VideoGroup group) {
         int action = group.getAction();
 
@@ -236,8 +252,14 @@ public abstract class MultipleRowsFragment extends RowsSupportFragment implement
         int action = group.getAction();
 
         if (action == VideoGroup.ACTION_REPLACE) {
+            VideoGroupObjectAdapter adapter = mVideoGroupAdapters.get(group.getId());
+
             if (group.getPosition() == -1) {
                 clear();
+            } else if (adapter != null && !adapter.isEmpty() && !group.isEmpty() && isSameRowLook(adapter, group)) {
+                // Refresh the row in place. Keep the focus and don't rebind unchanged cards.
+                adapter.replace(group);
+                return;
             } else {
                 removeById(group.getId());
             }
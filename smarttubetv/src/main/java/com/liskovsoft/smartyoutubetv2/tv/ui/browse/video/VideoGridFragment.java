@@ -167,6 +167,12 @@ public class VideoGridFragment extends GridFragment implements VideoSection {
         int action = group.getAction();
 
         if (action == VideoGroup.ACTION_REPLACE) {
+            if (!mGridAdapter.isEmpty() && !group.isEmpty()) {
+                // Refresh. Keep the focus and don't rebind unchanged cards.
+                mGridAdapter.replace(group);
+                return;
+            }
+
             clear();
         } else if (action == VideoGroup.ACTION_REMOVE) {
             mGridAdapter.remove(group);
@@ -288,11 +294,10 @@ public class VideoGridFragment extends GridFragment implements VideoSection {
         }
 
         private void checkScrollEnd(Video item) {
-            int size = mGridAdapter.size();
-            int index = mGridAdapter.indexOf(item);
+            int distance = isShorts() ? ViewUtil.GRID_SCROLL_CONTINUE_NUM * 2 : ViewUtil.GRID_SCROLL_CONTINUE_NUM;
 
-            if (index > (size - (isShorts() ? ViewUtil.GRID_SCROLL_CONTINUE_NUM * 2 : ViewUtil.GRID_SCROLL_CONTINUE_NUM))) {
-                mMainPresenter.onScrollEnd((Video) mGridAdapter.get(size - 1));
+            if (mGridAdapter.isNearEnd(item, distance)) {
+                mMainPresenter.onScrollEnd((Video) mGridAdapter.get(mGridAdapter.size() - 1));
             }
         }
     }
@@ -33,7 +33,8 @@ public class MainApplication extends MultiDexApplication { // fix: Didn't find c
     static {
         // fix youtube bandwidth throttling (best - false)???
         // false is better for streams (less buffering)
-        System.setProperty("http.keepAlive", "false");
+        // NOTE: applied to the player data source only (see ExoMediaSourceFactory). Api calls need connection reuse.
+        //System.setProperty("http.keepAlive", "false");
         // fix ipv6 infinite video buffering???
         // Better to remove this fix at all. Users complain about infinite loading.
         //System.setProperty("java.net.preferIPv6Addresses", "true");
@@ -37,6 +37,7 @@ import com.google.android.exoplayer2.DefaultRenderersFactory;
 import com.google.android.exoplayer2.Player;
 import com.google.android.exoplayer2.SeekParameters;
 import com.google.android.exoplayer2.SimpleExoPlayer;
+import com.google.android.exoplayer2.decoder.DecoderCounters;
 import com.google.android.exoplayer2.ext.leanback.LeanbackPlayerAdapter;
 import com.google.android.exoplayer2.ext.mediasession.MediaSessionConnector;
 import com.google.android.exoplayer2.trackselection.AdaptiveTrackSelection;
@@ -1035,6 +1036,18 @@ public class PlaybackFragment extends SeekModePlaybackFragment implements Playba
         return mExoPlayerController.getAudioFormat();
     }
 
+    @Override
+    public int getDroppedFrames() {
+        DecoderCounters counters = mPlayer != null ? mPlayer.getVideoDecoderCounters() : null;
+
+        if (counters == null) {
+            return -1;
+        }
+
+        counters.ensureUpdated();
+        return counters.droppedBufferCount;
+    }
+
     @Override
     public boolean isEngineInitialized() {
         return mPlayer != null;
@@ -518,6 +518,9 @@ public class VideoPlayerGlue extends MaxControlsVideoPlayerGlue<PlayerAdapter> i
         } else if (action == mVideoSpeedAction) {
             mActionListener.onVideoSpeedLongPress(getActionIndex(action) == TwoStateAction.INDEX_ON);
             handled = true;
+        } else if (action == mVideoStatsAction) {
+            mActionListener.onLongAction((int) action.getId(), getActionIndex(action));
+            handled = true;
         } else if (mActions.containsKey((int) action.getId())) {
             mActionListener.onLongAction((int) action.getId(), getActionIndex(action));
             handled = true;
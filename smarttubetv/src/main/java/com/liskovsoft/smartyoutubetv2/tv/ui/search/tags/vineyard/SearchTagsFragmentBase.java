@@ -15,6 +15,7 @@ import androidx.leanback.widget.ListRowPresenter;
 import androidx.leanback.widget.ObjectAdapter;
 import androidx.leanback.widget.RowPresenter.ViewHolder;
 import androidx.leanback.widget.SpeechRecognitionCallback;
+import com.liskovsoft.sharedutils.helpers.Helpers;
 import com.liskovsoft.sharedutils.helpers.MessageHelpers;
 import com.liskovsoft.sharedutils.helpers.PermissionHelpers;
 import com.liskovsoft.sharedutils.mylogger.Log;
@@ -191,6 +192,11 @@ public abstract class SearchTagsFragmentBase extends SearchSupportFragment
     }
 
     private void searchTaggedPosts(String query) {
+        // Same query (e.g. cursor movement). Keep the current suggestions.
+        if (mSearchTagsAdapter.size() > 0 && containsAdapter(mSearchTagsAdapter) && Helpers.equals(query, mSearchTagsAdapter.getAdapterOptions().get(PaginationAdapter.KEY_TAG))) {
+            return;
+        }
+
         mSearchTagsAdapter.setTag(query);
         mResultsAdapter.clear();
         mSearchTagsAdapter.clear();
@@ -1,22 +1,53 @@
 package com.liskovsoft.smartyoutubetv2.tv.ui.widgets.chat;
 
 import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.SystemClock;
 import android.util.AttributeSet;
+import android.util.LruCache;
+import android.view.Choreographer;
 import android.view.Gravity;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.FrameLayout;
+import android.widget.ImageView;
 import androidx.annotation.Nullable;
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.liskovsoft.mediaserviceinterfaces.data.ChatItem;
 import com.liskovsoft.smartyoutubetv2.common.app.models.playback.ui.ChatReceiver;
 import com.liskovsoft.smartyoutubetv2.common.prefs.PlayerTweaksData;
 import com.liskovsoft.smartyoutubetv2.tv.util.ViewUtil;
 import com.stfalcon.chatkit.messages.MessagesListAdapter;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Messages are collected between frames and added in one batch.<br/>
+ * Only the last {@link #MAX_ITEMS_COUNT} are kept. Busy chat is updated no more often than {@link #MIN_UPDATE_INTERVAL_MS}.<br/>
+ * Items may arrive on any thread. They are converted there and only the batch is applied on the main thread.
+ */
 public class LiveChatView extends com.stfalcon.chatkit.messages.MessagesList {
     private static final String SENDER_ID = LiveChatView.class.getSimpleName();
+    private static final int MAX_ITEMS_COUNT = 20;
+    private static final long MIN_UPDATE_INTERVAL_MS = 250;
+    private static final int MAX_AVATARS_COUNT = 100;
+    // Circle-cropped avatars of the recent authors
+    private static final LruCache<String, Bitmap> sAvatars = new LruCache<>(MAX_AVATARS_COUNT);
     private ChatReceiver mChatReceiver;
     private MessagesListAdapter<ChatItemMessage> mAdapter;
+    // Ring buffer. The oldest message is dropped on overflow, it won't be visible anyway.
+    private final ArrayDeque<ChatItemMessage> mPendingItems = new ArrayDeque<>(MAX_ITEMS_COUNT);
+    private final Choreographer.FrameCallback mFrameCallback = frameTimeNanos -> flushPendingItems();
+    private final Runnable mScheduleFlush = this::scheduleFlush;
+    private boolean mIsFlushPending;
+    private boolean mIsFrameScheduled;
+    private long mLastUpdateTimeMs;
 
     public LiveChatView(Context context) {
         super(context);
@@ -46,6 +77,8 @@ public class LiveChatView extends com.stfalcon.chatkit.messages.MessagesList {
             mAdapter.clear();
         }
 
+        clearPendingItems();
+
         mChatReceiver = chatReceiver;
 
         if (mChatReceiver == null) {
@@ -58,17 +91,121 @@ public class LiveChatView extends com.stfalcon.chatkit.messages.MessagesList {
         setVisibility(View.VISIBLE);
 
         if (mAdapter == null) {
-            mAdapter = new MessagesListAdapter<>(SENDER_ID, (imageView, url, payload) ->
-                    Glide.with(getContext())
-                            .load(url)
-                            .apply(ViewUtil.glideOptions())
-                            .circleCrop() // resize image
-                            .into(imageView));
-            mAdapter.setMaxItemsCount(20);
+            mAdapter = new MessagesListAdapter<>(SENDER_ID, (imageView, url, payload) -> loadAvatar(imageView, url));
+            mAdapter.setMaxItemsCount(MAX_ITEMS_COUNT);
             setAdapter(mAdapter);
         }
 
-        mChatReceiver.setCallback(chatItem -> mAdapter.addToStart(ChatItemMessage.from(chatItem), true));
+        mChatReceiver.setCallback(this::enqueueItem);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        clearPendingItems();
+    }
+
+    private void enqueueItem(ChatItem chatItem) {
+        ChatItemMessage message = ChatItemMessage.from(chatItem);
+        boolean schedule;
+
+        synchronized (mPendingItems) {
+            if (mPendingItems.size() >= MAX_ITEMS_COUNT) {
+                mPendingItems.pollFirst();
+            }
+
+            mPendingItems.addLast(message);
+
+            schedule = !mIsFlushPending;
+            mIsFlushPending = true;
+        }
+
+        if (schedule) {
+            post(mScheduleFlush);
+        }
+    }
+
+    private void scheduleFlush() {
+        if (mIsFrameScheduled) {
+            return;
+        }
+
+        mIsFrameScheduled = true;
+
+        // Throttle under load. Leave the frames to the video.
+        long delayMs = mLastUpdateTimeMs + MIN_UPDATE_INTERVAL_MS - SystemClock.uptimeMillis();
+
+        if (delayMs > 0) {
+            Choreographer.getInstance().postFrameCallbackDelayed(mFrameCallback, delayMs);
+        } else {
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    }
+
+    private void flushPendingItems() {
+        mIsFrameScheduled = false;
+
+        List<ChatItemMessage> messages;
+
+        synchronized (mPendingItems) {
+            messages = new ArrayList<>(mPendingItems);
+            mPendingItems.clear();
+            mIsFlushPending = false;
+        }
+
+        if (mAdapter == null || mChatReceiver == null || messages.isEmpty()) {
+            return;
+        }
+
+        mLastUpdateTimeMs = SystemClock.uptimeMillis();
+
+        mAdapter.addToStart(messages, true);
+    }
+
+    private void clearPendingItems() {
+        removeCallbacks(mScheduleFlush);
+
+        if (mIsFrameScheduled) {
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+            mIsFrameScheduled = false;
+        }
+
+        synchronized (mPendingItems) {
+            mPendingItems.clear();
+            mIsFlushPending = false;
+        }
+    }
+
+    private void loadAvatar(ImageView imageView, String url) {
+        Bitmap avatar = url != null ? sAvatars.get(url) : null;
+
+        if (avatar != null) {
+            Glide.with(getContext()).clear(imageView);
+            imageView.setImageBitmap(avatar);
+            return;
+        }
+
+        Glide.with(getContext())
+                .asBitmap()
+                .load(url)
+                .apply(ViewUtil.glideOptions())
+                .circleCrop() // resize image
+                .listener(new RequestListener<Bitmap>() {
+                    @Override
+                    public boolean onLoadFailed(@Nullable GlideException e, Object model, Target<Bitmap> target, boolean isFirstResource) {
+                        return false;
+                    }
+
+                    @Override
+                    public boolean onResourceReady(Bitmap resource, Object model, Target<Bitmap> target, DataSource dataSource, boolean isFirstResource) {
+                        // Glide may reuse the original bitmap once the view is recycled
+                        if (url != null && resource.getConfig() != null) {
+                            sAvatars.put(url, resource.copy(resource.getConfig(), false));
+                        }
+                        return false;
+                    }
+                })
+                .into(imageView);
     }
 
     private void alignChat() {
@@ -8,6 +8,7 @@ import androidx.annotation.Nullable;
 import com.google.android.exoplayer2.DefaultRenderersFactory;
 import com.google.android.exoplayer2.SeekParameters;
 import com.google.android.exoplayer2.SimpleExoPlayer;
+import com.google.android.exoplayer2.decoder.DecoderCounters;
 import com.google.android.exoplayer2.trackselection.AdaptiveTrackSelection;
 import com.google.android.exoplayer2.trackselection.DefaultTrackSelector;
 import com.google.android.exoplayer2.ui.AspectRatioFrameLayout;
@@ -381,6 +382,18 @@ public class EmbedPlayerView extends PlayerView implements PlaybackView {
         return mExoPlayerController.getAudioFormat();
     }
 
+    @Override
+    public int getDroppedFrames() {
+        DecoderCounters counters = mPlayer != null ? mPlayer.getVideoDecoderCounters() : null;
+
+        if (counters == null) {
+            return -1;
+        }
+
+        counters.ensureUpdated();
+        return counters.droppedBufferCount;
+    }
+
     @Override
     public boolean isEngineInitialized() {
         return mPlayer != null;
@@ -0,0 +1,124 @@
+package com.liskovsoft.smartyoutubetv2.tv.adapter;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.liskovsoft.smartyoutubetv2.common.app.models.data.Video;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class VideoDiffCallbackTest {
+    @Test
+    public void testRefreshedCopyIsSameItem() {
+        Video oldItem = createVideo("video1", "Title");
+        Video newItem = createVideo("video1", "Title");
+        // Changes on every refresh
+        newItem.reloadPageKey = "key2";
+        newItem.clickTrackingParams = "params2";
+
+        VideoDiffCallback callback = new VideoDiffCallback(Collections.singletonList(oldItem), Collections.singletonList(newItem));
+
+        assertTrue(callback.areItemsTheSame(0, 0));
+        assertTrue(callback.areContentsTheSame(0, 0));
+    }
+
+    @Test
+    public void testDifferentVideosAreDifferentItems() {
+        VideoDiffCallback callback = new VideoDiffCallback(
+                Collections.singletonList(createVideo("video1", "Title")), Collections.singletonList(createVideo("video2", "Title")));
+
+        assertFalse(callback.areItemsTheSame(0, 0));
+    }
+
+    @Test
+    public void testSameVideoInOtherPlaylistIsDifferentItem() {
+        Video oldItem = createVideo("video1", "Title");
+        Video newItem = createVideo("video1", "Title");
+        newItem.playlistId = "playlist2";
+
+        VideoDiffCallback callback = new VideoDiffCallback(Collections.singletonList(oldItem), Collections.singletonList(newItem));
+
+        assertFalse(callback.areItemsTheSame(0, 0));
+    }
+
+    @Test
+    public void testChangedTitleIsChangedContent() {
+        VideoDiffCallback callback = new VideoDiffCallback(
+                Collections.singletonList(createVideo("video1", "Title")), Collections.singletonList(createVideo("video1", "New title")));
+
+        assertTrue(callback.areItemsTheSame(0, 0));
+        assertFalse(callback.areContentsTheSame(0, 0));
+    }
+
+    @Test
+    public void testRowRefreshUpdates() {
+        List<Video> oldItems = Arrays.asList(createVideo("video1", "Title1"), createVideo("video2", "Title2"), createVideo("video3", "Title3"));
+        // Refreshed row: first video is gone, second got new title, new one at the end
+        List<Video> newItems = Arrays.asList(createVideo("video2", "New title2"), createVideo("video3", "Title3"), createVideo("video4", "Title4"));
+
+        List<String> updates = new ArrayList<>();
+        DiffUtil.calculateDiff(new VideoDiffCallback(oldItems, newItems)).dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                updates.add("insert " + count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                updates.add("remove " + count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                updates.add("move");
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                updates.add("change " + count);
+            }
+        });
+
+        // Unchanged video isn't rebound
+        Collections.sort(updates);
+        assertEquals(Arrays.asList("change 1", "insert 1", "remove 1"), updates);
+    }
+
+    @Test
+    public void testSyncRefreshedKeepsFreshData() {
+        Video oldItem = createVideo("video1", "Title");
+        Video newItem = createVideo("video1", "Title");
+        newItem.reloadPageKey = "key2";
+        newItem.description = "Description";
+        newItem.isSubscribed = true;
+        newItem.remotePlaylistId = "remote";
+
+        oldItem.syncRefreshed(newItem);
+
+        assertEquals("key2", oldItem.reloadPageKey);
+        assertEquals("Description", oldItem.description);
+        assertTrue(oldItem.isSubscribed);
+        assertEquals("remote", oldItem.remotePlaylistId);
+    }
+
+    private static Video createVideo(String videoId, String title) {
+        Video video = new Video();
+        video.videoId = videoId;
+        video.title = title;
+        video.channelId = "channel1";
+        video.reloadPageKey = "key1";
+        return video;
+    }
+}